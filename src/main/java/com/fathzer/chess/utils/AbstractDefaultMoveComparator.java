@@ -3,19 +3,33 @@ package com.fathzer.chess.utils;
 import com.fathzer.games.util.SelectiveComparator;
 
 /** A selective move comparator that considers a catch is better than other moves and taking a high value piece with a small value piece is better than the opposite and all other moves are equivalent.
+ * <br>Captures and promotions are scored with a {@link MvvLvaTable}, by default {@link MvvLvaTable#DEFAULT}.
  * @param <M> The type of moves
  * @param <B> The type of chess board
  */
 public abstract class AbstractDefaultMoveComparator<M, B> implements SelectiveComparator<M> {
+	/** The maximum number of moves sorted with an insertion sort by {@link #sort(Object[], int[], int, int)}. */
+	public static final int INSERTION_SORT_THRESHOLD = 16;
+
 	/** The chess board on which the comparison are made.
 	 */
 	protected final B board;
+	private final MvvLvaTable table;
 	
 	/** Constructor.
 	 * @param board The chess board on which the comparison is made.
 	 */
 	protected AbstractDefaultMoveComparator(B board) {
+		this(board, MvvLvaTable.DEFAULT);
+	}
+
+	/** Constructor.
+	 * @param board The chess board on which the comparison is made.
+	 * @param table The table used to score captures and promotions.
+	 */
+	protected AbstractDefaultMoveComparator(B board, MvvLvaTable table) {
 		this.board = board;
+		this.table = table;
 	}
 	
 	/** Get the moving piece.
@@ -56,14 +70,55 @@ public abstract class AbstractDefaultMoveComparator<M, B> implements SelectiveCo
 	 * <br>The default implementation guarantees that the returned value is always &gt;=0, and &gt;0 for promotions and captures.
 	 */
 	public int evaluate(M move) {
-		final int promotion = getPromotionType(board, move);
-		int value = promotion==0 ? 0 : (Pieces.getPoints(promotion)-1)*16;
+		final int value = table.getPromotionScore(getPromotionType(board, move));
 		final int captured = getCapturedType(board, move);
 		if (captured==0) {
 			return value;
 		} else {
-			value += Pieces.getPoints(captured)*16;
-			return value - Pieces.getPoints(Math.abs(getMovingPiece(board, move)));
+			return value + table.getCaptureScore(captured, Math.abs(getMovingPiece(board, move)));
+		}
+	}
+
+	/** Computes the values of moves.
+	 * @param moves The moves
+	 * @param scores The array where to store the values. scores[i] is set to {@link #evaluate(Object) evaluate(moves[i])}
+	 * @param size The number of moves to evaluate
+	 */
+	public void evaluate(M[] moves, int[] scores, int size) {
+		for (int i = 0; i < size; i++) {
+			scores[i] = evaluate(moves[i]);
+		}
+	}
+
+	/** Sorts moves in the same order as this comparator, evaluating each move only once.
+	 * <br>This is faster than sorting a list with this comparator, which evaluates both moves at each comparison.
+	 * @param moves The moves
+	 * @param scores An array, at least as long as <i>size</i>, where to store the moves values. After the sort, it contains the values of the sorted moves.
+	 * @param size The number of moves to sort
+	 * @see #sort(Object[], int[], int, int)
+	 */
+	public void sort(M[] moves, int[] scores, int size) {
+		sort(moves, scores, size, size);
+	}
+
+	/** Partially sorts moves in the same order as this comparator, evaluating each move only once.
+	 * <br>Lists of at most {@link #INSERTION_SORT_THRESHOLD} moves are fully sorted with an insertion sort. For longer lists, only the
+	 * <i>count</i> best moves are selected and sorted at the start of the array, the next ones can be selected lazily with
+	 * {@link MoveSorter#selectNext(Object[], int[], int, int)}.
+	 * @param moves The moves
+	 * @param scores An array, at least as long as <i>size</i>, where to store the moves values. After the sort, it contains the values of the sorted moves.
+	 * @param size The number of moves to sort
+	 * @param count The number of moves to sort at the start of the array.
+	 */
+	public void sort(M[] moves, int[] scores, int size, int count) {
+		evaluate(moves, scores, size);
+		if (size<=INSERTION_SORT_THRESHOLD) {
+			MoveSorter.insertionSort(moves, scores, size);
+		} else {
+			final int last = Math.min(count, size-1);
+			for (int i = 0; i < last; i++) {
+				MoveSorter.selectNext(moves, scores, i, size);
+			}
 		}
 	}
 }
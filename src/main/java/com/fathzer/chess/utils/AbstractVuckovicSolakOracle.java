@@ -12,7 +12,7 @@ public abstract class AbstractVuckovicSolakOracle<B> implements RemainingMoveCou
 	
 	@Override
 	public int getRemainingHalfMoves(B board) {
-		final int points = getPieces(board).map(Math::abs).filter(t->t!=KING).map(Pieces::getPoints).sum();
+		final int points = sumPieces(board, AbstractVuckovicSolakOracle::getNonKingPoints);
 		final int remainingMoves;
 		if (points<20) {
 			remainingMoves = points+10;
@@ -23,4 +23,9 @@ public abstract class AbstractVuckovicSolakOracle<B> implements RemainingMoveCou
 		}
 		return remainingMoves;
 	}
+	
+	private static int getNonKingPoints(int piece) {
+		final int type = Math.abs(piece);
+		return type==KING ? 0 : getPoints(type);
+	}
 }
@@ -0,0 +1,59 @@
+package com.fathzer.chess.utils;
+
+/** Utilities to sort moves by their scores.
+ * <br>The moves and their scores are stored in two parallel arrays that are reordered together, so the scores are computed only once.
+ * All the methods sort in decreasing score order and keep the relative order of moves with equal scores.
+ */
+public final class MoveSorter {
+	private MoveSorter() {
+		// Prevents subclasses
+	}
+
+	/** Sorts moves using an <a href="https://en.wikipedia.org/wiki/Insertion_sort">insertion sort</a>.
+	 * <br>This is the fastest way to sort short lists.
+	 * @param <M> The type of moves
+	 * @param moves The moves
+	 * @param scores The scores of the moves
+	 * @param size The number of moves to sort (the first <i>size</i> elements of the arrays are sorted)
+	 */
+	public static <M> void insertionSort(M[] moves, int[] scores, int size) {
+		for (int i = 1; i < size; i++) {
+			final M move = moves[i];
+			final int score = scores[i];
+			int j = i-1;
+			while (j>=0 && scores[j]<score) {
+				moves[j+1] = moves[j];
+				scores[j+1] = scores[j];
+				j--;
+			}
+			moves[j+1] = move;
+			scores[j+1] = score;
+		}
+	}
+
+	/** Moves the best remaining move to a position.
+	 * <br>This allows to sort lazily a list: Only the moves that are really used are sorted.
+	 * @param <M> The type of moves
+	 * @param moves The moves
+	 * @param scores The scores of the moves
+	 * @param index The position where to put the best move. The moves before this position should already be sorted.
+	 * @param size The number of moves in the arrays
+	 */
+	public static <M> void selectNext(M[] moves, int[] scores, int index, int size) {
+		int best = index;
+		for (int i = index+1; i < size; i++) {
+			if (scores[i]>scores[best]) {
+				best = i;
+			}
+		}
+		if (best!=index) {
+			final M move = moves[best];
+			final int score = scores[best];
+			// Shift the skipped moves in order to keep the order of equal scores
+			System.arraycopy(moves, index, moves, index+1, best-index);
+			System.arraycopy(scores, index, scores, index+1, best-index);
+			moves[index] = move;
+			scores[index] = score;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.fathzer.chess.utils;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+/** A precomputed <a href="https://www.chessprogramming.org/MVV-LVA">MVV-LVA</a> (Most Valuable Victim - Least Valuable Aggressor) table.
+ * <br>It contains the score of every (victim, attacker) pair of piece types and of every promotion, so that a move score is computed with two table lookups.
+ * <br>The score of a capture is <i>victimWeight[victim] - attackerWeight[attacker]</i>, the score of a promotion is <i>promotionWeight[promotion]</i>, and the
+ * score of a capture with promotion is the sum of both.
+ * <br>This class is immutable.
+ * @see AbstractDefaultMoveComparator
+ */
+public final class MvvLvaTable {
+	private static final int SIZE = KING+1;
+
+	/** The default table.
+	 * <br>Victim weights are 16 times the {@link Pieces#getPoints(int) piece points}, attacker weights are the piece points and promotion weights
+	 * are 16 times the piece points minus one (the pawn value).
+	 */
+	public static final MvvLvaTable DEFAULT = new MvvLvaTable(getDefaultWeights(16, 0), getDefaultWeights(1, 0), getDefaultWeights(16, -1));
+
+	private final int[] captures;
+	private final int[] promotions;
+
+	/** Constructor.
+	 * @param victimWeights The weights of the captured pieces, indexed by piece type (see {@link Pieces}).
+	 * @param attackerWeights The weights of the capturing pieces, indexed by piece type (see {@link Pieces}).
+	 * @param promotionWeights The weights of the promotions, indexed by piece type (see {@link Pieces}).
+	 * @throws IllegalArgumentException if an array has not 7 elements or if a capture or a promotion score is not strictly positive
+	 * (a move comparator considers the moves with a 0 score as quiet moves).
+	 */
+	public MvvLvaTable(int[] victimWeights, int[] attackerWeights, int[] promotionWeights) {
+		if (victimWeights.length!=SIZE || attackerWeights.length!=SIZE || promotionWeights.length!=SIZE) {
+			throw new IllegalArgumentException();
+		}
+		this.captures = new int[SIZE*SIZE];
+		this.promotions = new int[SIZE];
+		for (int victim = 1; victim < SIZE; victim++) {
+			for (int attacker = 1; attacker < SIZE; attacker++) {
+				final int score = victimWeights[victim] - attackerWeights[attacker];
+				if (score<=0) {
+					throw new IllegalArgumentException("Capture of "+victim+" by "+attacker+" has a non positive score");
+				}
+				captures[victim*SIZE+attacker] = score;
+			}
+		}
+		for (int promotion = Pieces.KNIGHT; promotion < KING; promotion++) {
+			if (promotionWeights[promotion]<=0) {
+				throw new IllegalArgumentException("Promotion to "+promotion+" has a non positive score");
+			}
+			promotions[promotion] = promotionWeights[promotion];
+		}
+	}
+
+	private static int[] getDefaultWeights(int factor, int offset) {
+		final int[] result = new int[SIZE];
+		for (int i = 1; i < SIZE; i++) {
+			result[i] = (Pieces.getPoints(i)+offset)*factor;
+		}
+		return result;
+	}
+
+	/** Gets the score of a capture.
+	 * @param victim The captured piece type (see {@link Pieces}), 0 if the move is not a capture
+	 * @param attacker The capturing piece type (see {@link Pieces})
+	 * @return a strictly positive int, 0 if victim is 0
+	 */
+	public int getCaptureScore(int victim, int attacker) {
+		return captures[victim*SIZE+attacker];
+	}
+
+	/** Gets the score of a promotion.
+	 * @param promotion The promotion piece type (see {@link Pieces}), 0 if the move is not a promotion
+	 * @return a strictly positive int, 0 if promotion is 0
+	 */
+	public int getPromotionScore(int promotion) {
+		return promotions[promotion];
+	}
+}
@@ -0,0 +1,222 @@
+package com.fathzer.chess.utils;
+
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+
+/** A {@link MoveData} backed by a single int that contains all the move data.
+ * <br>The packed value can be stored in move lists or transposition tables and decoded later, without the board,
+ * using the static methods of this class or an instance of this class (see {@link #setPackedValue(int)}).
+ * <br>The packed int has the following layout (from the least significant bit):<ul>
+ * <li>bits 0-5: moving index</li>
+ * <li>bits 6-11: moving destination</li>
+ * <li>bits 12-15: moving piece (a signed 4 bits integer)</li>
+ * <li>bits 16-18: captured type</li>
+ * <li>bits 19-21: promotion type</li>
+ * <li>bit 22: set if the move is an en passant capture</li>
+ * <li>bit 23: set if the move is a castling</li>
+ * <li>bits 24-26: file of the castling rook</li>
+ * <li>bits 27-29: file of the castling rook's destination</li>
+ * </ul>
+ * This encoding relies on the following assumptions, that are true for standard chess and <a href="https://en.wikipedia.org/wiki/Fischer_random_chess">Chess960</a>:<ul>
+ * <li>A piece captured en passant is on the same rank as the moving pawn and on the same file as its destination.</li>
+ * <li>The castling rook and its destination are on the same rank as the king.</li>
+ * </ul>
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+public final class PackedMoveData<M, B> implements MoveData<M, B> {
+	private static final int INDEX_MASK = 0x3F;
+	private static final int TYPE_MASK = 0x07;
+	private static final int FILE_MASK = 0x07;
+	private static final int RANK_MASK = 0x38;
+	private static final int DESTINATION_SHIFT = 6;
+	private static final int PIECE_SHIFT = 12;
+	private static final int CAPTURED_SHIFT = 16;
+	private static final int PROMOTION_SHIFT = 19;
+	private static final int EN_PASSANT_FLAG = 1 << 22;
+	private static final int CASTLING_FLAG = 1 << 23;
+	private static final int ROOK_FILE_SHIFT = 24;
+	private static final int ROOK_DESTINATION_FILE_SHIFT = 27;
+
+	private final MoveData<M, B> decoder;
+	private int packed;
+
+	/** Constructor.
+	 * <br>The created instance can't be updated with {@link #update(Object, Object)}, its content is set using {@link #setPackedValue(int)}.
+	 */
+	public PackedMoveData() {
+		this(null);
+	}
+
+	/** Constructor.
+	 * @param decoder The move data used to decode moves passed to {@link #update(Object, Object)}.
+	 */
+	public PackedMoveData(MoveData<M, B> decoder) {
+		this.decoder = decoder;
+	}
+
+	/** Gets the packed value of the move.
+	 * @return an int
+	 */
+	public int getPackedValue() {
+		return packed;
+	}
+
+	/** Sets the packed value of the move.
+	 * @param packed A value returned by {@link #pack(MoveData)} or {@link #getPackedValue()}
+	 */
+	public void setPackedValue(int packed) {
+		this.packed = packed;
+	}
+
+	/** {@inheritDoc}
+	 * @throws UnsupportedOperationException if this instance was created without decoder.
+	 */
+	@Override
+	public boolean update(M move, B board) {
+		if (decoder==null) {
+			throw new UnsupportedOperationException();
+		}
+		if (!decoder.update(move, board)) {
+			return false;
+		}
+		this.packed = pack(decoder);
+		return true;
+	}
+
+	@Override
+	public int getMovingIndex() {
+		return getMovingIndex(packed);
+	}
+
+	@Override
+	public int getMovingPiece() {
+		return getMovingPiece(packed);
+	}
+
+	@Override
+	public int getMovingDestination() {
+		return getMovingDestination(packed);
+	}
+
+	@Override
+	public int getCapturedType() {
+		return getCapturedType(packed);
+	}
+
+	@Override
+	public int getCapturedIndex() {
+		return getCapturedIndex(packed);
+	}
+
+	@Override
+	public int getPromotionType() {
+		return getPromotionType(packed);
+	}
+
+	@Override
+	public int getCastlingRookIndex() {
+		return getCastlingRookIndex(packed);
+	}
+
+	@Override
+	public int getCastlingRookDestinationIndex() {
+		return getCastlingRookDestinationIndex(packed);
+	}
+
+	/** Packs a move data.
+	 * @param data A move data successfully updated with a move.
+	 * @return an int that contains all the move data.
+	 */
+	public static int pack(MoveData<?, ?> data) {
+		final int from = data.getMovingIndex();
+		final int to = data.getMovingDestination();
+		int result = from | (to << DESTINATION_SHIFT) | ((data.getMovingPiece() & 0xF) << PIECE_SHIFT) | (data.getPromotionType() << PROMOTION_SHIFT);
+		final int rookIndex = data.getCastlingRookIndex();
+		if (rookIndex>=0) {
+			result |= CASTLING_FLAG | ((rookIndex & FILE_MASK) << ROOK_FILE_SHIFT) | ((data.getCastlingRookDestinationIndex() & FILE_MASK) << ROOK_DESTINATION_FILE_SHIFT);
+		}
+		final int captured = data.getCapturedType();
+		if (captured!=0) {
+			result |= captured << CAPTURED_SHIFT;
+			if (data.getCapturedIndex()!=to) {
+				result |= EN_PASSANT_FLAG;
+			}
+		}
+		return result;
+	}
+
+	/** Gets the index of the moving piece of a packed move.
+	 * @param packed A packed move
+	 * @return an integer (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell).
+	 * @see MoveData#getMovingIndex()
+	 */
+	public static int getMovingIndex(int packed) {
+		return packed & INDEX_MASK;
+	}
+
+	/** Gets the moving piece of a packed move.
+	 * @param packed A packed move
+	 * @return a piece index. See {@link Pieces} to learn which integer corresponds to which piece.
+	 * @see MoveData#getMovingPiece()
+	 */
+	public static int getMovingPiece(int packed) {
+		// Sign extends the 4 bits of the piece
+		return (packed << (32-PIECE_SHIFT-4)) >> 28;
+	}
+
+	/** Gets the destination index of the moving piece of a packed move.
+	 * @param packed A packed move
+	 * @return an integer (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell).
+	 * @see MoveData#getMovingDestination()
+	 */
+	public static int getMovingDestination(int packed) {
+		return (packed >>> DESTINATION_SHIFT) & INDEX_MASK;
+	}
+
+	/** Gets the type of the piece captured by a packed move.
+	 * @param packed A packed move
+	 * @return a piece type index (See {@link Pieces} to learn which integer corresponds to which piece type), 0 if the move makes no capture.
+	 * @see MoveData#getCapturedType()
+	 */
+	public static int getCapturedType(int packed) {
+		return (packed >>> CAPTURED_SHIFT) & TYPE_MASK;
+	}
+
+	/** Gets the index of the piece captured by a packed move.
+	 * @param packed A packed move
+	 * @return an integer (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell).
+	 * @see MoveData#getCapturedIndex()
+	 */
+	public static int getCapturedIndex(int packed) {
+		final int to = getMovingDestination(packed);
+		return (packed & EN_PASSANT_FLAG)==0 ? to : (packed & RANK_MASK) | (to & FILE_MASK);
+	}
+
+	/** Gets the promotion type of a packed move.
+	 * @param packed A packed move
+	 * @return a piece type (See {@link Pieces} to learn which integer corresponds to which piece type), 0 if the move is not a promotion.
+	 * @see MoveData#getPromotionType()
+	 */
+	public static int getPromotionType(int packed) {
+		return (packed >>> PROMOTION_SHIFT) & TYPE_MASK;
+	}
+
+	/** Gets the starting index of the rook involved in a packed castling move.
+	 * @param packed A packed move
+	 * @return The rook index (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell). -1 if the move is not a castling.
+	 * @see MoveData#getCastlingRookIndex()
+	 */
+	public static int getCastlingRookIndex(int packed) {
+		return (packed & CASTLING_FLAG)==0 ? -1 : (packed & RANK_MASK) | ((packed >>> ROOK_FILE_SHIFT) & FILE_MASK);
+	}
+
+	/** Gets the destination index of the rook involved in a packed castling move.
+	 * @param packed A packed move
+	 * @return The rook's destination index (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell).
+	 * @see MoveData#getCastlingRookDestinationIndex()
+	 */
+	public static int getCastlingRookDestinationIndex(int packed) {
+		return (packed & RANK_MASK) | ((packed >>> ROOK_DESTINATION_FILE_SHIFT) & FILE_MASK);
+	}
+}
@@ -1,11 +1,16 @@
 package com.fathzer.chess.utils.adapters;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.IntStream;
 
 import com.fathzer.chess.utils.Pieces;
 
 /** A class that can create an explorer to list all the pieces of a board and their positions.
+ * <br>Besides the explorer, this interface provides bulk methods that do not allocate anything except the explorer.
+ * Their default implementations are built upon {@link #getExplorer(Object)}, implementations that have a faster way to access the
+ * board content (typically bitboards) can override them.
  * @param <B> The type of chess board
  */
 public interface BoardExplorerBuilder<B> {
@@ -17,6 +22,7 @@ public interface BoardExplorerBuilder<B> {
 	
 	/** Gets the stream of all pieces on a chess board.
 	 * <br>The default implementation returns a Stream built upon the explorer returned by {@link #getExplorer(Object)}
+	 * <br>Warning: Building a stream has a cost, prefer the bulk methods of this interface in performance sensitive code. 
 	 * @param board The chess board
 	 * @return A stream of real pieces found on the board (no empty cell should be returned).
 	 * See {@link Pieces} to learn which integer corresponds to which piece.
@@ -33,4 +39,59 @@ public interface BoardExplorerBuilder<B> {
 			}
 		});
 	}
+	
+	/** Performs an action for every piece on a chess board.
+	 * @param board The chess board
+	 * @param consumer The action to perform. It is called once per real piece (never for empty cells).
+	 */
+	default void forEachPiece(B board, PieceConsumer consumer) {
+		final BoardExplorer exp = getExplorer(board);
+		do {
+			consumer.accept(exp.getIndex(), exp.getPiece());
+		} while (exp.next());
+	}
+	
+	/** Computes the sum of a value associated with every piece on a chess board.
+	 * <br>Passing a lambda that captures no variable (or a static method reference) makes this method allocation free.
+	 * @param board The chess board
+	 * @param pieceValue A function that returns the value of a piece (see {@link Pieces} to learn which integer corresponds to which piece).
+	 * @return The sum of the values of all the real pieces found on the board.
+	 */
+	default int sumPieces(B board, IntUnaryOperator pieceValue) {
+		final BoardExplorer exp = getExplorer(board);
+		int sum = 0;
+		do {
+			sum += pieceValue.applyAsInt(exp.getPiece());
+		} while (exp.next());
+		return sum;
+	}
+	
+	/** Fills a caller supplied array with the content of a chess board.
+	 * @param board The chess board
+	 * @param cells An array of at least 64 elements. After the call, cells[i] contains the piece at index i (see {@link BoardExplorer#getIndex()}),
+	 * or 0 if the cell is empty.
+	 */
+	default void fillMailbox(B board, int[] cells) {
+		Arrays.fill(cells, 0, 64, 0);
+		final BoardExplorer exp = getExplorer(board);
+		do {
+			cells[exp.getIndex()] = exp.getPiece();
+		} while (exp.next());
+	}
+	
+	/** Fills a caller supplied array with the <a href="https://www.chessprogramming.org/Bitboards">bitboards</a> of every kind of piece.
+	 * <br>Bit i of a bitboard corresponds to the cell at index i (see {@link BoardExplorer#getIndex()}), a8 is the least significant bit.
+	 * @param board The chess board
+	 * @param bitboards An array of at least 12 elements. After the call, bitboards[0] to bitboards[5] contains the white pawns to king,
+	 * bitboards[6] to bitboards[11] contains the black pawns to king.
+	 * <br>In other words, the bitboard of piece p is bitboards[p-1] if p is white (p&gt;0), bitboards[5-p] if it is black.
+	 */
+	default void fillBitboards(B board, long[] bitboards) {
+		Arrays.fill(bitboards, 0, 12, 0L);
+		final BoardExplorer exp = getExplorer(board);
+		do {
+			final int p = exp.getPiece();
+			bitboards[p>0 ? p-1 : 5-p] |= 1L << exp.getIndex();
+		} while (exp.next());
+	}
 }
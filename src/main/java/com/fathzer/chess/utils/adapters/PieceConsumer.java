@@ -0,0 +1,15 @@
+package com.fathzer.chess.utils.adapters;
+
+import com.fathzer.chess.utils.Pieces;
+
+/** An operation that accepts a piece and its position on a board.
+ * @see BoardExplorerBuilder#forEachPiece(Object, PieceConsumer)
+ */
+@FunctionalInterface
+public interface PieceConsumer {
+	/** Performs this operation on a piece.
+	 * @param index The cell's index of the piece (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell).
+	 * @param piece The piece (see {@link Pieces} to learn which integer corresponds to which piece).
+	 */
+	void accept(int index, int piece);
+}
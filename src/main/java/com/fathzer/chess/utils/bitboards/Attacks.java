@@ -0,0 +1,106 @@
+package com.fathzer.chess.utils.bitboards;
+
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** Attack tables of chess pieces.
+ * <br>Sliding pieces attacks are computed with <a href="https://www.chessprogramming.org/Magic_Bitboards#Fancy">fancy magic bitboards</a>,
+ * leaping pieces attacks are precomputed.
+ * <br>The tables are built the first time they are used. The rook table, the largest one, has 102400 elements (800KB), the bishop table 5248.
+ * <br>All the methods of this class use the cell indexes of {@link BoardExplorer#getIndex()} (0 is a8, 63 is h1) and bitboards where bit <i>i</i>
+ * corresponds to the cell at index <i>i</i>.
+ */
+public final class Attacks {
+	static final int[][] ROOK_DIRECTIONS = {{-1,0},{1,0},{0,-1},{0,1}};
+	static final int[][] BISHOP_DIRECTIONS = {{-1,-1},{-1,1},{1,-1},{1,1}};
+	private static final int[][] KNIGHT_DIRECTIONS = {{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}};
+	private static final int[][] KING_DIRECTIONS = {{-1,-1},{-1,0},{-1,1},{0,-1},{0,1},{1,-1},{1,0},{1,1}};
+	// White pawns move toward the 8th rank, the row 0.
+	private static final int[][] WHITE_PAWN_DIRECTIONS = {{-1,-1},{-1,1}};
+	private static final int[][] BLACK_PAWN_DIRECTIONS = {{1,-1},{1,1}};
+
+	private static final class Leapers {
+		private static final long[] KNIGHT = build(KNIGHT_DIRECTIONS);
+		private static final long[] KING = build(KING_DIRECTIONS);
+		private static final long[] WHITE_PAWN = build(WHITE_PAWN_DIRECTIONS);
+		private static final long[] BLACK_PAWN = build(BLACK_PAWN_DIRECTIONS);
+
+		private static long[] build(int[][] directions) {
+			final long[] result = new long[64];
+			for (int index = 0; index < 64; index++) {
+				for (int[] direction : directions) {
+					final int row = (index >> 3) + direction[0];
+					final int file = (index & 7) + direction[1];
+					if (SlidingAttacks.isValid(row, file)) {
+						result[index] |= 1L << (row*8+file);
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class Rooks {
+		private static final SlidingAttacks TABLE = new SlidingAttacks(ROOK_DIRECTIONS, SlidingAttacks.ROOK_MAGICS);
+	}
+
+	private static final class Bishops {
+		private static final SlidingAttacks TABLE = new SlidingAttacks(BISHOP_DIRECTIONS, SlidingAttacks.BISHOP_MAGICS);
+	}
+
+	private Attacks() {
+		super();
+	}
+
+	/** Gets the cells attacked by a knight.
+	 * @param index The knight's cell
+	 * @return a bitboard
+	 */
+	public static long knight(int index) {
+		return Leapers.KNIGHT[index];
+	}
+
+	/** Gets the cells attacked by a king.
+	 * @param index The king's cell
+	 * @return a bitboard
+	 */
+	public static long king(int index) {
+		return Leapers.KING[index];
+	}
+
+	/** Gets the cells attacked by a pawn.
+	 * <br>A useful property of this method is that the pawns of color <i>c</i> that attack a cell are <code>pawn(!c, cell) &amp; pawns</code>.
+	 * @param isBlack true for a black pawn
+	 * @param index The pawn's cell
+	 * @return a bitboard
+	 */
+	public static long pawn(boolean isBlack, int index) {
+		return isBlack ? Leapers.BLACK_PAWN[index] : Leapers.WHITE_PAWN[index];
+	}
+
+	/** Gets the cells attacked by a rook.
+	 * @param index The rook's cell
+	 * @param occupancy The bitboard of all the pieces on the board
+	 * @return a bitboard that contains the cells attacked by the rook, including the occupied ones.
+	 */
+	public static long rook(int index, long occupancy) {
+		return Rooks.TABLE.get(index, occupancy);
+	}
+
+	/** Gets the cells attacked by a bishop.
+	 * @param index The bishop's cell
+	 * @param occupancy The bitboard of all the pieces on the board
+	 * @return a bitboard that contains the cells attacked by the bishop, including the occupied ones.
+	 */
+	public static long bishop(int index, long occupancy) {
+		return Bishops.TABLE.get(index, occupancy);
+	}
+
+	/** Gets the cells attacked by a queen.
+	 * @param index The queen's cell
+	 * @param occupancy The bitboard of all the pieces on the board
+	 * @return a bitboard that contains the cells attacked by the queen, including the occupied ones.
+	 */
+	public static long queen(int index, long occupancy) {
+		return rook(index, occupancy) | bishop(index, occupancy);
+	}
+}
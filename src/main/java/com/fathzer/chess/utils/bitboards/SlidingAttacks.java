@@ -0,0 +1,136 @@
+package com.fathzer.chess.utils.bitboards;
+
+/** The <a href="https://www.chessprogramming.org/Magic_Bitboards#Fancy">fancy magic bitboards</a> attack table of a sliding piece.
+ * <br>The magic numbers were found by trial and error with sparse random numbers, for the cell indexes used by this library (0 is a8).
+ */
+final class SlidingAttacks {
+	/** The rook magic numbers. */
+	static final long[] ROOK_MAGICS = {
+		0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+		0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+		0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+		0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+		0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+		0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+		0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+		0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+		0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+		0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+		0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+		0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+		0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+		0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+		0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+		0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+	};
+	/** The bishop magic numbers. */
+	static final long[] BISHOP_MAGICS = {
+		0x2048017020910100L, 0x0044410424008008L, 0x040828A400900000L, 0x8002209200022000L,
+		0x0002021000540002L, 0x0021018840000000L, 0x00009E8420204002L, 0x00A0920110084480L,
+		0x4003062018010110L, 0x0221046812004E09L, 0x01E11002958912A0L, 0x0000044410804000L,
+		0x0000821210000080L, 0x080201102210A800L, 0x0080040411045004L, 0x00704A1842021000L,
+		0x1005061070322800L, 0x0018001010410444L, 0x0010000800401420L, 0x2204002844000800L,
+		0x2052020412022280L, 0x000A020101008208L, 0x0040400201042000L, 0x03E1082040480410L,
+		0x1004200004208414L, 0x08700400984808C8L, 0x0088080004004410L, 0x008C0240140100A2L,
+		0x0008840001822000L, 0x0050088001080100L, 0x98140840040A2200L, 0x3002020900210110L,
+		0x1004040640206000L, 0x1090909000840400L, 0x9002444810100020L, 0x4000020080080080L,
+		0x0028020400011010L, 0x0290808300020100L, 0x8010020882004410L, 0x0604010040082C20L,
+		0x20040104C0801008L, 0x6004208424001050L, 0x1002840041000800L, 0x0200042018000102L,
+		0xA8002000A0821C00L, 0x0040080802201910L, 0x0222620444000100L, 0x0002080041020088L,
+		0x1500820110401050L, 0x0000492090100080L, 0x0900410041100000L, 0x0302000420880000L,
+		0x0010501202020020L, 0x0008200490049040L, 0x0462080214A40120L, 0x2421310102008100L,
+		0x2400420080884060L, 0x0800804406184208L, 0x0B0080124A084400L, 0x082E082300840412L,
+		0x6051049040082200L, 0xC610211002102101L, 0x0000048808010433L, 0x0010200804405440L
+	};
+
+	private final long[] masks = new long[64];
+	private final long[] magics;
+	private final int[] shifts = new int[64];
+	private final int[] offsets = new int[64];
+	private final long[] attacks;
+
+	/** Constructor.
+	 * @param directions The directions of the piece, as (row, file) increments.
+	 * @param magics The magic numbers of the piece
+	 * @throws IllegalArgumentException if a magic number maps two occupancies with different attacks to the same element of the table.
+	 */
+	SlidingAttacks(int[][] directions, long[] magics) {
+		this.magics = magics;
+		int size = 0;
+		for (int index = 0; index < 64; index++) {
+			masks[index] = getMask(directions, index);
+			shifts[index] = 64-Long.bitCount(masks[index]);
+			offsets[index] = size;
+			size += 1 << Long.bitCount(masks[index]);
+		}
+		this.attacks = new long[size];
+		final boolean[] filled = new boolean[size];
+		for (int index = 0; index < 64; index++) {
+			// Enumerate all the subsets of the mask using the Carry-Rippler trick
+			final long mask = masks[index];
+			long occupancy = 0;
+			do {
+				final int key = offsets[index] + (int)((occupancy*magics[index]) >>> shifts[index]);
+				final long reference = getAttacks(directions, index, occupancy);
+				if (filled[key] && attacks[key]!=reference) {
+					throw new IllegalArgumentException("Invalid magic for index "+index);
+				}
+				filled[key] = true;
+				attacks[key] = reference;
+				occupancy = (occupancy - mask) & mask;
+			} while (occupancy!=0);
+		}
+	}
+
+	/** Gets the attacks of the piece.
+	 * @param index The index of the piece's cell
+	 * @param occupancy The board occupancy
+	 * @return The bitboard of the attacked cells (including the occupied ones)
+	 */
+	long get(int index, long occupancy) {
+		return attacks[offsets[index] + (int)(((occupancy & masks[index]) * magics[index]) >>> shifts[index])];
+	}
+
+	private static long getMask(int[][] directions, int index) {
+		long result = 0;
+		for (int[] direction : directions) {
+			int row = (index >> 3) + direction[0];
+			int file = (index & 7) + direction[1];
+			// The last cell of a ray is never relevant, whatever its occupancy
+			while (isValid(row+direction[0], file+direction[1])) {
+				result |= 1L << (row*8+file);
+				row += direction[0];
+				file += direction[1];
+			}
+		}
+		return result;
+	}
+
+	/** Computes the attacks of a sliding piece by following its rays.
+	 * @param directions The directions of the piece, as (row, file) increments.
+	 * @param index The index of the piece's cell
+	 * @param occupancy The board occupancy
+	 * @return The bitboard of the attacked cells (including the occupied ones)
+	 */
+	static long getAttacks(int[][] directions, int index, long occupancy) {
+		long result = 0;
+		for (int[] direction : directions) {
+			int row = (index >> 3) + direction[0];
+			int file = (index & 7) + direction[1];
+			while (isValid(row, file)) {
+				final long cell = 1L << (row*8+file);
+				result |= cell;
+				if ((occupancy & cell)!=0) {
+					break;
+				}
+				row += direction[0];
+				file += direction[1];
+			}
+		}
+		return result;
+	}
+
+	static boolean isValid(int row, int file) {
+		return row>=0 && row<8 && file>=0 && file<8;
+	}
+}
@@ -0,0 +1,244 @@
+package com.fathzer.chess.utils.bitboards;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorerBuilder;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.evaluators.BitboardState;
+
+/** A <a href="https://www.chessprogramming.org/Static_Exchange_Evaluation">static exchange evaluator</a>.
+ * <br>It evaluates the material balance of the sequence of captures on the destination cell of a move, each side capturing with its least
+ * valuable attacker and being free to stop the exchange. X-ray attackers (sliding pieces behind other attackers) and en passant captures are
+ * taken into account, pins are not.
+ * <br>The position is described by the bitboards of its pieces, in the layout of {@link BoardExplorerBuilder#fillBitboards(Object, long[])}
+ * (which is also the one of the twelve first fields of a {@link BitboardState}).
+ * <br>This class is immutable and thread safe.
+ */
+public final class StaticExchangeEvaluator {
+	/** The minimum length of the scratch arrays passed to {@link #evaluate(long[], int, MoveData, int[])}. */
+	public static final int MAX_EXCHANGES = 32;
+	private static final int WHITE = 0;
+	private static final int BLACK = 6;
+
+	private final int[] values;
+
+	/** Constructor.
+	 * <br>Builds an evaluator that uses the {@link Pieces#getPoints(int) standard piece values} in centipawns.
+	 */
+	public StaticExchangeEvaluator() {
+		this(new int[] {0, 100*Pieces.getPoints(PAWN), 100*Pieces.getPoints(KNIGHT), 100*Pieces.getPoints(BISHOP),
+				100*Pieces.getPoints(ROOK), 100*Pieces.getPoints(QUEEN), 100*Pieces.getPoints(KING)});
+	}
+
+	/** Constructor.
+	 * @param values The values of the pieces, indexed by piece type (see {@link Pieces}).
+	 * @throws IllegalArgumentException if values has not 7 elements
+	 */
+	public StaticExchangeEvaluator(int[] values) {
+		if (values.length!=KING+1) {
+			throw new IllegalArgumentException();
+		}
+		this.values = values.clone();
+	}
+
+	/** Gets the value of a piece type.
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @return an int
+	 */
+	public int getValue(int pieceType) {
+		return values[pieceType];
+	}
+
+	/** Evaluates the exchange started by a move.
+	 * @param bitboards The bitboards of the position before the move, in the layout of {@link BoardExplorerBuilder#fillBitboards(Object, long[])}
+	 * @param move The move
+	 * @return The material balance of the exchange for the side that plays the move. 0 for castling.
+	 */
+	public int evaluate(long[] bitboards, MoveData<?, ?> move) {
+		return evaluate(bitboards, 0, move);
+	}
+
+	/** Evaluates the exchange started by a move.
+	 * @param bitboards An array that contains the bitboards of the position before the move
+	 * @param offset The index of the white pawns bitboard in <i>bitboards</i>
+	 * @param move The move
+	 * @return The material balance of the exchange for the side that plays the move. 0 for castling.
+	 * @see #evaluate(long[], MoveData)
+	 */
+	public int evaluate(long[] bitboards, int offset, MoveData<?, ?> move) {
+		return evaluate(bitboards, offset, move, new int[MAX_EXCHANGES]);
+	}
+
+	/** Evaluates the exchange started by a move without allocating memory.
+	 * <br>As this class is thread safe, the work array is provided by the caller. It should not be shared by concurrent calls.
+	 * @param bitboards An array that contains the bitboards of the position before the move
+	 * @param offset The index of the white pawns bitboard in <i>bitboards</i>
+	 * @param move The move
+	 * @param gain A work array of at least {@link #MAX_EXCHANGES} elements
+	 * @return The material balance of the exchange for the side that plays the move. 0 for castling.
+	 * @throws IllegalArgumentException if <i>gain</i> is too short
+	 * @see #evaluate(long[], MoveData)
+	 */
+	public int evaluate(long[] bitboards, int offset, MoveData<?, ?> move, int[] gain) {
+		if (gain.length<MAX_EXCHANGES) {
+			throw new IllegalArgumentException();
+		}
+		if (move.getCastlingRookIndex()>=0) {
+			return 0;
+		}
+		final int to = move.getMovingDestination();
+		final int promotion = move.getPromotionType();
+		gain[0] = values[move.getCapturedType()];
+		int onTarget = Math.abs(move.getMovingPiece());
+		if (promotion!=0) {
+			gain[0] += values[promotion]-values[PAWN];
+			onTarget = promotion;
+		}
+		long occupied = getOccupancyAfter(bitboards, offset, move);
+		long attackers = getAttackers(bitboards, offset, to, occupied);
+		int side = move.getMovingPiece()>0 ? BLACK : WHITE;
+		int depth = 0;
+		while (depth<MAX_EXCHANGES-1) {
+			final long sideAttackers = attackers & getColorOccupancy(bitboards, offset, side) & occupied;
+			if (sideAttackers==0) {
+				break;
+			}
+			final int attackerType = getLeastValuable(bitboards, offset, side, sideAttackers);
+			if (attackerType==KING && (attackers & getColorOccupancy(bitboards, offset, BLACK-side) & occupied)!=0) {
+				// The king can't capture a defended piece
+				break;
+			}
+			depth++;
+			gain[depth] = values[onTarget] - gain[depth-1];
+			onTarget = attackerType;
+			occupied &= ~Long.lowestOneBit(bitboards[offset+side+attackerType-1] & sideAttackers);
+			attackers |= getXRays(bitboards, offset, to, occupied, attackerType);
+			side = BLACK-side;
+		}
+		while (depth>0) {
+			gain[depth-1] = -Math.max(-gain[depth-1], gain[depth]);
+			depth--;
+		}
+		return gain[0];
+	}
+
+	/** Tests whether the exchange started by a move is at least equal to a threshold.
+	 * <br>This method is faster than comparing {@link #evaluate(long[], MoveData)} with the threshold.
+	 * @param bitboards The bitboards of the position before the move, in the layout of {@link BoardExplorerBuilder#fillBitboards(Object, long[])}
+	 * @param move The move
+	 * @param threshold The threshold
+	 * @return true if the material balance of the exchange for the side that plays the move is greater or equal to the threshold
+	 */
+	public boolean isAtLeast(long[] bitboards, MoveData<?, ?> move, int threshold) {
+		return isAtLeast(bitboards, 0, move, threshold);
+	}
+
+	/** Tests whether the exchange started by a move is at least equal to a threshold.
+	 * @param bitboards An array that contains the bitboards of the position before the move
+	 * @param offset The index of the white pawns bitboard in <i>bitboards</i>
+	 * @param move The move
+	 * @param threshold The threshold
+	 * @return true if the material balance of the exchange for the side that plays the move is greater or equal to the threshold
+	 * @see #isAtLeast(long[], MoveData, int)
+	 */
+	public boolean isAtLeast(long[] bitboards, int offset, MoveData<?, ?> move, int threshold) {
+		if (move.getCastlingRookIndex()>=0) {
+			return 0>=threshold;
+		}
+		final int promotion = move.getPromotionType();
+		// swap is the balance we have to beat, from the point of view of the side that has just captured
+		int swap = values[move.getCapturedType()] - threshold;
+		int onTarget = Math.abs(move.getMovingPiece());
+		if (promotion!=0) {
+			swap += values[promotion]-values[PAWN];
+			onTarget = promotion;
+		}
+		if (swap<0) {
+			return false;
+		}
+		swap = values[onTarget] - swap;
+		if (swap<=0) {
+			// Even if the moving piece is captured, the threshold is reached
+			return true;
+		}
+		final int to = move.getMovingDestination();
+		long occupied = getOccupancyAfter(bitboards, offset, move);
+		long attackers = getAttackers(bitboards, offset, to, occupied);
+		int side = move.getMovingPiece()>0 ? BLACK : WHITE;
+		boolean result = true;
+		while (true) {
+			attackers &= occupied;
+			final long sideAttackers = attackers & getColorOccupancy(bitboards, offset, side);
+			if (sideAttackers==0) {
+				break;
+			}
+			final int attackerType = getLeastValuable(bitboards, offset, side, sideAttackers);
+			if (attackerType==KING) {
+				// The king can only capture if the other side has no more attackers
+				return (attackers & getColorOccupancy(bitboards, offset, BLACK-side))!=0 ? result : !result;
+			}
+			result = !result;
+			swap = values[attackerType] - swap;
+			if (swap < (result ? 1 : 0)) {
+				break;
+			}
+			occupied &= ~Long.lowestOneBit(bitboards[offset+side+attackerType-1] & sideAttackers);
+			attackers |= getXRays(bitboards, offset, to, occupied, attackerType);
+			side = BLACK-side;
+		}
+		return result;
+	}
+
+	private static long getOccupancy(long[] bitboards, int offset) {
+		return getColorOccupancy(bitboards, offset, WHITE) | getColorOccupancy(bitboards, offset, BLACK);
+	}
+
+	private static long getOccupancyAfter(long[] bitboards, int offset, MoveData<?, ?> move) {
+		long occupied = getOccupancy(bitboards, offset) & ~(1L<<move.getMovingIndex());
+		if (move.getCapturedType()!=0) {
+			// The captured index is undefined when the move is not a capture
+			occupied &= ~(1L<<move.getCapturedIndex());
+		}
+		return occupied;
+	}
+
+	private static long getColorOccupancy(long[] bitboards, int offset, int side) {
+		final int index = offset+side;
+		return bitboards[index] | bitboards[index+1] | bitboards[index+2] | bitboards[index+3] | bitboards[index+4] | bitboards[index+5];
+	}
+
+	private static long getAttackers(long[] bitboards, int offset, int to, long occupied) {
+		final long bishops = bitboards[offset+WHITE+BISHOP-1] | bitboards[offset+BLACK+BISHOP-1];
+		final long rooks = bitboards[offset+WHITE+ROOK-1] | bitboards[offset+BLACK+ROOK-1];
+		final long queens = bitboards[offset+WHITE+QUEEN-1] | bitboards[offset+BLACK+QUEEN-1];
+		return (Attacks.pawn(true, to) & bitboards[offset+WHITE+PAWN-1]) |
+				(Attacks.pawn(false, to) & bitboards[offset+BLACK+PAWN-1]) |
+				(Attacks.knight(to) & (bitboards[offset+WHITE+KNIGHT-1] | bitboards[offset+BLACK+KNIGHT-1])) |
+				(Attacks.king(to) & (bitboards[offset+WHITE+KING-1] | bitboards[offset+BLACK+KING-1])) |
+				(Attacks.bishop(to, occupied) & (bishops | queens)) |
+				(Attacks.rook(to, occupied) & (rooks | queens));
+	}
+
+	private static int getLeastValuable(long[] bitboards, int offset, int side, long sideAttackers) {
+		for (int pieceType = PAWN; pieceType < KING; pieceType++) {
+			if ((bitboards[offset+side+pieceType-1] & sideAttackers)!=0) {
+				return pieceType;
+			}
+		}
+		return KING;
+	}
+
+	private static long getXRays(long[] bitboards, int offset, int to, long occupied, int attackerType) {
+		// Only pieces that move along a line can reveal an attacker behind them
+		final long queens = bitboards[offset+WHITE+QUEEN-1] | bitboards[offset+BLACK+QUEEN-1];
+		long result = 0;
+		if (attackerType==PAWN || attackerType==BISHOP || attackerType==QUEEN) {
+			result |= Attacks.bishop(to, occupied) & (bitboards[offset+WHITE+BISHOP-1] | bitboards[offset+BLACK+BISHOP-1] | queens);
+		}
+		if (attackerType==ROOK || attackerType==QUEEN) {
+			result |= Attacks.rook(to, occupied) & (bitboards[offset+WHITE+ROOK-1] | bitboards[offset+BLACK+ROOK-1] | queens);
+		}
+		return result & occupied;
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * <a href="https://www.chessprogramming.org/Bitboards">Bitboards</a> utilities, independent of the move generator used by the engine.
+ * <br>Bit i of a bitboard corresponds to the cell at index i (see {@link com.fathzer.chess.utils.adapters.BoardExplorer#getIndex()}), a8 is the least significant bit.
+ */
+package com.fathzer.chess.utils.bitboards;
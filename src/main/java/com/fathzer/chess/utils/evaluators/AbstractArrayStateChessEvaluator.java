@@ -0,0 +1,194 @@
+package com.fathzer.chess.utils.evaluators;
+
+import java.util.Arrays;
+
+import com.fathzer.chess.utils.PackedMoveData;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.games.MoveGenerator;
+
+/** An abstract incremental chess evaluator that stores its state in preallocated primitive arrays.
+ * <br>Unlike {@link AbstractChessEvaluator}, the state is not an object but a fixed set of int and long fields.
+ * The states of all the plies are stored in the {@link #ints} and {@link #longs} arrays, one contiguous block of fields per ply.
+ * Preparing a move copies the current block to the next one, committing or unmaking a move just changes the current ply.
+ * <br>The arrays grows when the search goes deeper than it has ever been, so no allocation occurs once the evaluator is warmed up.
+ * <br>Subclasses define the index of each of their fields in the block and update the state being prepared with, for instance,
+ * <code>ints[intsToCommit+MY_FIELD] += value;</code>
+ * <br>In lazy mode (see {@link #setLazy(boolean)}), preparing a move only records it. The states of the recorded moves are computed when
+ * the committed state is requested (see {@link #getIntsIndex()}), which saves the state updates of the positions that are never
+ * evaluated (typically, most of the interior nodes of an alpha-beta search).
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ */
+public abstract class AbstractArrayStateChessEvaluator<M, B extends MoveGenerator<M>> extends AbstractIncrementalChessEvaluator<M, B> {
+	private static final int DEFAULT_PLY_CAPACITY = 64;
+	private static final int INVALID_MOVE = -1;
+
+	private final int intsCount;
+	private final int longsCount;
+	private final MoveData<M, B> moveData;
+	private final PackedMoveData<M, B> pendingMove;
+	private int ply;
+	private boolean lazy;
+	private int upToDatePly;
+	private int[] pendingMoves;
+	/** The int fields of the states.
+	 * <br>The int fields of the state at ply <i>p</i> start at index <i>p</i>*<i>intsCount</i>.
+	 * <br>Warning: The array may be replaced by a bigger one when a move is prepared, never keep a reference on it.
+	 */
+	protected int[] ints;
+	/** The long fields of the states.
+	 * <br>The long fields of the state at ply <i>p</i> start at index <i>p</i>*<i>longsCount</i>.
+	 * <br>Warning: The array may be replaced by a bigger one when a move is prepared, never keep a reference on it.
+	 */
+	protected long[] longs;
+	/** The index in {@link #ints} of the first int field of the state that is prepared during the {@link #init(BoardExplorer)} and {@link #prepareMove(MoveData)} methods.
+	 */
+	protected int intsToCommit;
+	/** The index in {@link #longs} of the first long field of the state that is prepared during the {@link #init(BoardExplorer)} and {@link #prepareMove(MoveData)} methods.
+	 */
+	protected int longsToCommit;
+
+	/** Constructor.
+	 * @param intsCount The number of int fields in the state
+	 * @param longsCount The number of long fields in the state
+	 * @throws IllegalArgumentException if one of the arguments is negative
+	 */
+	protected AbstractArrayStateChessEvaluator(int intsCount, int longsCount) {
+		if (intsCount<0 || longsCount<0) {
+			throw new IllegalArgumentException();
+		}
+		this.intsCount = intsCount;
+		this.longsCount = longsCount;
+		this.ints = new int[intsCount*DEFAULT_PLY_CAPACITY];
+		this.longs = new long[longsCount*DEFAULT_PLY_CAPACITY];
+		this.moveData = get();
+		this.pendingMove = new PackedMoveData<>();
+		this.pendingMoves = new int[DEFAULT_PLY_CAPACITY];
+	}
+	
+	/** Sets the lazy mode.
+	 * <br>This method should not be called between {@link #prepareMove(MoveGenerator, Object)} and {@link #commitMove()}.
+	 * @param lazy true to compute the states only when they are requested, false to compute them each time a move is prepared (the default).
+	 */
+	public void setLazy(boolean lazy) {
+		if (this.lazy && !lazy) {
+			update();
+		}
+		this.lazy = lazy;
+		this.upToDatePly = ply;
+	}
+	
+	/** Tests whether this evaluator is in lazy mode.
+	 * @return true if the states are computed only when they are requested.
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	@Override
+	public void init(B board) {
+		ply = 0;
+		upToDatePly = 0;
+		intsToCommit = 0;
+		longsToCommit = 0;
+		clear();
+		init(getExplorer(board));
+	}
+
+	/** Clears the state being prepared.
+	 * <br>This method is called by {@link #init(MoveGenerator)} before {@link #init(BoardExplorer)}.
+	 * The default implementation sets all the fields to 0.
+	 */
+	protected void clear() {
+		Arrays.fill(ints, intsToCommit, intsToCommit+intsCount, 0);
+		Arrays.fill(longs, longsToCommit, longsToCommit+longsCount, 0L);
+	}
+
+	@Override
+	public final void prepareMove(B board, M move) {
+		if (lazy) {
+			final int next = ply+1;
+			if (next>=pendingMoves.length) {
+				pendingMoves = Arrays.copyOf(pendingMoves, 2*pendingMoves.length);
+			}
+			// Grow the arrays now, so that getIntsIndex and getLongsIndex never replace them
+			ensureCapacity(next);
+			pendingMoves[next] = moveData.update(move, board) ? PackedMoveData.pack(moveData) : INVALID_MOVE;
+		} else {
+			// The block is built even if the move is invalid, so that, like in lazy mode, its state is the one of the parent
+			buildToCommit(ply+1);
+			if (moveData.update(move, board)) {
+				prepareMove(moveData);
+			}
+		}
+	}
+
+	private void ensureCapacity(int next) {
+		if ((next+1)*intsCount>ints.length) {
+			ints = Arrays.copyOf(ints, 2*ints.length);
+		}
+		if ((next+1)*longsCount>longs.length) {
+			longs = Arrays.copyOf(longs, 2*longs.length);
+		}
+	}
+
+	private void buildToCommit(int next) {
+		intsToCommit = next*intsCount;
+		longsToCommit = next*longsCount;
+		ensureCapacity(next);
+		System.arraycopy(ints, intsToCommit-intsCount, ints, intsToCommit, intsCount);
+		System.arraycopy(longs, longsToCommit-longsCount, longs, longsToCommit, longsCount);
+	}
+	
+	/** Computes the states of the moves recorded in lazy mode.
+	 */
+	private void update() {
+		while (upToDatePly<ply) {
+			upToDatePly++;
+			buildToCommit(upToDatePly);
+			final int packed = pendingMoves[upToDatePly];
+			if (packed!=INVALID_MOVE) {
+				pendingMove.setPackedValue(packed);
+				prepareMove(pendingMove);
+			}
+		}
+	}
+
+	@Override
+	public final void commitMove() {
+		ply++;
+	}
+
+	@Override
+	public final void unmakeMove() {
+		ply--;
+		if (upToDatePly>ply) {
+			upToDatePly = ply;
+		}
+	}
+
+	/** Gets the index in {@link #ints} of the first int field of the current committed state.
+	 * <br>In lazy mode, the states of the moves committed since the last call are computed by this method.
+	 * <br>Warning: This state may be different from the one that starts at {@link #intsToCommit}
+	 * @return a positive or null int
+	 */
+	protected int getIntsIndex() {
+		if (lazy) {
+			update();
+		}
+		return ply*intsCount;
+	}
+
+	/** Gets the index in {@link #longs} of the first long field of the current committed state.
+	 * <br>In lazy mode, the states of the moves committed since the last call are computed by this method.
+	 * <br>Warning: This state may be different from the one that starts at {@link #longsToCommit}
+	 * @return a positive or null int
+	 */
+	protected int getLongsIndex() {
+		if (lazy) {
+			update();
+		}
+		return ply*longsCount;
+	}
+}
@@ -0,0 +1,136 @@
+package com.fathzer.chess.utils.evaluators;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.evaluation.Evaluator;
+
+/** An incremental evaluator that sums the evaluations of many {@link EvaluatorComponent}.
+ * <br>Moves are decoded once and the resulting add, move and remove events are dispatched to all the components.
+ * The states of all components are stored in a single contiguous block of ints and a single contiguous block of longs per ply
+ * (see {@link AbstractArrayStateChessEvaluator}).
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ */
+public abstract class AbstractComposedEvaluator<M, B extends MoveGenerator<M>> extends AbstractArrayStateChessEvaluator<M, B> {
+	private final EvaluatorComponent[] components;
+	private final int[] offsets;
+	private final int[] longOffsets;
+	private final int stateSize;
+	private final int longStateSize;
+
+	/** Constructor.
+	 * @param components The components of this evaluator
+	 * @throws IllegalArgumentException if components is empty
+	 */
+	protected AbstractComposedEvaluator(List<EvaluatorComponent> components) {
+		super(getStateSize(components, EvaluatorComponent::getStateSize), getStateSize(components, EvaluatorComponent::getLongStateSize));
+		this.components = components.toArray(EvaluatorComponent[]::new);
+		this.offsets = new int[this.components.length];
+		this.longOffsets = new int[this.components.length];
+		int offset = 0;
+		int longOffset = 0;
+		for (int i = 0; i < this.components.length; i++) {
+			offsets[i] = offset;
+			longOffsets[i] = longOffset;
+			offset += this.components[i].getStateSize();
+			longOffset += this.components[i].getLongStateSize();
+		}
+		this.stateSize = offset;
+		this.longStateSize = longOffset;
+	}
+
+	/** Constructor.
+	 * @param components The components of this evaluator
+	 * @param state The int fields of the initial state (typically a value returned by {@link #getState()})
+	 * @param longState The long fields of the initial state (typically a value returned by {@link #getLongState()})
+	 * @throws IllegalArgumentException if components is empty or states have not the sizes of the components states
+	 */
+	protected AbstractComposedEvaluator(List<EvaluatorComponent> components, int[] state, long[] longState) {
+		this(components);
+		if (state.length!=stateSize || longState.length!=longStateSize) {
+			throw new IllegalArgumentException();
+		}
+		System.arraycopy(state, 0, ints, 0, stateSize);
+		System.arraycopy(longState, 0, longs, 0, longStateSize);
+	}
+
+	private static int getStateSize(List<EvaluatorComponent> components, ToIntFunction<EvaluatorComponent> size) {
+		if (components.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+		return components.stream().mapToInt(size).sum();
+	}
+
+	@Override
+	protected void put(int pieceType, boolean isBlack, int to) {
+		for (int i = 0; i < components.length; i++) {
+			components[i].put(ints, intsToCommit+offsets[i], longs, longsToCommit+longOffsets[i], pieceType, isBlack, to);
+		}
+	}
+
+	@Override
+	protected void add(int pieceType, boolean isBlack, int to) {
+		for (int i = 0; i < components.length; i++) {
+			components[i].add(ints, intsToCommit+offsets[i], longs, longsToCommit+longOffsets[i], pieceType, isBlack, to);
+		}
+	}
+
+	@Override
+	protected void move(int pieceType, boolean isBlack, int from, int to) {
+		for (int i = 0; i < components.length; i++) {
+			components[i].move(ints, intsToCommit+offsets[i], longs, longsToCommit+longOffsets[i], pieceType, isBlack, from, to);
+		}
+	}
+
+	@Override
+	protected void remove(int pieceType, boolean isBlack, int from) {
+		for (int i = 0; i < components.length; i++) {
+			components[i].remove(ints, intsToCommit+offsets[i], longs, longsToCommit+longOffsets[i], pieceType, isBlack, from);
+		}
+	}
+
+	@Override
+	public int evaluateAsWhite(B board) {
+		final int index = getIntsIndex();
+		final int longIndex = getLongsIndex();
+		int result = 0;
+		for (int i = 0; i < components.length; i++) {
+			result += components[i].evaluateAsWhite(ints, index+offsets[i], longs, longIndex+longOffsets[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public Evaluator<M, B> fork() {
+		final AbstractComposedEvaluator<M, B> result = fork(getState(), getLongState());
+		result.setLazy(isLazy());
+		return result;
+	}
+
+	/** Creates a new instance initialized with current state that will become the initial state of created instance.
+	 * <br>As components have no state, the created instance can share the components of this instance.
+	 * @param state The int fields of the initial state.
+	 * @param longState The long fields of the initial state.
+	 * @return a new evaluator of the same class as this, from the same view point, and initialized with the state.
+	 */
+	protected abstract AbstractComposedEvaluator<M, B> fork(int[] state, long[] longState);
+
+	/** Gets a copy of the int fields of the current committed state.
+	 * @return a new array that contains the int fields of the states of all the components, in the order of the components.
+	 */
+	protected int[] getState() {
+		final int index = getIntsIndex();
+		return Arrays.copyOfRange(ints, index, index+stateSize);
+	}
+
+	/** Gets a copy of the long fields of the current committed state.
+	 * @return a new array that contains the long fields of the states of all the components, in the order of the components.
+	 */
+	protected long[] getLongState() {
+		final int index = getLongsIndex();
+		return Arrays.copyOfRange(longs, index, index+longStateSize);
+	}
+}
@@ -0,0 +1,117 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import java.util.function.Supplier;
+
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.BoardExplorerBuilder;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.evaluation.ZeroSumEvaluator;
+
+/** The common part of incremental chess evaluators, whatever the way they store their state.
+ * <br>This class converts the board content and the moves into calls to the {@link #add(int, boolean, int)},
+ * {@link #move(int, boolean, int, int)} and {@link #remove(int, boolean, int)} methods.
+ * <br>Subclasses are responsible for storing the state prepared by these methods and restoring it when a move is unmade.
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ * @see AbstractChessEvaluator
+ * @see AbstractArrayStateChessEvaluator
+ */
+public abstract class AbstractIncrementalChessEvaluator<M, B extends MoveGenerator<M>> implements ZeroSumEvaluator<M,B>, BoardExplorerBuilder<B>, Supplier<MoveData<M,B>> {
+	/** Constructor.
+	 */
+	protected AbstractIncrementalChessEvaluator() {
+		super();
+	}
+
+	/** Initializes the state being prepared using a board explorer.
+	 * <br>The state is cleared before this method is called. This method should then initialize
+	 * it using the explorer.
+	 * <br>By default it calls {@link #put(int, boolean, int)} for every piece on the board.
+	 * The developer can override this method in order to change this behavior.
+	 * @param explorer The explorer
+	 */
+	protected void init(BoardExplorer explorer) {
+		do {
+			final int p = explorer.getPiece();
+			final int kind = Math.abs(p);
+			final int index = explorer.getIndex();
+			final boolean isBlack = p<0;
+			put(kind, isBlack, index);
+		} while (explorer.next());
+	}
+
+	/** Updates the state being prepared accordingly to a move.
+	 * <br>This method is called when a move is prepared, after the state to prepare was initialized with the current one.
+	 * <br>By default, it calls the {@link #move(int, boolean, int, int)} or {@link #remove(int, boolean, int)} and {@link #add(int, boolean, int)}
+	 * methods accordingly to the move.
+	 * <br>For instance, for a castling, it will call {@link #move(int, boolean, int, int)} twice ; for the king and for the rook.
+	 * For a promotion, it will {@link #remove(int, boolean, int)} the pawn before {@link #add(int, boolean, int)} the promoted
+	 * piece.
+	 * <br>One could override this method to perform different or extra processing.
+	 * @param moveData The data describing the move.
+	 */
+	protected void prepareMove(MoveData<M, B> moveData) {
+		final boolean isBlack = moveData.getMovingPiece()<0;
+		int pieceType = Math.abs(moveData.getMovingPiece());
+		final int movingIndex = moveData.getMovingIndex();
+		final int rookIndex = moveData.getCastlingRookIndex();
+		if (rookIndex>=0) {
+			// It's a castling move, update rook positions values
+			move(ROOK, isBlack, rookIndex, moveData.getCastlingRookDestinationIndex());
+			move(KING, isBlack, movingIndex, moveData.getMovingDestination());
+			return;
+		}
+		final int captured = moveData.getCapturedType();
+		if (captured!=0) {
+			// If the move is a capture add its position value
+			remove(captured, !isBlack, moveData.getCapturedIndex());
+		}
+		final int promoType = moveData.getPromotionType();
+		if (promoType!=0) {
+			// If promotion, replace the moving pawn by its promotion
+			remove(pieceType, isBlack, movingIndex);
+			pieceType = promoType;
+			add(pieceType, isBlack, moveData.getMovingDestination());
+		} else {
+			// Move the piece to its new position
+			move(pieceType, isBlack, movingIndex, moveData.getMovingDestination());
+		}
+	}
+
+	/** Adds a piece to the board.
+	 * <br>Typically called when a pawn is promoted or by the {@link #put(int, boolean, int)} method.
+	 * @param pieceType The piece type
+	 * @param isBlack true if piece is black
+	 * @param to The index of the cell where the piece is added
+	 */
+	protected abstract void add(int pieceType, boolean isBlack, int to);
+
+	/** Moves a piece on the board.
+	 * @param pieceType The piece type
+	 * @param isBlack true if piece is black
+	 * @param from The cell's index of the moved piece
+	 * @param to The destination cell's index of the moved piece
+	 */
+	protected abstract void move(int pieceType, boolean isBlack, int from, int to);
+
+	/** Removes a piece from the board.
+	 * <br>Typically called when piece is captured.
+	 * @param pieceType The piece type
+	 * @param isBlack true if piece is black
+	 * @param from The index of the cell where the piece was
+	 */
+	protected abstract void remove(int pieceType, boolean isBlack, int from);
+
+	/** A specialized {@link #add(int, boolean, int)} method called during {@link #init(BoardExplorer)}
+	 * <br>By default it just calls {@link #add(int, boolean, int)}
+	 * @param pieceType The piece type
+	 * @param isBlack true if piece is black
+	 * @param to The index of the cell where the piece is added.
+	 */
+	protected void put(int pieceType, boolean isBlack, int to) {
+		add(pieceType, isBlack, to);
+	}
+}
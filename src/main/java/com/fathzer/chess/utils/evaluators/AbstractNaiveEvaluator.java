@@ -48,7 +48,7 @@ public abstract class AbstractNaiveEvaluator<M, B extends MoveGenerator<M>> impl
 	@Override
 	public void init(B board) {
 		scores.clear();
-		scores.set(getPieces(board).map(p -> p>0?getPoints(p):-getPoints(-p)).sum());
+		scores.set(sumPieces(board, p -> p>0?getPoints(p):-getPoints(-p)));
 	}
 	
 	@Override
@@ -0,0 +1,38 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A piece square table whose values are defined by an array.
+ * <br>Unlike the hard coded tables of this library, its values are known at runtime, typically after they were tuned or loaded from a file.
+ */
+public final class ArrayPieceSquareTable extends AbstractPieceSquareTable {
+	private final int[][] values;
+
+	/** Constructor.
+	 * @param values The values of the white pieces. values[<i>pieceType</i>][<i>index</i>] is the value of a white piece
+	 * of type <i>pieceType</i> (as defined in {@link Pieces}) on the cell <i>index</i> (as defined in {@link BoardExplorer}).
+	 * The element 0 is ignored.
+	 * @throws IllegalArgumentException if values has not 7 elements or one of its element, except the first one, has not 64 elements
+	 */
+	public ArrayPieceSquareTable(int[][] values) {
+		if (values.length!=KING+1) {
+			throw new IllegalArgumentException();
+		}
+		this.values = new int[KING+1][];
+		this.values[0] = new int[0];
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			if (values[pieceType].length!=64) {
+				throw new IllegalArgumentException();
+			}
+			this.values[pieceType] = values[pieceType].clone();
+		}
+	}
+
+	@Override
+	protected int get(int piece, int index) {
+		return values[piece][index];
+	}
+}
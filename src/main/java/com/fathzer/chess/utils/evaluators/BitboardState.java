@@ -0,0 +1,106 @@
+package com.fathzer.chess.utils.evaluators;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.BoardExplorerBuilder;
+
+/** A state mix-in that keeps the <a href="https://www.chessprogramming.org/Bitboards">bitboards</a> of every kind of piece and the occupancy of both sides.
+ * <br>The state is a block of {@link #SIZE} long fields in the state of an {@link AbstractArrayStateChessEvaluator}. The evaluator reserves
+ * these fields in its long fields and calls the {@link #add(long[], int, int, boolean, int)}, {@link #move(long[], int, int, boolean, int, int)}
+ * and {@link #remove(long[], int, int, boolean, int)} methods from its own hooks, for instance <code>BitboardState.add(longs, longsToCommit+BITBOARDS, pieceType, isBlack, to);</code>.
+ * As the evaluator keeps one state per ply, the bitboards are restored for free when a move is unmade.
+ * <br>This allows terms that need the location of pieces (mobility, king safety, etc...) to be computed without scanning the board.
+ * <br>The bitboards layout is the same as in {@link BoardExplorerBuilder#fillBitboards(Object, long[])}: bit i of a bitboard corresponds to the cell at
+ * index i (see {@link BoardExplorer#getIndex()}), the field at offset 0 to 5 contains the white pawns to king, 6 to 11 the black pawns to king.
+ * They are followed by the white and black occupancies.
+ */
+public final class BitboardState {
+	/** The number of long fields of the state. */
+	public static final int SIZE = 14;
+	/** The offset of the white occupancy field. */
+	public static final int WHITE_OCCUPANCY = 12;
+	/** The offset of the black occupancy field. */
+	public static final int BLACK_OCCUPANCY = 13;
+
+	private BitboardState() {
+		super();
+	}
+
+	/** Gets the offset of the bitboard of a piece type.
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true for black pieces
+	 * @return an int between 0 and 11
+	 */
+	public static int getOffset(int pieceType, boolean isBlack) {
+		return isBlack ? 5+pieceType : pieceType-1;
+	}
+
+	/** Adds a piece to the board.
+	 * @param state The array that contains the state to update
+	 * @param offset The index of the first field of the state in <i>state</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param to The index of the cell where the piece is added (see {@link BoardExplorer#getIndex()})
+	 */
+	public static void add(long[] state, int offset, int pieceType, boolean isBlack, int to) {
+		final long mask = 1L<<to;
+		state[offset+getOffset(pieceType, isBlack)] |= mask;
+		state[offset+(isBlack ? BLACK_OCCUPANCY : WHITE_OCCUPANCY)] |= mask;
+	}
+
+	/** Moves a piece on the board.
+	 * @param state The array that contains the state to update
+	 * @param offset The index of the first field of the state in <i>state</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param from The cell's index of the moved piece (see {@link BoardExplorer#getIndex()})
+	 * @param to The destination cell's index of the moved piece
+	 */
+	public static void move(long[] state, int offset, int pieceType, boolean isBlack, int from, int to) {
+		final long mask = (1L<<from) ^ (1L<<to);
+		state[offset+getOffset(pieceType, isBlack)] ^= mask;
+		state[offset+(isBlack ? BLACK_OCCUPANCY : WHITE_OCCUPANCY)] ^= mask;
+	}
+
+	/** Removes a piece from the board.
+	 * @param state The array that contains the state to update
+	 * @param offset The index of the first field of the state in <i>state</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param from The index of the cell where the piece was (see {@link BoardExplorer#getIndex()})
+	 */
+	public static void remove(long[] state, int offset, int pieceType, boolean isBlack, int from) {
+		final long mask = ~(1L<<from);
+		state[offset+getOffset(pieceType, isBlack)] &= mask;
+		state[offset+(isBlack ? BLACK_OCCUPANCY : WHITE_OCCUPANCY)] &= mask;
+	}
+
+	/** Gets the bitboard of a piece.
+	 * @param state The array that contains the state
+	 * @param offset The index of the first field of the state in <i>state</i>
+	 * @param piece The piece as defined in {@link Pieces} (negative for black pieces)
+	 * @return a bitboard
+	 */
+	public static long get(long[] state, int offset, int piece) {
+		return state[offset+(piece>0 ? piece-1 : 5-piece)];
+	}
+
+	/** Gets the occupancy of a side.
+	 * @param state The array that contains the state
+	 * @param offset The index of the first field of the state in <i>state</i>
+	 * @param isBlack true to get the black pieces occupancy
+	 * @return a bitboard
+	 */
+	public static long getOccupancy(long[] state, int offset, boolean isBlack) {
+		return state[offset+(isBlack ? BLACK_OCCUPANCY : WHITE_OCCUPANCY)];
+	}
+
+	/** Gets the occupancy of the board.
+	 * @param state The array that contains the state
+	 * @param offset The index of the first field of the state in <i>state</i>
+	 * @return a bitboard of all the pieces
+	 */
+	public static long getOccupancy(long[] state, int offset) {
+		return state[offset+WHITE_OCCUPANCY] | state[offset+BLACK_OCCUPANCY];
+	}
+}
@@ -0,0 +1,76 @@
+package com.fathzer.chess.utils.evaluators;
+
+import com.fathzer.games.HashProvider;
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.evaluation.Evaluator;
+import com.fathzer.games.ai.evaluation.ZeroSumEvaluator;
+
+/** An evaluator that caches the evaluations of another evaluator in an {@link EvaluationCache}.
+ * <br>Moves are always forwarded to the wrapped evaluator, in order to keep incremental evaluators up to date, but the wrapped
+ * evaluator is only asked to evaluate positions that are not in the cache.
+ * <br>The evaluators returned by {@link #fork()} share the cache of this evaluator, which allows the search threads to benefit
+ * from each other's evaluations.
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ */
+public class CachedEvaluator<M, B extends MoveGenerator<M> & HashProvider> implements ZeroSumEvaluator<M, B> {
+	private final ZeroSumEvaluator<M, B> evaluator;
+	private final EvaluationCache cache;
+
+	/** Constructor.
+	 * @param evaluator The wrapped evaluator
+	 * @param cache The cache where to store the evaluations
+	 */
+	public CachedEvaluator(ZeroSumEvaluator<M, B> evaluator, EvaluationCache cache) {
+		this.evaluator = evaluator;
+		this.cache = cache;
+	}
+
+	@Override
+	public void init(B board) {
+		evaluator.init(board);
+	}
+
+	@Override
+	public void prepareMove(B board, M move) {
+		evaluator.prepareMove(board, move);
+	}
+
+	@Override
+	public void commitMove() {
+		evaluator.commitMove();
+	}
+
+	@Override
+	public void unmakeMove() {
+		evaluator.unmakeMove();
+	}
+
+	@Override
+	public int evaluateAsWhite(B board) {
+		final long key = board.getHashKey();
+		int result = cache.get(key);
+		if (result==EvaluationCache.NOT_FOUND) {
+			result = evaluator.evaluateAsWhite(board);
+			cache.put(key, result);
+		}
+		return result;
+	}
+
+	@Override
+	public int getWinScore(int nbHalfMoves) {
+		return evaluator.getWinScore(nbHalfMoves);
+	}
+
+	@Override
+	public Evaluator<M, B> fork() {
+		return new CachedEvaluator<>((ZeroSumEvaluator<M, B>) evaluator.fork(), cache);
+	}
+
+	/** Gets the cache used by this evaluator.
+	 * @return a cache
+	 */
+	public EvaluationCache getCache() {
+		return cache;
+	}
+}
@@ -0,0 +1,40 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A piece square table compiled in a flat array indexed by signed piece code and cell index.
+ * <br>It contains the same values as the {@link AbstractPieceSquareTable} it is built from, but the black pieces values are
+ * already flipped and negated. Getting a value is then a single array access, with no branch.
+ */
+public final class CompiledPieceSquareTable {
+	private final int[] values;
+
+	/** Constructor.
+	 * @param table The table to compile
+	 */
+	public CompiledPieceSquareTable(AbstractPieceSquareTable table) {
+		this.values = new int[(2*KING+1)*64];
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				values[getOffset(pieceType)+index] = table.get(pieceType, false, index);
+				values[getOffset(-pieceType)+index] = table.get(pieceType, true, index);
+			}
+		}
+	}
+
+	private static int getOffset(int piece) {
+		return (piece+KING)<<6;
+	}
+
+	/** Gets the value (from the white point of view) of a piece at a position.
+	 * @param piece The piece as defined in {@link Pieces} (negative for black pieces). 
+	 * @param index The index of the piece on the board as defined in {@link BoardExplorer}
+	 * @return an integer, the same value as {@link AbstractPieceSquareTable#get(int, boolean, int)}, 0 if piece is 0.
+	 */
+	public int get(int piece, int index) {
+		return values[getOffset(piece) | index];
+	}
+}
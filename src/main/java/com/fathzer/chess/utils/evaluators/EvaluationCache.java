@@ -0,0 +1,124 @@
+package com.fathzer.chess.utils.evaluators;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fathzer.games.HashProvider;
+
+/** A fixed size cache of evaluations indexed by position <a href="https://en.wikipedia.org/wiki/Zobrist_hashing">hash keys</a>.
+ * <br>The cache is a power of two sized table of longs. Each entry packs the evaluation in its 32 lower bits and
+ * the upper bits of the hash key, used to check the entry matches the position, in the other bits.
+ * <br>This class is thread safe and lock free: entries are read and written atomically, so an instance can be shared by the
+ * evaluators used in different search threads (see {@link CachedEvaluator}). When two positions are mapped to the same entry,
+ * the last stored one wins.
+ * <br>The cache counts the number of probes and hits.
+ * @see CachedEvaluator
+ */
+public final class EvaluationCache {
+	/** The value returned by {@link #get(long)} when the cache does not contain the position. */
+	public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	private static final long VALID_FLAG = 1L << 63;
+	private static final long KEY_MASK = 0x7FFFFFFF00000000L;
+	private static final long VALUE_MASK = 0xFFFFFFFFL;
+	private static final int MAX_SIZE = 1 << 30;
+
+	private final AtomicLongArray table;
+	private final int mask;
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+
+	/** Constructor.
+	 * @param minSize The minimum number of entries in the cache. The actual size is the smallest power of two greater than or equal to this value.
+	 * @throws IllegalArgumentException if minSize is not strictly positive or greater than 2<sup>30</sup>
+	 */
+	public EvaluationCache(int minSize) {
+		if (minSize<=0 || minSize>MAX_SIZE) {
+			throw new IllegalArgumentException();
+		}
+		final int size = minSize==1 ? 1 : Integer.highestOneBit(minSize-1)<<1;
+		this.table = new AtomicLongArray(size);
+		this.mask = size-1;
+	}
+
+	/** Gets the number of entries of this cache.
+	 * @return a power of two
+	 */
+	public int getSize() {
+		return mask+1;
+	}
+
+	/** Gets the evaluation of a position.
+	 * @param key The hash key of the position (see {@link HashProvider#getHashKey()})
+	 * @return The evaluation or {@link #NOT_FOUND} if the cache does not contain the position.
+	 */
+	public int get(long key) {
+		probes.increment();
+		final long entry = table.getOpaque(getIndex(key));
+		if ((entry & ~VALUE_MASK)!=getVerification(key)) {
+			return NOT_FOUND;
+		}
+		hits.increment();
+		return (int)entry;
+	}
+
+	/** Stores the evaluation of a position.
+	 * <br>The entry that contains the position is replaced.
+	 * <br>As {@link #NOT_FOUND} is reserved, this value is not stored (the cache is left unchanged).
+	 * @param key The hash key of the position (see {@link HashProvider#getHashKey()})
+	 * @param value The evaluation
+	 */
+	public void put(long key, int value) {
+		if (value==NOT_FOUND) {
+			return;
+		}
+		table.setOpaque(getIndex(key), getVerification(key) | (value & VALUE_MASK));
+	}
+
+	/** Removes all the entries of this cache and resets its statistics.
+	 * <br>This method should not be called while the cache is used.
+	 */
+	public void clear() {
+		for (int i = 0; i < table.length(); i++) {
+			table.setPlain(i, 0L);
+		}
+		resetStatistics();
+	}
+
+	/** Gets the number of calls to {@link #get(long)} since this cache was created or its statistics were reset.
+	 * @return a positive or null long
+	 */
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	/** Gets the number of calls to {@link #get(long)} that found the position since this cache was created or its statistics were reset.
+	 * @return a positive or null long
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** Gets the hit rate of this cache.
+	 * @return a double between 0 and 1, 0 if the cache was never probed
+	 */
+	public double getHitRate() {
+		final long count = getProbes();
+		return count==0 ? 0.0 : (double)getHits()/count;
+	}
+
+	/** Resets the probes and hits counters.
+	 */
+	public void resetStatistics() {
+		probes.reset();
+		hits.reset();
+	}
+
+	private int getIndex(long key) {
+		return (int)key & mask;
+	}
+
+	private static long getVerification(long key) {
+		return VALID_FLAG | (key & KEY_MASK);
+	}
+}
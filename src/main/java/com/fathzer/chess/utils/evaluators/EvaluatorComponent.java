@@ -0,0 +1,85 @@
+package com.fathzer.chess.utils.evaluators;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A part of an evaluation function that can be combined with others in an {@link AbstractComposedEvaluator}.
+ * <br>A component has no state of its own: its state is a block of ints and a block of longs stored by the evaluator that uses it,
+ * and passed to every method of this interface. Component instances can then be shared by many evaluators, even in different threads.
+ * <br>Most components only need int fields, the long fields are useful to store keys or bitboards (see {@link BitboardState}).
+ * <br>The methods have the same meaning as the corresponding methods of {@link AbstractIncrementalChessEvaluator}.
+ */
+public interface EvaluatorComponent {
+	/** Gets the number of ints in the state of this component.
+	 * @return a positive or null int
+	 */
+	int getStateSize();
+
+	/** Gets the number of longs in the state of this component.
+	 * @return a positive or null int. The default implementation returns 0.
+	 */
+	default int getLongStateSize() {
+		return 0;
+	}
+
+	/** Adds a piece to the board.
+	 * @param state The array that contains the state to update
+	 * @param index The index of the first int of the state in <i>state</i>
+	 * @param longState The array that contains the long fields of the state
+	 * @param longIndex The index of the first long of the state in <i>longState</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param to The index of the cell where the piece is added (see {@link BoardExplorer#getIndex()})
+	 * @see AbstractIncrementalChessEvaluator#add(int, boolean, int)
+	 */
+	void add(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int to);
+
+	/** Moves a piece on the board.
+	 * @param state The array that contains the state to update
+	 * @param index The index of the first int of the state in <i>state</i>
+	 * @param longState The array that contains the long fields of the state
+	 * @param longIndex The index of the first long of the state in <i>longState</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param from The cell's index of the moved piece (see {@link BoardExplorer#getIndex()})
+	 * @param to The destination cell's index of the moved piece
+	 * @see AbstractIncrementalChessEvaluator#move(int, boolean, int, int)
+	 */
+	void move(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from, int to);
+
+	/** Removes a piece from the board.
+	 * @param state The array that contains the state to update
+	 * @param index The index of the first int of the state in <i>state</i>
+	 * @param longState The array that contains the long fields of the state
+	 * @param longIndex The index of the first long of the state in <i>longState</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param from The index of the cell where the piece was (see {@link BoardExplorer#getIndex()})
+	 * @see AbstractIncrementalChessEvaluator#remove(int, boolean, int)
+	 */
+	void remove(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from);
+
+	/** A specialized {@link #add(int[], int, long[], int, int, boolean, int)} method called when the evaluator is initialized.
+	 * <br>By default it just calls {@link #add(int[], int, long[], int, int, boolean, int)}
+	 * @param state The array that contains the state to update
+	 * @param index The index of the first int of the state in <i>state</i>
+	 * @param longState The array that contains the long fields of the state
+	 * @param longIndex The index of the first long of the state in <i>longState</i>
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param to The index of the cell where the piece is added (see {@link BoardExplorer#getIndex()})
+	 * @see AbstractIncrementalChessEvaluator#put(int, boolean, int)
+	 */
+	default void put(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int to) {
+		add(state, index, longState, longIndex, pieceType, isBlack, to);
+	}
+
+	/** Evaluates a state.
+	 * @param state The array that contains the state to evaluate
+	 * @param index The index of the first int of the state in <i>state</i>
+	 * @param longState The array that contains the long fields of the state
+	 * @param longIndex The index of the first long of the state in <i>longState</i>
+	 * @return The evaluation from the white point of view
+	 */
+	int evaluateAsWhite(int[] state, int index, long[] longState, int longIndex);
+}
@@ -0,0 +1,70 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A pair of middle game and end game piece square tables compiled in a single flat array of packed scores.
+ * <br>A packed score contains a middle game and an end game score in a single int. Packed scores can be added or subtracted
+ * like ints, as long as both halves remain in the [-32768, 32767] range.
+ * This allows <a href="https://www.chessprogramming.org/Tapered_Eval">tapered evaluators</a> to update both scores with one
+ * table lookup and one addition.
+ * <br>Like in {@link CompiledPieceSquareTable}, values are indexed by signed piece code and the black values are already flipped and negated.
+ */
+public final class TaperedPieceSquareTable {
+	private final int[] values;
+
+	/** Constructor.
+	 * @param middleGame The middle game table
+	 * @param endGame The end game table
+	 */
+	public TaperedPieceSquareTable(AbstractPieceSquareTable middleGame, AbstractPieceSquareTable endGame) {
+		this.values = new int[(2*KING+1)*64];
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				values[getOffset(pieceType)+index] = pack(middleGame.get(pieceType, false, index), endGame.get(pieceType, false, index));
+				values[getOffset(-pieceType)+index] = pack(middleGame.get(pieceType, true, index), endGame.get(pieceType, true, index));
+			}
+		}
+	}
+
+	private static int getOffset(int piece) {
+		return (piece+KING)<<6;
+	}
+
+	/** Gets the packed score (from the white point of view) of a piece at a position.
+	 * @param piece The piece as defined in {@link Pieces} (negative for black pieces). 
+	 * @param index The index of the piece on the board as defined in {@link BoardExplorer}
+	 * @return a packed score, 0 if piece is 0.
+	 */
+	public int get(int piece, int index) {
+		return values[getOffset(piece) | index];
+	}
+
+	/** Packs a middle game and an end game score.
+	 * @param middleGame The middle game score (should be in the [-32768, 32767] range)
+	 * @param endGame The end game score (should be in the [-32768, 32767] range)
+	 * @return a packed score
+	 */
+	public static int pack(int middleGame, int endGame) {
+		return (endGame << 16) + middleGame;
+	}
+
+	/** Gets the middle game score of a packed score.
+	 * @param packed A packed score
+	 * @return an int
+	 */
+	public static int getMiddleGame(int packed) {
+		return (short) packed;
+	}
+
+	/** Gets the end game score of a packed score.
+	 * @param packed A packed score
+	 * @return an int
+	 */
+	public static int getEndGame(int packed) {
+		// Adding 0x8000 compensates the borrow made by a negative middle game score
+		return (short) ((packed + 0x8000) >> 16);
+	}
+}
@@ -0,0 +1,316 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.zip.CRC32;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A middle game and an end game piece square tables that can be saved to and loaded from a file.
+ * <br>This allows to change the tables used by an evaluator (for instance {@link TaperedPieceSquareTable}) at startup, without recompiling.
+ * Once loaded, the tables are plain arrays, so the evaluators are as fast as with hard coded tables.
+ * <br>Two formats are available:<ul>
+ * <li>A compact binary format (see {@link #write(OutputStream)}).</li>
+ * <li>A text format that can be edited by hand (see {@link #write(Writer)}).</li>
+ * </ul>
+ * Both formats contain a checksum (see {@link #getChecksum()}) that is verified when the tables are loaded.
+ * <br>All values should be in the [-32768, 32767] range.
+ */
+public final class TaperedPieceSquareTableSet {
+	/** The magic number at the start of binary files ("TPST" in ASCII). */
+	public static final int MAGIC = 0x54505354;
+	/** The current version of the binary format. */
+	public static final int VERSION = 1;
+
+	private static final String[] PIECE_NAMES = {"", "pawn", "knight", "bishop", "rook", "queen", "king"};
+	private static final String MIDDLE_GAME = "mg";
+	private static final String END_GAME = "eg";
+	private static final String CHECKSUM = "crc32";
+
+	private final int[][] middleGame;
+	private final int[][] endGame;
+
+	/** Constructor.
+	 * @param middleGame The middle game table
+	 * @param endGame The end game table
+	 * @throws IllegalArgumentException if a value is out of the [-32768, 32767] range
+	 */
+	public TaperedPieceSquareTableSet(AbstractPieceSquareTable middleGame, AbstractPieceSquareTable endGame) {
+		this.middleGame = toArray(middleGame);
+		this.endGame = toArray(endGame);
+	}
+
+	private TaperedPieceSquareTableSet(int[][] middleGame, int[][] endGame) {
+		this.middleGame = middleGame;
+		this.endGame = endGame;
+	}
+
+	private static int[][] toArray(AbstractPieceSquareTable table) {
+		final int[][] result = new int[KING+1][64];
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				final int value = table.get(pieceType, false, index);
+				if (value!=(short)value) {
+					throw new IllegalArgumentException("Value out of range: "+value);
+				}
+				result[pieceType][index] = value;
+			}
+		}
+		return result;
+	}
+
+	/** Gets the middle game table.
+	 * @return a new table
+	 */
+	public AbstractPieceSquareTable getMiddleGame() {
+		return new ArrayPieceSquareTable(middleGame);
+	}
+
+	/** Gets the end game table.
+	 * @return a new table
+	 */
+	public AbstractPieceSquareTable getEndGame() {
+		return new ArrayPieceSquareTable(endGame);
+	}
+
+	/** Gets the compiled version of these tables.
+	 * @return a new table that can be used by tapered evaluators
+	 */
+	public TaperedPieceSquareTable toTaperedTable() {
+		return new TaperedPieceSquareTable(getMiddleGame(), getEndGame());
+	}
+
+	/** Gets the value of a white piece.
+	 * @param middleGame true to get the middle game value, false to get the end game value
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param index The index of the piece on the board as defined in {@link BoardExplorer}
+	 * @return an int
+	 */
+	public int get(boolean middleGame, int pieceType, int index) {
+		return (middleGame ? this.middleGame : this.endGame)[pieceType][index];
+	}
+
+	/** Gets the checksum of these tables.
+	 * <br>It is the CRC32 of the values, written as 16 bits big endian integers, in the following order: middle game then end game tables,
+	 * pieces from pawn to king, cells from index 0 to 63 (see {@link BoardExplorer}).
+	 * @return an int
+	 */
+	public int getChecksum() {
+		final CRC32 crc = new CRC32();
+		for (int[][] table : new int[][][] {middleGame, endGame}) {
+			for (int pieceType = 1; pieceType <= KING; pieceType++) {
+				for (int value : table[pieceType]) {
+					crc.update(value >> 8);
+					crc.update(value);
+				}
+			}
+		}
+		return (int) crc.getValue();
+	}
+
+	/** Writes these tables in binary format.
+	 * <br>The format is (all integers are big endian):<ul>
+	 * <li>The {@link #MAGIC} int</li>
+	 * <li>The {@link #VERSION} as a short</li>
+	 * <li>The 2*6*64 values as shorts, in the order described in {@link #getChecksum()}</li>
+	 * <li>The checksum as an int</li>
+	 * </ul>
+	 * @param out The stream where to write. It is not closed by this method.
+	 * @throws IOException if an error occurs while writing
+	 */
+	public void write(OutputStream out) throws IOException {
+		final DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		for (int[][] table : new int[][][] {middleGame, endGame}) {
+			for (int pieceType = 1; pieceType <= KING; pieceType++) {
+				for (int value : table[pieceType]) {
+					data.writeShort(value);
+				}
+			}
+		}
+		data.writeInt(getChecksum());
+		data.flush();
+	}
+
+	/** Reads tables in binary format.
+	 * @param in The stream to read. It is not closed by this method.
+	 * @return The tables
+	 * @throws IOException if an error occurs while reading or the stream does not contain valid tables.
+	 * @see #write(OutputStream)
+	 */
+	public static TaperedPieceSquareTableSet read(InputStream in) throws IOException {
+		final DataInputStream data = new DataInputStream(in);
+		try {
+			if (data.readInt()!=MAGIC) {
+				throw new IOException("Not a piece square table file");
+			}
+			final int version = data.readShort();
+			if (version!=VERSION) {
+				throw new IOException("Unsupported version "+version);
+			}
+			final int[][] middleGame = new int[KING+1][64];
+			final int[][] endGame = new int[KING+1][64];
+			for (int[][] table : new int[][][] {middleGame, endGame}) {
+				for (int pieceType = 1; pieceType <= KING; pieceType++) {
+					for (int index = 0; index < 64; index++) {
+						table[pieceType][index] = data.readShort();
+					}
+				}
+			}
+			return check(new TaperedPieceSquareTableSet(middleGame, endGame), data.readInt());
+		} catch (EOFException e) {
+			throw new IOException("File is truncated", e);
+		}
+	}
+
+	/** Writes these tables in text format.
+	 * <br>The text contains a section per table and piece type. A section starts with a line containing the phase (<code>mg</code> or <code>eg</code>),
+	 * a dot and the piece name (for instance <code>mg.pawn</code>), followed by 8 lines of 8 values (from index 0 to 63, see {@link BoardExplorer}).
+	 * The last line contains <code>crc32</code> followed by the checksum in hexadecimal.
+	 * <br>When the text is read, values can be separated by any white space, the sections can be in any order, and lines starting with <code>#</code> are ignored.
+	 * @param out The writer where to write. It is not closed by this method.
+	 * @throws IOException if an error occurs while writing
+	 */
+	public void write(Writer out) throws IOException {
+		final StringBuilder builder = new StringBuilder();
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			writeSection(builder, MIDDLE_GAME, pieceType, middleGame[pieceType]);
+		}
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			writeSection(builder, END_GAME, pieceType, endGame[pieceType]);
+		}
+		builder.append(CHECKSUM).append(' ').append(Integer.toHexString(getChecksum())).append('\n');
+		out.write(builder.toString());
+		out.flush();
+	}
+
+	private static void writeSection(StringBuilder builder, String phase, int pieceType, int[] values) {
+		builder.append(phase).append('.').append(PIECE_NAMES[pieceType]).append('\n');
+		for (int index = 0; index < 64; index++) {
+			builder.append(String.format("%5d", values[index]));
+			builder.append((index & 7)==7 ? '\n' : ' ');
+		}
+	}
+
+	/** Reads tables in text format.
+	 * @param in The reader to read. It is not closed by this method.
+	 * @return The tables
+	 * @throws IOException if an error occurs while reading or the text does not contain valid tables.
+	 * @see #write(Writer)
+	 */
+	public static TaperedPieceSquareTableSet read(BufferedReader in) throws IOException {
+		final int[][][] tables = new int[2][][];
+		tables[0] = new int[KING+1][];
+		tables[1] = new int[KING+1][];
+		int[] current = null;
+		int count = 0;
+		Integer checksum = null;
+		for (String line = in.readLine(); line!=null; line = in.readLine()) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			if (Character.isLetter(line.charAt(0))) {
+				checkComplete(current, count);
+				if (line.startsWith(CHECKSUM)) {
+					checksum = parseChecksum(line.substring(CHECKSUM.length()).trim());
+					current = null;
+				} else {
+					current = new int[64];
+					count = 0;
+					setSection(tables, line, current);
+				}
+			} else {
+				if (current==null || checksum!=null) {
+					throw new IOException("Unexpected values: "+line);
+				}
+				for (String token : line.split("\\s+")) {
+					if (count==64) {
+						throw new IOException("Too many values: "+line);
+					}
+					current[count++] = parseValue(token);
+				}
+			}
+		}
+		checkComplete(current, count);
+		for (int[][] table : tables) {
+			for (int pieceType = 1; pieceType <= KING; pieceType++) {
+				if (table[pieceType]==null) {
+					throw new IOException("Missing section for "+PIECE_NAMES[pieceType]);
+				}
+			}
+			table[0] = new int[0];
+		}
+		if (checksum==null) {
+			throw new IOException("Missing checksum");
+		}
+		return check(new TaperedPieceSquareTableSet(tables[0], tables[1]), checksum);
+	}
+
+	private static void setSection(int[][][] tables, String line, int[] values) throws IOException {
+		final int dot = line.indexOf('.');
+		final String phase = dot<0 ? line : line.substring(0, dot);
+		final int tableIndex;
+		if (MIDDLE_GAME.equals(phase)) {
+			tableIndex = 0;
+		} else if (END_GAME.equals(phase)) {
+			tableIndex = 1;
+		} else {
+			throw new IOException("Unknown section: "+line);
+		}
+		final String piece = line.substring(dot+1);
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			if (PIECE_NAMES[pieceType].equals(piece)) {
+				if (tables[tableIndex][pieceType]!=null) {
+					throw new IOException("Duplicated section: "+line);
+				}
+				tables[tableIndex][pieceType] = values;
+				return;
+			}
+		}
+		throw new IOException("Unknown section: "+line);
+	}
+
+	private static void checkComplete(int[] current, int count) throws IOException {
+		if (current!=null && count!=64) {
+			throw new IOException("Section has "+count+" values instead of 64");
+		}
+	}
+
+	private static int parseValue(String token) throws IOException {
+		try {
+			final int value = Integer.parseInt(token);
+			if (value!=(short)value) {
+				throw new IOException("Value out of range: "+value);
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid value: "+token, e);
+		}
+	}
+
+	private static int parseChecksum(String token) throws IOException {
+		try {
+			return Integer.parseUnsignedInt(token, 16);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid checksum: "+token, e);
+		}
+	}
+
+	private static TaperedPieceSquareTableSet check(TaperedPieceSquareTableSet tables, int checksum) throws IOException {
+		if (tables.getChecksum()!=checksum) {
+			throw new IOException("Checksum mismatch");
+		}
+		return tables;
+	}
+}
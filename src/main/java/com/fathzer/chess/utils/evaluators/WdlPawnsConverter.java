@@ -26,6 +26,16 @@ public final class WdlPawnsConverter {
 	 * 0.5 means both players have equals chances.
 	 */
 	public static double toWdl(int centiPawns) {
-		return 1.0/(1.0+Math.pow(10, -(double)centiPawns/400));
+		return toWdl((double)centiPawns);
+	}
+	
+	/** Converts a centi pawns evaluation to a win probability.
+	 * <br>This method is useful when the evaluation is not an integer, for instance during the tuning of an evaluation function.
+	 * @param centiPawns A centi pawn evaluation
+	 * @return The win probability (a double strictly between 0.0 and 1.0).
+	 * 0.5 means both players have equals chances.
+	 */
+	public static double toWdl(double centiPawns) {
+		return 1.0/(1.0+Math.pow(10, -centiPawns/400));
 	}
 }
@@ -0,0 +1,83 @@
+package com.fathzer.chess.utils.evaluators.material;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A material key: the count of every piece type of both sides packed in a long.
+ * <br>Each count is stored in 4 bits, in the following order from the least significant bits: pawns, knights, bishops on light cells,
+ * bishops on dark cells, rooks and queens. The white counts are in the lower int, the black ones in the upper int. Kings are not counted.
+ * <br>The key of a position is the sum of the increments (see {@link #get(int, boolean, int)}) of its pieces, so it can be updated
+ * incrementally by adding or subtracting the increment of the added or removed piece. Moving a piece never changes the key.
+ * <br>Unlike a hash key, a material key is exact: two positions have the same key if and only if they have the same material.
+ */
+public final class MaterialKey {
+	private static final int BITS = 4;
+	private static final int MASK = (1<<BITS)-1;
+	private static final int BLACK_SHIFT = 32;
+	private static final int LIGHT_BISHOP_SLOT = 2;
+	private static final int DARK_BISHOP_SLOT = 3;
+
+	private MaterialKey() {
+		super();
+	}
+
+	/** Gets the increment of a piece.
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param index The index of the piece's cell (see {@link BoardExplorer#getIndex()}), it is used to know the color of a bishop's cell.
+	 * @return The value to add to the material key when the piece is added to the board, 0 for a king
+	 */
+	public static long get(int pieceType, boolean isBlack, int index) {
+		if (pieceType==KING) {
+			return 0L;
+		}
+		final int slot;
+		if (pieceType==BISHOP) {
+			slot = isLight(index) ? LIGHT_BISHOP_SLOT : DARK_BISHOP_SLOT;
+		} else {
+			slot = pieceType<BISHOP ? pieceType-1 : pieceType;
+		}
+		return 1L << (getShift(isBlack)+slot*BITS);
+	}
+
+	/** Tests whether a cell is a light cell.
+	 * @param index The index of a cell (see {@link BoardExplorer#getIndex()})
+	 * @return true if the cell is light (for instance a8 or h1)
+	 */
+	public static boolean isLight(int index) {
+		return (((index>>3) + index) & 1) == 0;
+	}
+
+	/** Gets the number of pieces of a type in a material key.
+	 * @param key A material key
+	 * @param pieceType The piece type as define in {@link Pieces}, except {@link Pieces#KING}
+	 * @param isBlack true to count black pieces
+	 * @return a positive or null int
+	 */
+	public static int getCount(long key, int pieceType, boolean isBlack) {
+		if (pieceType==BISHOP) {
+			return getBishops(key, isBlack, true) + getBishops(key, isBlack, false);
+		}
+		return get(key, isBlack, pieceType<BISHOP ? pieceType-1 : pieceType);
+	}
+
+	/** Gets the number of bishops on cells of a color.
+	 * @param key A material key
+	 * @param isBlack true to count black bishops
+	 * @param light true to count bishops on light cells, false to count bishops on dark cells
+	 * @return a positive or null int
+	 */
+	public static int getBishops(long key, boolean isBlack, boolean light) {
+		return get(key, isBlack, light ? LIGHT_BISHOP_SLOT : DARK_BISHOP_SLOT);
+	}
+
+	private static int get(long key, boolean isBlack, int slot) {
+		return (int)(key >>> (getShift(isBlack)+slot*BITS)) & MASK;
+	}
+
+	private static int getShift(boolean isBlack) {
+		return isBlack ? BLACK_SHIFT : 0;
+	}
+}
@@ -0,0 +1,186 @@
+package com.fathzer.chess.utils.evaluators.material;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.fathzer.chess.utils.Pieces;
+
+/** A <a href="https://www.chessprogramming.org/Material_Hash_Table">material hash table</a>.
+ * <br>It caches, for a material key (see {@link MaterialKey}), an entry that contains:<ul>
+ * <li>The game phase, computed with the <a href="https://www.chessprogramming.org/PeSTO%27s_Evaluation_Function">PeSTO</a> weights.</li>
+ * <li>An imbalance bonus, from the white point of view, to add to the evaluation. By default, it is the bishop pair bonus.</li>
+ * <li>A scale factor per side to apply to the evaluation when the side is ahead. By default, it is used to recognize draws (insufficient material),
+ * drawish endings without pawns (for instance KRvKR or KRvKB) and opposite colored bishops endings.</li>
+ * </ul>
+ * Entries are packed in longs that can be decoded with the static methods of this class.
+ * <br>The table is a fixed size, power of two sized, lock free table that can be shared by many threads. The entries are verified with the whole
+ * material key, using the <a href="https://www.chessprogramming.org/Shared_Hash_Table#Lockless">xor trick</a>.
+ * <br>Subclasses can override {@link #getImbalance(long)} and {@link #getScaleFactor(long, boolean)} to use other rules.
+ */
+public class MaterialTable {
+	/** The scale factor that leaves the evaluation unchanged. */
+	public static final int NORMAL_SCALE = 64;
+	/** The default bishop pair bonus. */
+	public static final int BISHOP_PAIR = 30;
+
+	private static final int[] GAME_PHASE_WEIGHT = new int[]{0,0,1,1,2,4,0};
+	private static final long VALID_FLAG = 1L<<63;
+	private static final int PHASE_SHIFT = 16;
+	private static final int WHITE_SCALE_SHIFT = 24;
+	private static final int BLACK_SCALE_SHIFT = 32;
+	private static final int BYTE_MASK = 0xFF;
+	private static final int MAX_SIZE = 1<<29;
+
+	private final AtomicLongArray table;
+	private final int mask;
+
+	/** Constructor.
+	 * @param minSize The minimum number of entries in the table. The actual size is the smallest power of two greater than or equal to this value.
+	 * @throws IllegalArgumentException if minSize is not strictly positive or greater than 2<sup>29</sup>
+	 */
+	public MaterialTable(int minSize) {
+		if (minSize<=0 || minSize>MAX_SIZE) {
+			throw new IllegalArgumentException();
+		}
+		final int size = minSize==1 ? 1 : Integer.highestOneBit(minSize-1)<<1;
+		this.table = new AtomicLongArray(2*size);
+		this.mask = size-1;
+	}
+
+	/** Gets the entry of a material key.
+	 * <br>The entry is computed and stored in the table if it is not already there.
+	 * @param key A material key
+	 * @return an entry
+	 */
+	public long get(long key) {
+		final int index = getIndex(key);
+		final long data = table.getOpaque(index+1);
+		if ((table.getOpaque(index) ^ data)==key && data!=0) {
+			return data;
+		}
+		final long entry = compute(key);
+		table.setOpaque(index, key ^ entry);
+		table.setOpaque(index+1, entry);
+		return entry;
+	}
+
+	private int getIndex(long key) {
+		// Mixes the bits of the key, as similar material keys would otherwise collide
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return ((int)(hash >>> 32) & mask) << 1;
+	}
+
+	/** Computes the entry of a material key.
+	 * @param key A material key
+	 * @return an entry
+	 */
+	private long compute(long key) {
+		final long imbalance = getImbalance(key) & 0xFFFFL;
+		return VALID_FLAG | imbalance | ((long)getPhase(key) << PHASE_SHIFT) |
+				((long)getScaleFactor(key, false) << WHITE_SCALE_SHIFT) | ((long)getScaleFactor(key, true) << BLACK_SCALE_SHIFT);
+	}
+
+	/** Gets the game phase of a material key.
+	 * @param key A material key
+	 * @return an int between 0 (end game) and 24 (opening)
+	 */
+	public static int getPhase(long key) {
+		int phase = 0;
+		for (int pieceType = KNIGHT; pieceType <= QUEEN; pieceType++) {
+			phase += GAME_PHASE_WEIGHT[pieceType] * (MaterialKey.getCount(key, pieceType, false) + MaterialKey.getCount(key, pieceType, true));
+		}
+		return Math.min(phase, 24);
+	}
+
+	/** Gets the imbalance bonus of a material key.
+	 * <br>By default, it returns {@link #BISHOP_PAIR} for each side that has bishops on both cell colors.
+	 * @param key A material key
+	 * @return a bonus from the white point of view, in the [-32768, 32767] range.
+	 */
+	protected int getImbalance(long key) {
+		return getBishopPairBonus(key, false) - getBishopPairBonus(key, true);
+	}
+
+	private static int getBishopPairBonus(long key, boolean isBlack) {
+		return MaterialKey.getBishops(key, isBlack, true)>0 && MaterialKey.getBishops(key, isBlack, false)>0 ? BISHOP_PAIR : 0;
+	}
+
+	/** Gets the scale factor to apply to the evaluation when a side is ahead.
+	 * <br>By default, it returns:<ul>
+	 * <li>0 if the side has no pawn and only a minor piece or two knights (against a bare king).</li>
+	 * <li>{@link #NORMAL_SCALE}/4 if the side has no pawn and its pieces are worth less than a bishop more than the other side's pieces (for instance KRvKR or KRvKB).</li>
+	 * <li>{@link #NORMAL_SCALE}/2 if both sides only have a bishop, on cells of different colors, and pawns.</li>
+	 * <li>{@link #NORMAL_SCALE} otherwise.</li>
+	 * </ul>
+	 * @param key A material key
+	 * @param isBlack true to get the scale factor of black's advantage
+	 * @return an int between 0 and 255
+	 */
+	protected int getScaleFactor(long key, boolean isBlack) {
+		if (MaterialKey.getCount(key, PAWN, isBlack)==0) {
+			final int material = getPiecesValue(key, isBlack);
+			final int otherMaterial = getPiecesValue(key, !isBlack);
+			if (material<=Pieces.getPoints(BISHOP) ||
+					(material==2*Pieces.getPoints(KNIGHT) && MaterialKey.getCount(key, KNIGHT, isBlack)==2 && otherMaterial==0)) {
+				return 0;
+			}
+			if (material-otherMaterial<=Pieces.getPoints(BISHOP)) {
+				return NORMAL_SCALE/4;
+			}
+		}
+		if (isOnlyBishop(key, false) && isOnlyBishop(key, true) &&
+				MaterialKey.getBishops(key, false, true)!=MaterialKey.getBishops(key, true, true)) {
+			return NORMAL_SCALE/2;
+		}
+		return NORMAL_SCALE;
+	}
+
+	private static int getPiecesValue(long key, boolean isBlack) {
+		int result = 0;
+		for (int pieceType = KNIGHT; pieceType <= QUEEN; pieceType++) {
+			result += Pieces.getPoints(pieceType) * MaterialKey.getCount(key, pieceType, isBlack);
+		}
+		return result;
+	}
+
+	private static boolean isOnlyBishop(long key, boolean isBlack) {
+		return MaterialKey.getCount(key, BISHOP, isBlack)==1 && MaterialKey.getCount(key, KNIGHT, isBlack)==0 &&
+				MaterialKey.getCount(key, ROOK, isBlack)==0 && MaterialKey.getCount(key, QUEEN, isBlack)==0;
+	}
+
+	/** Gets the game phase of an entry.
+	 * @param entry An entry returned by {@link #get(long)}
+	 * @return an int between 0 (end game) and 24 (opening)
+	 */
+	public static int getEntryPhase(long entry) {
+		return (int)(entry >>> PHASE_SHIFT) & BYTE_MASK;
+	}
+
+	/** Gets the imbalance bonus of an entry.
+	 * @param entry An entry returned by {@link #get(long)}
+	 * @return a bonus from the white point of view
+	 */
+	public static int getEntryImbalance(long entry) {
+		return (short)entry;
+	}
+
+	/** Gets the scale factor of an entry.
+	 * @param entry An entry returned by {@link #get(long)}
+	 * @param isBlack true to get the scale factor of black's advantage
+	 * @return an int, {@link #NORMAL_SCALE} to leave the evaluation unchanged
+	 */
+	public static int getEntryScaleFactor(long entry, boolean isBlack) {
+		return (int)(entry >>> (isBlack ? BLACK_SCALE_SHIFT : WHITE_SCALE_SHIFT)) & BYTE_MASK;
+	}
+
+	/** Applies the imbalance bonus and the scale factor of an entry to an evaluation.
+	 * @param entry An entry returned by {@link #get(long)}
+	 * @param evaluation An evaluation from the white point of view
+	 * @return The adjusted evaluation
+	 */
+	public static int adjust(long entry, int evaluation) {
+		final int result = evaluation + getEntryImbalance(entry);
+		return result * getEntryScaleFactor(entry, result<0) / NORMAL_SCALE;
+	}
+}
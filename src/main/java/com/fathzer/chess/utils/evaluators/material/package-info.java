@@ -0,0 +1,3 @@
+/** This package contains a material key and a <a href="https://www.chessprogramming.org/Material_Hash_Table">material hash table</a>.
+ */
+package com.fathzer.chess.utils.evaluators.material;
@@ -0,0 +1,75 @@
+package com.fathzer.chess.utils.evaluators.nnue;
+
+import com.fathzer.chess.utils.evaluators.AbstractChessEvaluator;
+import com.fathzer.games.MoveGenerator;
+
+/** An incremental <a href="https://www.chessprogramming.org/NNUE">NNUE</a> evaluator.
+ * <br>The state of this evaluator is the {@link Accumulator} of its {@link Network}. It is updated each time a piece is added,
+ * moved or removed, so that only the output layer is computed when a position is evaluated.
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ */
+public abstract class AbstractNNUEEvaluator<M, B extends MoveGenerator<M>> extends AbstractChessEvaluator<M, B, Accumulator> {
+	private final Network network;
+
+	/** Constructor.
+	 * @param network The network
+	 */
+	protected AbstractNNUEEvaluator(Network network) {
+		super(() -> new Accumulator(network.getHiddenSize()));
+		this.network = network;
+	}
+
+	/** Constructor.
+	 * @param network The network
+	 * @param state The initial state
+	 */
+	protected AbstractNNUEEvaluator(Network network, Accumulator state) {
+		super(() -> new Accumulator(network.getHiddenSize()), state);
+		this.network = network;
+	}
+
+	/** Gets the network of this evaluator.
+	 * @return a network
+	 */
+	public Network getNetwork() {
+		return network;
+	}
+
+	@Override
+	protected void add(int pieceType, boolean isBlack, int to) {
+		network.add(toCommit, pieceType, isBlack, to);
+	}
+
+	@Override
+	protected void move(int pieceType, boolean isBlack, int from, int to) {
+		network.move(toCommit, pieceType, isBlack, from, to);
+	}
+
+	@Override
+	protected void remove(int pieceType, boolean isBlack, int from) {
+		network.remove(toCommit, pieceType, isBlack, from);
+	}
+
+	@Override
+	public int evaluate(B board) {
+		return network.evaluate(getState(), board.isWhiteToMove());
+	}
+
+	@Override
+	public int evaluateAsWhite(B board) {
+		final boolean whiteToMove = board.isWhiteToMove();
+		final int result = network.evaluate(getState(), whiteToMove);
+		return whiteToMove ? result : -result;
+	}
+
+	@Override
+	protected void clear(Accumulator state) {
+		network.clear(state);
+	}
+
+	@Override
+	protected void copy(Accumulator from, Accumulator to) {
+		from.copyTo(to);
+	}
+}
@@ -0,0 +1,26 @@
+package com.fathzer.chess.utils.evaluators.nnue;
+
+/** The first layer <a href="https://www.chessprogramming.org/NNUE#Accumulator">accumulator</a> of a {@link Network}.
+ * <br>It contains one vector of 16 bits integers per side.
+ */
+public final class Accumulator {
+	final short[] white;
+	final short[] black;
+
+	/** Constructor.
+	 * <br>All the elements of the vectors are 0.
+	 * @param size The number of elements of each vector (the size of the network's hidden layer).
+	 */
+	public Accumulator(int size) {
+		this.white = new short[size];
+		this.black = new short[size];
+	}
+
+	/** Copies this accumulator to another one.
+	 * @param to The accumulator where to copy this. It should have the same size as this.
+	 */
+	public void copyTo(Accumulator to) {
+		System.arraycopy(white, 0, to.white, 0, white.length);
+		System.arraycopy(black, 0, to.black, 0, black.length);
+	}
+}
@@ -0,0 +1,222 @@
+package com.fathzer.chess.utils.evaluators.nnue;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A quantized (768-&gt;N)x2-&gt;1 <a href="https://www.chessprogramming.org/NNUE">NNUE</a> network.
+ * <br>The input layer has one feature per (piece color, piece type, cell) relative to a perspective. The white perspective indexes
+ * cells from a1 (0) to h8 (63), the black perspective is vertically flipped. Features of the perspective's side come first.
+ * <br>Each side has an accumulator (see {@link Accumulator}) of N 16 bits integers that is the sum of the first layer biases and the
+ * weights of its active features. The output is computed from the
+ * <a href="https://www.chessprogramming.org/NNUE#Clipped_ReLU">clipped ReLU</a> of the side to move's accumulator followed by the
+ * other side's one.
+ * <br>The quantization factors are {@value #QA} for the first layer and {@value #QB} for the output layer, and the
+ * output is scaled by {@value #SCALE} to get centipawns.
+ * <br>This class is immutable and thread safe, a single instance can be shared by many evaluators.
+ * <br>The vector loops are written as simple loops the JIT compiler is able to auto-vectorize.
+ */
+public final class Network {
+	/** The number of input features. */
+	public static final int INPUTS = 768;
+	/** The quantization factor of the first layer. */
+	public static final int QA = 255;
+	/** The quantization factor of the output layer. */
+	public static final int QB = 64;
+	/** The scale of the output. */
+	public static final int SCALE = 400;
+	/** The magic number at the start of network files ("NNUE" in ASCII, little endian). */
+	public static final int MAGIC = 0x45554E4E;
+
+	private static final int HEADER_SIZE = 2*Integer.BYTES;
+	private static final int MAX_HIDDEN_SIZE = 4096;
+	private static final int OTHER_SIDE = 6*64;
+
+	private final int hiddenSize;
+	private final short[] featureWeights;
+	private final short[] featureBiases;
+	private final short[] outputWeights;
+	private final int outputBias;
+
+	/** Constructor.
+	 * @param hiddenSize The size of the hidden layer
+	 * @param featureWeights The weights of the first layer. The weights of feature <i>f</i> are at indexes <i>f</i>*hiddenSize to (<i>f</i>+1)*hiddenSize-1.
+	 * @param featureBiases The biases of the first layer
+	 * @param outputWeights The weights of the output layer. The weights of the side to move come first.
+	 * @param outputBias The bias of the output layer
+	 * @throws IllegalArgumentException if an array size does not match the hidden layer size
+	 */
+	public Network(int hiddenSize, short[] featureWeights, short[] featureBiases, short[] outputWeights, int outputBias) {
+		if (hiddenSize<=0 || featureWeights.length!=INPUTS*hiddenSize || featureBiases.length!=hiddenSize || outputWeights.length!=2*hiddenSize) {
+			throw new IllegalArgumentException();
+		}
+		this.hiddenSize = hiddenSize;
+		this.featureWeights = featureWeights.clone();
+		this.featureBiases = featureBiases.clone();
+		this.outputWeights = outputWeights.clone();
+		this.outputBias = outputBias;
+	}
+
+	/** Loads a network from a file.
+	 * <br>The file is memory mapped and contains, in little endian order:<ul>
+	 * <li>The {@link #MAGIC} int</li>
+	 * <li>The size of the hidden layer (an int)</li>
+	 * <li>The weights of the first layer ({@link #INPUTS}*hiddenSize shorts, ordered as in {@link #Network(int, short[], short[], short[], int)})</li>
+	 * <li>The biases of the first layer (hiddenSize shorts)</li>
+	 * <li>The weights of the output layer (2*hiddenSize shorts)</li>
+	 * <li>The bias of the output layer (an int)</li>
+	 * </ul>
+	 * @param path The file's path
+	 * @return A new network
+	 * @throws IOException if the file can't be read or has not the expected format
+	 */
+	public static Network load(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long fileSize = channel.size();
+			if (fileSize<HEADER_SIZE) {
+				throw new IOException("File is too short");
+			}
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getInt()!=MAGIC) {
+				throw new IOException("Not a network file");
+			}
+			final int hiddenSize = buffer.getInt();
+			if (hiddenSize<=0 || hiddenSize>MAX_HIDDEN_SIZE) {
+				throw new IOException("Invalid hidden layer size: "+hiddenSize);
+			}
+			if (fileSize!=getFileSize(hiddenSize)) {
+				throw new IOException("Invalid file size for hidden layer size "+hiddenSize);
+			}
+			final short[] featureWeights = new short[INPUTS*hiddenSize];
+			final short[] featureBiases = new short[hiddenSize];
+			final short[] outputWeights = new short[2*hiddenSize];
+			buffer.asShortBuffer().get(featureWeights).get(featureBiases).get(outputWeights);
+			buffer.position(buffer.position()+Short.BYTES*(featureWeights.length+featureBiases.length+outputWeights.length));
+			return new Network(hiddenSize, featureWeights, featureBiases, outputWeights, buffer.getInt());
+		}
+	}
+
+	/** Gets the size of the file of a network.
+	 * @param hiddenSize The size of the hidden layer
+	 * @return a number of bytes
+	 */
+	public static long getFileSize(int hiddenSize) {
+		return HEADER_SIZE + (long)Short.BYTES*(INPUTS+3)*hiddenSize + Integer.BYTES;
+	}
+
+	/** Gets the size of the hidden layer.
+	 * @return a positive int
+	 */
+	public int getHiddenSize() {
+		return hiddenSize;
+	}
+
+	/** Gets the index of a feature in the white perspective.
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param index The index of the piece's cell (see {@link BoardExplorer#getIndex()})
+	 * @return a feature index
+	 */
+	public static int getWhiteFeature(int pieceType, boolean isBlack, int index) {
+		return (isBlack ? OTHER_SIDE : 0) + (pieceType-PAWN)*64 + (index^56);
+	}
+
+	/** Gets the index of a feature in the black perspective.
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param index The index of the piece's cell (see {@link BoardExplorer#getIndex()})
+	 * @return a feature index
+	 */
+	public static int getBlackFeature(int pieceType, boolean isBlack, int index) {
+		return (isBlack ? 0 : OTHER_SIDE) + (pieceType-PAWN)*64 + index;
+	}
+
+	/** Resets an accumulator to the first layer biases.
+	 * @param accumulator The accumulator to reset
+	 */
+	public void clear(Accumulator accumulator) {
+		System.arraycopy(featureBiases, 0, accumulator.white, 0, hiddenSize);
+		System.arraycopy(featureBiases, 0, accumulator.black, 0, hiddenSize);
+	}
+
+	/** Activates the features of a piece in an accumulator.
+	 * @param accumulator The accumulator to update
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param index The index of the piece's cell (see {@link BoardExplorer#getIndex()})
+	 */
+	public void add(Accumulator accumulator, int pieceType, boolean isBlack, int index) {
+		add(accumulator.white, getWhiteFeature(pieceType, isBlack, index)*hiddenSize);
+		add(accumulator.black, getBlackFeature(pieceType, isBlack, index)*hiddenSize);
+	}
+
+	/** Deactivates the features of a piece in an accumulator.
+	 * @param accumulator The accumulator to update
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param index The index of the piece's cell (see {@link BoardExplorer#getIndex()})
+	 */
+	public void remove(Accumulator accumulator, int pieceType, boolean isBlack, int index) {
+		sub(accumulator.white, getWhiteFeature(pieceType, isBlack, index)*hiddenSize);
+		sub(accumulator.black, getBlackFeature(pieceType, isBlack, index)*hiddenSize);
+	}
+
+	/** Moves a piece in an accumulator.
+	 * <br>This is equivalent to, but faster than, removing the piece from its cell and adding it to its destination.
+	 * @param accumulator The accumulator to update
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param isBlack true if piece is black
+	 * @param from The index of the piece's cell (see {@link BoardExplorer#getIndex()})
+	 * @param to The index of the piece's destination
+	 */
+	public void move(Accumulator accumulator, int pieceType, boolean isBlack, int from, int to) {
+		move(accumulator.white, getWhiteFeature(pieceType, isBlack, from)*hiddenSize, getWhiteFeature(pieceType, isBlack, to)*hiddenSize);
+		move(accumulator.black, getBlackFeature(pieceType, isBlack, from)*hiddenSize, getBlackFeature(pieceType, isBlack, to)*hiddenSize);
+	}
+
+	private void add(short[] vector, int offset) {
+		for (int i = 0; i < hiddenSize; i++) {
+			vector[i] += featureWeights[offset+i];
+		}
+	}
+
+	private void sub(short[] vector, int offset) {
+		for (int i = 0; i < hiddenSize; i++) {
+			vector[i] -= featureWeights[offset+i];
+		}
+	}
+
+	private void move(short[] vector, int fromOffset, int toOffset) {
+		for (int i = 0; i < hiddenSize; i++) {
+			vector[i] += featureWeights[toOffset+i] - featureWeights[fromOffset+i];
+		}
+	}
+
+	/** Evaluates an accumulator.
+	 * @param accumulator The accumulator
+	 * @param whiteToMove true if white is the side to move
+	 * @return The evaluation in centipawns from the side to move point of view
+	 */
+	public int evaluate(Accumulator accumulator, boolean whiteToMove) {
+		final short[] us = whiteToMove ? accumulator.white : accumulator.black;
+		final short[] them = whiteToMove ? accumulator.black : accumulator.white;
+		final int sum = dot(us, 0) + dot(them, hiddenSize) + outputBias;
+		return (int)((long)sum*SCALE/(QA*QB));
+	}
+
+	private int dot(short[] vector, int offset) {
+		int sum = 0;
+		for (int i = 0; i < hiddenSize; i++) {
+			sum += Math.min(Math.max(vector[i], 0), QA) * outputWeights[offset+i];
+		}
+		return sum;
+	}
+}
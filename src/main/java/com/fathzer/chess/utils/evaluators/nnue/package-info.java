@@ -0,0 +1,3 @@
+/** This package contains an <a href="https://www.chessprogramming.org/NNUE">NNUE</a> evaluator.
+ */
+package com.fathzer.chess.utils.evaluators.nnue;
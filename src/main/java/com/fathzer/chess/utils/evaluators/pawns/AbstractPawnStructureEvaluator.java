@@ -0,0 +1,106 @@
+package com.fathzer.chess.utils.evaluators.pawns;
+
+import static com.fathzer.chess.utils.evaluators.pawns.PawnStructureComponent.KEY;
+
+import com.fathzer.chess.utils.evaluators.AbstractArrayStateChessEvaluator;
+import com.fathzer.chess.utils.evaluators.EvaluationCache;
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.evaluation.Evaluator;
+
+/** An incremental evaluator that evaluates the pawn structure of a position.
+ * <br>The pawn bitboards and the pawn key (see {@link PawnKeys}) are updated each time a move is prepared.
+ * The evaluations are stored in a pawn hash table indexed by the pawn key. As pawn structures rarely change along a search
+ * path, most of the evaluations are read from the table, which allows to use a richer evaluation.
+ * <br>The pawn hash table is shared by the evaluators returned by {@link #fork()}.
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ * @see PawnStructure
+ * @see PawnStructureComponent
+ */
+public abstract class AbstractPawnStructureEvaluator<M, B extends MoveGenerator<M>> extends AbstractArrayStateChessEvaluator<M, B> {
+	private final PawnStructureComponent component;
+
+	/** Constructor.
+	 * @param pawnTable The pawn hash table
+	 * @param structure The pawn structure evaluation function
+	 */
+	protected AbstractPawnStructureEvaluator(EvaluationCache pawnTable, PawnStructure structure) {
+		this(new PawnStructureComponent(pawnTable, structure));
+	}
+
+	/** Constructor.
+	 * @param pawnTable The pawn hash table
+	 * @param structure The pawn structure evaluation function
+	 * @param state The initial state (typically the state of the evaluator being forked, see {@link #fork()})
+	 */
+	protected AbstractPawnStructureEvaluator(EvaluationCache pawnTable, PawnStructure structure, long[] state) {
+		this(pawnTable, structure);
+		System.arraycopy(state, 0, longs, 0, component.getLongStateSize());
+	}
+
+	/** Constructor.
+	 * @param component The component that computes the evaluation
+	 */
+	protected AbstractPawnStructureEvaluator(PawnStructureComponent component) {
+		super(0, component.getLongStateSize());
+		this.component = component;
+	}
+
+	@Override
+	protected void add(int pieceType, boolean isBlack, int to) {
+		component.add(ints, intsToCommit, longs, longsToCommit, pieceType, isBlack, to);
+	}
+
+	@Override
+	protected void move(int pieceType, boolean isBlack, int from, int to) {
+		component.move(ints, intsToCommit, longs, longsToCommit, pieceType, isBlack, from, to);
+	}
+
+	@Override
+	protected void remove(int pieceType, boolean isBlack, int from) {
+		component.remove(ints, intsToCommit, longs, longsToCommit, pieceType, isBlack, from);
+	}
+
+	@Override
+	public int evaluateAsWhite(B board) {
+		return component.evaluateAsWhite(ints, getIntsIndex(), longs, getLongsIndex());
+	}
+
+	@Override
+	public Evaluator<M, B> fork() {
+		final int index = getLongsIndex();
+		final long[] state = new long[component.getLongStateSize()];
+		System.arraycopy(longs, index, state, 0, state.length);
+		final AbstractPawnStructureEvaluator<M, B> result = fork(state);
+		result.setLazy(isLazy());
+		return result;
+	}
+
+	/** Creates a new instance initialized with current state that will become the initial state of created instance.
+	 * <br>The created instance should use the same pawn hash table and structure evaluation function as this (see {@link #getPawnTable()} and {@link #getStructure()}).
+	 * @param state The initial state.
+	 * @return a new evaluator of the same class as this, from the same view point, and initialized with the state.
+	 */
+	protected abstract AbstractPawnStructureEvaluator<M, B> fork(long[] state);
+
+	/** Gets the pawn key of the current position.
+	 * @return a long
+	 */
+	public long getPawnKey() {
+		return longs[getLongsIndex()+KEY];
+	}
+
+	/** Gets the pawn hash table.
+	 * @return a cache that can be used to get the hash table statistics.
+	 */
+	public EvaluationCache getPawnTable() {
+		return component.getPawnTable();
+	}
+
+	/** Gets the pawn structure evaluation function.
+	 * @return a pawn structure
+	 */
+	public PawnStructure getStructure() {
+		return component.getStructure();
+	}
+}
@@ -0,0 +1,27 @@
+package com.fathzer.chess.utils.evaluators.pawns;
+
+import java.util.SplittableRandom;
+
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** The <a href="https://en.wikipedia.org/wiki/Zobrist_hashing">Zobrist keys</a> of the pawns.
+ * <br>The pawn key of a position is the xor of the keys of all its pawns. It only depends on the pawns, so it can be used
+ * to index a pawn hash table.
+ */
+public final class PawnKeys {
+	private static final long SEED = 0x5DEECE66DL;
+	private static final long[] KEYS = new SplittableRandom(SEED).longs(128).toArray();
+
+	private PawnKeys() {
+		super();
+	}
+
+	/** Gets the key of a pawn.
+	 * @param isBlack true for a black pawn
+	 * @param index The index of the pawn's cell (see {@link BoardExplorer#getIndex()})
+	 * @return a long
+	 */
+	public static long get(boolean isBlack, int index) {
+		return KEYS[isBlack ? index+64 : index];
+	}
+}
@@ -0,0 +1,126 @@
+package com.fathzer.chess.utils.evaluators.pawns;
+
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A pawn structure evaluation function.
+ * <br>It penalizes <a href="https://www.chessprogramming.org/Doubled_Pawn">doubled</a>, <a href="https://www.chessprogramming.org/Isolated_Pawn">isolated</a>
+ * and <a href="https://www.chessprogramming.org/Backward_Pawn">backward</a> pawns and gives a bonus, depending on their rank,
+ * to <a href="https://www.chessprogramming.org/Passed_Pawn">passed pawns</a>.
+ * <br>Pawns are passed as bitboards where bit <i>i</i> is set if a pawn is on the cell with index <i>i</i> (see {@link BoardExplorer#getIndex()}).
+ * <br>This class is immutable and thread safe.
+ */
+public final class PawnStructure {
+	/** A pawn structure evaluation with default weights. */
+	public static final PawnStructure DEFAULT = new PawnStructure(-10, -15, -8, new int[] {0, 5, 10, 20, 35, 60, 100, 0});
+
+	private static final long FILE_A = 0x0101010101010101L;
+	private static final long FILE_H = FILE_A << 7;
+	private static final long[] FILES = new long[8];
+	private static final long[] ADJACENT_FILES = new long[8];
+	private static final long[] WHITE_PASSED = new long[64];
+	private static final long[] BLACK_PASSED = new long[64];
+	private static final long[] WHITE_SUPPORT = new long[64];
+	private static final long[] BLACK_SUPPORT = new long[64];
+
+	static {
+		for (int file = 0; file < 8; file++) {
+			FILES[file] = FILE_A << file;
+		}
+		for (int file = 0; file < 8; file++) {
+			ADJACENT_FILES[file] = (file>0 ? FILES[file-1] : 0L) | (file<7 ? FILES[file+1] : 0L);
+		}
+		for (int index = 0; index < 64; index++) {
+			final int file = index & 7;
+			final int row = index >> 3;
+			final long adjacent = ADJACENT_FILES[file];
+			final long span = adjacent | FILES[file];
+			for (int r = 0; r < 8; r++) {
+				final long rowMask = 0xFFL << (8*r);
+				if (r<row) {
+					WHITE_PASSED[index] |= span & rowMask;
+				} else if (r>row) {
+					BLACK_PASSED[index] |= span & rowMask;
+				}
+				if (r>=row) {
+					WHITE_SUPPORT[index] |= adjacent & rowMask;
+				}
+				if (r<=row) {
+					BLACK_SUPPORT[index] |= adjacent & rowMask;
+				}
+			}
+		}
+	}
+
+	private final int doubled;
+	private final int isolated;
+	private final int backward;
+	private final int[] passed;
+
+	/** Constructor.
+	 * @param doubled The score of each extra pawn on a file (typically a negative number)
+	 * @param isolated The score of an isolated pawn (typically a negative number)
+	 * @param backward The score of a backward pawn (typically a negative number)
+	 * @param passed The score of a passed pawn, indexed by its rank relative to its owner (0 is the first rank, 7 the last one)
+	 * @throws IllegalArgumentException if passed does not have 8 elements
+	 */
+	public PawnStructure(int doubled, int isolated, int backward, int[] passed) {
+		if (passed.length!=8) {
+			throw new IllegalArgumentException();
+		}
+		this.doubled = doubled;
+		this.isolated = isolated;
+		this.backward = backward;
+		this.passed = passed.clone();
+	}
+
+	/** Evaluates a pawn structure.
+	 * @param whitePawns The white pawns bitboard
+	 * @param blackPawns The black pawns bitboard
+	 * @return The evaluation from the white point of view
+	 */
+	public int evaluate(long whitePawns, long blackPawns) {
+		// Pawns move toward lower indexes for white, upper indexes for black
+		final long whiteAttacks = ((whitePawns & ~FILE_A) >>> 9) | ((whitePawns & ~FILE_H) >>> 7);
+		final long blackAttacks = ((blackPawns & ~FILE_A) << 7) | ((blackPawns & ~FILE_H) << 9);
+		int result = getFilesScore(whitePawns) - getFilesScore(blackPawns);
+		long pawns = whitePawns;
+		while (pawns!=0) {
+			final int index = Long.numberOfTrailingZeros(pawns);
+			pawns &= pawns-1;
+			if ((blackPawns & WHITE_PASSED[index])==0) {
+				result += passed[7-(index>>3)];
+			}
+			if ((whitePawns & ADJACENT_FILES[index & 7])!=0 && (whitePawns & WHITE_SUPPORT[index])==0 && (blackAttacks & (1L<<(index-8)))!=0) {
+				result += backward;
+			}
+		}
+		pawns = blackPawns;
+		while (pawns!=0) {
+			final int index = Long.numberOfTrailingZeros(pawns);
+			pawns &= pawns-1;
+			if ((whitePawns & BLACK_PASSED[index])==0) {
+				result -= passed[index>>3];
+			}
+			if ((blackPawns & ADJACENT_FILES[index & 7])!=0 && (blackPawns & BLACK_SUPPORT[index])==0 && (whiteAttacks & (1L<<(index+8)))!=0) {
+				result -= backward;
+			}
+		}
+		return result;
+	}
+
+	private int getFilesScore(long pawns) {
+		int result = 0;
+		for (int file = 0; file < 8; file++) {
+			final int count = Long.bitCount(pawns & FILES[file]);
+			if (count!=0) {
+				if (count>1) {
+					result += (count-1)*doubled;
+				}
+				if ((pawns & ADJACENT_FILES[file])==0) {
+					result += count*isolated;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,92 @@
+package com.fathzer.chess.utils.evaluators.pawns;
+
+import static com.fathzer.chess.utils.Pieces.PAWN;
+
+import com.fathzer.chess.utils.evaluators.AbstractComposedEvaluator;
+import com.fathzer.chess.utils.evaluators.EvaluationCache;
+import com.fathzer.chess.utils.evaluators.EvaluatorComponent;
+
+/** The pawn structure evaluation as an {@link EvaluatorComponent}.
+ * <br>It allows to combine the pawn structure with other components (for instance PeSTO) in an {@link AbstractComposedEvaluator}.
+ * <br>Its state is made of 3 long fields: the pawn key (see {@link PawnKeys}) and the bitboards of the white and black pawns.
+ * The evaluations are stored in a pawn hash table indexed by the pawn key.
+ * <br>The pawn hash table is thread safe, so a component can be shared by many evaluators, even in different threads.
+ * @see AbstractPawnStructureEvaluator
+ */
+public final class PawnStructureComponent implements EvaluatorComponent {
+	static final int KEY = 0;
+	static final int WHITE_PAWNS = 1;
+	static final int BLACK_PAWNS = 2;
+	private static final int STATE_SIZE = 3;
+
+	private final EvaluationCache pawnTable;
+	private final PawnStructure structure;
+
+	/** Constructor.
+	 * @param pawnTable The pawn hash table
+	 * @param structure The pawn structure evaluation function
+	 */
+	public PawnStructureComponent(EvaluationCache pawnTable, PawnStructure structure) {
+		this.pawnTable = pawnTable;
+		this.structure = structure;
+	}
+
+	@Override
+	public int getStateSize() {
+		return 0;
+	}
+
+	@Override
+	public int getLongStateSize() {
+		return STATE_SIZE;
+	}
+
+	@Override
+	public void add(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int to) {
+		if (pieceType==PAWN) {
+			longState[longIndex+KEY] ^= PawnKeys.get(isBlack, to);
+			longState[longIndex+(isBlack ? BLACK_PAWNS : WHITE_PAWNS)] |= 1L<<to;
+		}
+	}
+
+	@Override
+	public void move(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from, int to) {
+		if (pieceType==PAWN) {
+			longState[longIndex+KEY] ^= PawnKeys.get(isBlack, from) ^ PawnKeys.get(isBlack, to);
+			longState[longIndex+(isBlack ? BLACK_PAWNS : WHITE_PAWNS)] ^= (1L<<from) | (1L<<to);
+		}
+	}
+
+	@Override
+	public void remove(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from) {
+		if (pieceType==PAWN) {
+			longState[longIndex+KEY] ^= PawnKeys.get(isBlack, from);
+			longState[longIndex+(isBlack ? BLACK_PAWNS : WHITE_PAWNS)] &= ~(1L<<from);
+		}
+	}
+
+	@Override
+	public int evaluateAsWhite(int[] state, int index, long[] longState, int longIndex) {
+		final long key = longState[longIndex+KEY];
+		int result = pawnTable.get(key);
+		if (result==EvaluationCache.NOT_FOUND) {
+			result = structure.evaluate(longState[longIndex+WHITE_PAWNS], longState[longIndex+BLACK_PAWNS]);
+			pawnTable.put(key, result);
+		}
+		return result;
+	}
+
+	/** Gets the pawn hash table.
+	 * @return a cache that can be used to get the hash table statistics.
+	 */
+	public EvaluationCache getPawnTable() {
+		return pawnTable;
+	}
+
+	/** Gets the pawn structure evaluation function.
+	 * @return a pawn structure
+	 */
+	public PawnStructure getStructure() {
+		return structure;
+	}
+}
@@ -0,0 +1,4 @@
+/** This package contains a <a href="https://www.chessprogramming.org/Pawn_Structure">pawn structure</a> evaluator backed by a <a href="https://www.chessprogramming.org/Pawn_Hash_Table">pawn hash table</a>.
+ * <br>The same evaluation is also available as a component that can be combined with others (see {@link com.fathzer.chess.utils.evaluators.AbstractComposedEvaluator}).
+ */
+package com.fathzer.chess.utils.evaluators.pawns;
@@ -1,67 +1,121 @@
 package com.fathzer.chess.utils.evaluators.pesto;
 
-import com.fathzer.chess.utils.evaluators.AbstractChessEvaluator;
-import com.fathzer.chess.utils.evaluators.AbstractPieceSquareTable;
+import static com.fathzer.chess.utils.evaluators.pesto.PestoComponent.*;
+
+import com.fathzer.chess.utils.evaluators.AbstractArrayStateChessEvaluator;
+import com.fathzer.chess.utils.evaluators.TaperedPieceSquareTable;
 import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.evaluation.Evaluator;
 
 /** An incremental implementation of the PESTO evaluator described at <a href="https://www.chessprogramming.org/PeSTO%27s_Evaluation_Function">https://www.chessprogramming.org/PeSTO%27s_Evaluation_Function</a>
  * <br>It only works with 8*8 games.
+ * <br>The middle game and end game scores are stored in a single packed int (see {@link TaperedPieceSquareTable}).
+ * @see PestoComponent
+ * @see AbstractMaterialPestoEvaluator
  */
-public abstract class AbstractIncrementalPestoEvaluator<M, B extends MoveGenerator<M>> extends AbstractChessEvaluator<M, B, PestoState> {
-	private static final AbstractPieceSquareTable MIDDLE_GAME_TABLE = new MiddleGamePieceSquareTable();
-	private static final AbstractPieceSquareTable END_GAME_TABLE = new EndGamePieceSquareTable();
-	private static final int[] GAME_PHASE_WEIGHT = new int[]{0,0,1,1,2,4,0};
+public abstract class AbstractIncrementalPestoEvaluator<M, B extends MoveGenerator<M>> extends AbstractArrayStateChessEvaluator<M, B> {
+	private static final PestoComponent DEFAULT_COMPONENT = new PestoComponent();
+
+	private final PestoComponent pesto;
 	
 	/** Constructor
 	 */
 	protected AbstractIncrementalPestoEvaluator() {
-		super(PestoState::new);
+		this(DEFAULT_COMPONENT);
 	}
 	
 	/** Constructor.
 	 * @param state The initial state of the evaluator.
 	 */
 	protected AbstractIncrementalPestoEvaluator(PestoState state) {
-		super(PestoState::new, state);
+		this(DEFAULT_COMPONENT, state);
 	}
-	
-    @Override
-	protected void clear(PestoState state) {
-		state.clear();
+
+	/** Constructor.
+	 * <br>This constructor allows to use other tables than the PeSTO ones (see {@link PestoComponent#PestoComponent(TaperedPieceSquareTable)}).
+	 * @param pesto The component that computes the evaluation
+	 */
+	protected AbstractIncrementalPestoEvaluator(PestoComponent pesto) {
+		this(pesto, 0);
 	}
 
-	@Override
-	protected void copy(PestoState from, PestoState to) {
-		from.copyTo(to);
+	/** Constructor.
+	 * @param pesto The component that computes the evaluation
+	 * @param state The initial state of the evaluator.
+	 */
+	protected AbstractIncrementalPestoEvaluator(PestoComponent pesto, PestoState state) {
+		this(pesto, 0, state);
+	}
+
+	/** Constructor for the subclasses that store additional long fields in their state.
+	 * @param pesto The component that computes the evaluation
+	 * @param longsCount The number of long fields in the state
+	 */
+	AbstractIncrementalPestoEvaluator(PestoComponent pesto, int longsCount) {
+		super(pesto.getStateSize(), longsCount);
+		this.pesto = pesto;
+	}
+
+	/** Constructor for the subclasses that store additional long fields in their state.
+	 * @param pesto The component that computes the evaluation
+	 * @param longsCount The number of long fields in the state
+	 * @param state The initial state of the evaluator.
+	 */
+	AbstractIncrementalPestoEvaluator(PestoComponent pesto, int longsCount, PestoState state) {
+		this(pesto, longsCount);
+		ints[POINTS] = state.points;
+		ints[PHASE_POINTS] = state.phasePoints;
+	}
+
+	/** Gets the component that computes the evaluation.
+	 * <br>Forked evaluators should use the same component.
+	 * @return a component
+	 */
+	protected PestoComponent getComponent() {
+		return pesto;
 	}
 	
 	@Override
 	protected void add(int pieceType, boolean isBlack, int to) {
-		toCommit.mgPoints += MIDDLE_GAME_TABLE.get(pieceType, isBlack, to);
-		toCommit.egPoints += END_GAME_TABLE.get(pieceType, isBlack, to);
-		toCommit.phasePoints += GAME_PHASE_WEIGHT[pieceType];
+		pesto.add(ints, intsToCommit, longs, longsToCommit, pieceType, isBlack, to);
 	}
 
 	@Override
 	protected void move(int pieceType, boolean isBlack, int from, int to) {
-		toCommit.mgPoints -= MIDDLE_GAME_TABLE.get(pieceType, isBlack, from);
-		toCommit.mgPoints += MIDDLE_GAME_TABLE.get(pieceType, isBlack, to);
-		toCommit.egPoints -= END_GAME_TABLE.get(pieceType, isBlack, from);
-		toCommit.egPoints += END_GAME_TABLE.get(pieceType, isBlack, to);
+		pesto.move(ints, intsToCommit, longs, longsToCommit, pieceType, isBlack, from, to);
 	}
 
 	@Override
 	protected void remove(int pieceType, boolean isBlack, int from) {
-		toCommit.mgPoints -= MIDDLE_GAME_TABLE.get(pieceType, isBlack, from);
-		toCommit.egPoints -= END_GAME_TABLE.get(pieceType, isBlack, from);
-		toCommit.phasePoints -= GAME_PHASE_WEIGHT[pieceType];
+		pesto.remove(ints, intsToCommit, longs, longsToCommit, pieceType, isBlack, from);
 	}
 
 	@Override
 	public int evaluateAsWhite(B board) {
-		final PestoState state = getState();
-		int mgPhase = Math.min(state.phasePoints, 24);
-        int egPhase = 24 - mgPhase;
-        return (state.mgPoints*mgPhase + state.egPoints*egPhase) / 24;
+		return pesto.evaluateAsWhite(ints, getIntsIndex(), longs, getLongsIndex());
     }
+	
+	@Override
+	public Evaluator<M, B> fork() {
+		final AbstractIncrementalPestoEvaluator<M, B> result = fork(getState());
+		result.setLazy(isLazy());
+		return result;
+	}
+	
+	/** Creates a new instance initialized with current state that will become the initial state of created instance.
+	 * @param state The initial state.
+	 * @return a new evaluator of the same class as this, from the same view point, and initialized with the state.
+	 */
+	protected abstract AbstractIncrementalPestoEvaluator<M, B> fork(PestoState state);
+	
+	/** Gets a copy of the current committed state.
+	 * @return a new state instance
+	 */
+	protected PestoState getState() {
+		final int index = getIntsIndex();
+		final PestoState state = new PestoState();
+		state.points = ints[index+POINTS];
+		state.phasePoints = ints[index+PHASE_POINTS];
+		return state;
+	}
 }
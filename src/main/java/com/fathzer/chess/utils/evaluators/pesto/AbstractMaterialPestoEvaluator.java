@@ -0,0 +1,86 @@
+package com.fathzer.chess.utils.evaluators.pesto;
+
+import com.fathzer.chess.utils.evaluators.material.MaterialKey;
+import com.fathzer.chess.utils.evaluators.material.MaterialTable;
+import com.fathzer.games.MoveGenerator;
+
+/** An incremental PeSTO evaluator that also maintains the {@link MaterialKey} of the position.
+ * <br>If a {@link MaterialTable} is provided, its imbalance bonus and scale factor are applied to the PeSTO evaluation
+ * (see {@link MaterialTable#adjust(long, int)}).
+ * <br>The material key is stored in a long field of the state, so, unlike {@link AbstractIncrementalPestoEvaluator}, this evaluator
+ * copies a long each time a move is prepared.
+ * @param <M> The class that represents a move.
+ * @param <B> The class that represents the move generator
+ */
+public abstract class AbstractMaterialPestoEvaluator<M, B extends MoveGenerator<M>> extends AbstractIncrementalPestoEvaluator<M, B> {
+	private static final int MATERIAL_KEY = 0;
+	private static final int LONGS_COUNT = 1;
+
+	private final MaterialTable materialTable;
+
+	/** Constructor.
+	 * @param pesto The component that computes the evaluation
+	 * @param materialTable The material table used to adjust the evaluation, null to use the PeSTO evaluation unchanged.
+	 */
+	protected AbstractMaterialPestoEvaluator(PestoComponent pesto, MaterialTable materialTable) {
+		super(pesto, LONGS_COUNT);
+		this.materialTable = materialTable;
+	}
+
+	/** Constructor.
+	 * @param pesto The component that computes the evaluation
+	 * @param materialTable The material table used to adjust the evaluation, null to use the PeSTO evaluation unchanged.
+	 * @param state The initial state of the evaluator.
+	 */
+	protected AbstractMaterialPestoEvaluator(PestoComponent pesto, MaterialTable materialTable, PestoState state) {
+		super(pesto, LONGS_COUNT, state);
+		this.materialTable = materialTable;
+		longs[MATERIAL_KEY] = state.materialKey;
+	}
+
+	/** Gets the material table used to adjust the evaluation.
+	 * <br>Forked evaluators should use the same table.
+	 * @return a material table or null if the evaluation is not adjusted.
+	 */
+	protected MaterialTable getMaterialTable() {
+		return materialTable;
+	}
+
+	/** Gets the material key of the current position.
+	 * @return a material key
+	 */
+	public long getMaterialKey() {
+		return longs[getLongsIndex()+MATERIAL_KEY];
+	}
+
+	@Override
+	protected void add(int pieceType, boolean isBlack, int to) {
+		super.add(pieceType, isBlack, to);
+		longs[longsToCommit+MATERIAL_KEY] += MaterialKey.get(pieceType, isBlack, to);
+	}
+
+	@Override
+	protected void remove(int pieceType, boolean isBlack, int from) {
+		super.remove(pieceType, isBlack, from);
+		longs[longsToCommit+MATERIAL_KEY] -= MaterialKey.get(pieceType, isBlack, from);
+	}
+
+	@Override
+	public int evaluateAsWhite(B board) {
+		final int evaluation = super.evaluateAsWhite(board);
+		if (materialTable==null) {
+			return evaluation;
+		}
+		return MaterialTable.adjust(materialTable.get(longs[getLongsIndex()+MATERIAL_KEY]), evaluation);
+	}
+
+	@Override
+	protected abstract AbstractMaterialPestoEvaluator<M, B> fork(PestoState state);
+
+	@Override
+	protected PestoState getState() {
+		final PestoState state = super.getState();
+		state.materialKey = longs[getLongsIndex()+MATERIAL_KEY];
+		return state;
+	}
+}
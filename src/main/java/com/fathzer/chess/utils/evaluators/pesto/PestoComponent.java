@@ -0,0 +1,69 @@
+package com.fathzer.chess.utils.evaluators.pesto;
+
+import static com.fathzer.chess.utils.evaluators.TaperedPieceSquareTable.*;
+
+import com.fathzer.chess.utils.evaluators.AbstractComposedEvaluator;
+import com.fathzer.chess.utils.evaluators.EvaluatorComponent;
+import com.fathzer.chess.utils.evaluators.TaperedPieceSquareTable;
+import com.fathzer.chess.utils.evaluators.TaperedPieceSquareTableSet;
+
+/** The PeSTO evaluation function as an {@link EvaluatorComponent}.
+ * <br>It allows to combine PeSTO with other components in an {@link AbstractComposedEvaluator}.
+ * <br>The middle game and end game scores are stored in a single packed int (see {@link TaperedPieceSquareTable}).
+ * @see AbstractIncrementalPestoEvaluator
+ */
+public final class PestoComponent implements EvaluatorComponent {
+	private static final TaperedPieceSquareTable DEFAULT_TABLE = new TaperedPieceSquareTable(new MiddleGamePieceSquareTable(), new EndGamePieceSquareTable());
+	private static final int[] GAME_PHASE_WEIGHT = new int[]{0,0,1,1,2,4,0};
+
+	static final int POINTS = 0;
+	static final int PHASE_POINTS = 1;
+	private static final int STATE_SIZE = 2;
+
+	private final TaperedPieceSquareTable table;
+	
+	/** Constructor.
+	 * <br>Builds a component that uses the PeSTO piece square tables.
+	 */
+	public PestoComponent() {
+		this(DEFAULT_TABLE);
+	}
+
+	/** Constructor.
+	 * @param table The piece square tables to use instead of the PeSTO ones (for instance tables loaded with {@link TaperedPieceSquareTableSet}).
+	 */
+	public PestoComponent(TaperedPieceSquareTable table) {
+		this.table = table;
+	}
+
+	@Override
+	public int getStateSize() {
+		return STATE_SIZE;
+	}
+
+	@Override
+	public void add(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int to) {
+		state[index+POINTS] += table.get(isBlack ? -pieceType : pieceType, to);
+		state[index+PHASE_POINTS] += GAME_PHASE_WEIGHT[pieceType];
+	}
+
+	@Override
+	public void move(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from, int to) {
+		final int piece = isBlack ? -pieceType : pieceType;
+		state[index+POINTS] += table.get(piece, to) - table.get(piece, from);
+	}
+
+	@Override
+	public void remove(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from) {
+		state[index+POINTS] -= table.get(isBlack ? -pieceType : pieceType, from);
+		state[index+PHASE_POINTS] -= GAME_PHASE_WEIGHT[pieceType];
+	}
+
+	@Override
+	public int evaluateAsWhite(int[] state, int index, long[] longState, int longIndex) {
+		final int points = state[index+POINTS];
+		int mgPhase = Math.min(state[index+PHASE_POINTS], 24);
+        int egPhase = 24 - mgPhase;
+        return (getMiddleGame(points)*mgPhase + getEndGame(points)*egPhase) / 24;
+	}
+}
@@ -1,26 +1,16 @@
 package com.fathzer.chess.utils.evaluators.pesto;
 
-/** The state of a simplified evaluator.
+/** A snapshot of the state of a PeSTO evaluator.
+ * <br>The evaluator itself stores its states in arrays, this class is used to transfer a state from an evaluator to its forks.
+ * <br>The middle game and end game points are packed in a single int (see {@link com.fathzer.chess.utils.evaluators.TaperedPieceSquareTable}).
  */
 public class PestoState {
-	int mgPoints;
-	int egPoints;
+	int points;
 	int phasePoints;
-	
+	/** The material key, only used by {@link AbstractMaterialPestoEvaluator}. */
+	long materialKey;
 	
 	PestoState() {
 		super();
 	}
-	
-	void copyTo(PestoState other) {
-		other.mgPoints = mgPoints;
-		other.egPoints = egPoints;
-		other.phasePoints = phasePoints;
-	}
-	
-	void clear() {
-		mgPoints = 0;
-		egPoints = 0;
-		phasePoints = 0;
-	}
-}
\ No newline at end of file
+}
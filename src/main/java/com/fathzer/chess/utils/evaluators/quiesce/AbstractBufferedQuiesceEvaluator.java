@@ -0,0 +1,64 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import java.util.Arrays;
+
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.SearchContext;
+import com.fathzer.games.ai.SearchStatistics;
+
+/** A quiescence search evaluator that does not allocate memory once it is warmed up.
+ * <br>Unlike {@link AbstractBasicQuiesceEvaluator}, at each node, the subclass fills a {@link MoveBuffer} owned by this instance
+ * (one per quiesce depth) with scored moves (see {@link #fillMoves(SearchContext, int, MoveBuffer)}). Then, moves are searched in
+ * decreasing score order, the next best move being selected only when the previous one did not produce a beta cutoff.
+ * The table's best move is {@link MoveBuffer#prioritize(Object) prioritized}.
+ * <br>Warning: As the buffers are owned by the instance, this class is not thread safe, use one instance per search thread.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ * @see #evaluate(SearchContext, int, int, int)
+ */
+public abstract class AbstractBufferedQuiesceEvaluator<M, B extends MoveGenerator<M>> extends AbstractQuiesceEvaluator<M,B> {
+	private static final int DEFAULT_DEPTH_CAPACITY = 16;
+	private static final int DEFAULT_MOVES_CAPACITY = 64;
+
+	private MoveBuffer<M>[] buffers;
+
+	/** Constructor.
+	 */
+	@SuppressWarnings("unchecked")
+	protected AbstractBufferedQuiesceEvaluator() {
+		super();
+		this.buffers = (MoveBuffer<M>[]) new MoveBuffer<?>[DEFAULT_DEPTH_CAPACITY];
+	}
+
+	@Override
+	MoveSource<M> getMoveSource(SearchContext<M, B> context, SearchStatistics statistics, int quiesceDepth, boolean check, M tableMove) {
+		final MoveBuffer<M> moves = getBuffer(quiesceDepth);
+		moves.clear();
+		fillMoves(context, quiesceDepth, moves);
+		statistics.movesGenerated(moves.size());
+		if (tableMove!=null) {
+			moves.prioritize(tableMove);
+		}
+		return moves;
+	}
+
+	private MoveBuffer<M> getBuffer(int quiesceDepth) {
+		if (quiesceDepth>=buffers.length) {
+			buffers = Arrays.copyOf(buffers, Math.max(2*buffers.length, quiesceDepth+1));
+		}
+		MoveBuffer<M> result = buffers[quiesceDepth];
+		if (result==null) {
+			result = new MoveBuffer<>(DEFAULT_MOVES_CAPACITY);
+			buffers[quiesceDepth] = result;
+		}
+		return result;
+	}
+
+	/** Fills the buffer with the quiesce moves.
+	 * @param context The search context (can be used to get the board)
+	 * @param quiesceDepth The quiesce depth. 0 for the first level
+	 * @param moves An empty buffer where to add the moves to analyze deeper (usually, moves to escape a check, captures and check moves)
+	 * with their score (for instance, its <a href="https://www.chessprogramming.org/MVV-LVA">MVV-LVA</a> value). Leave it empty to stop deepening.
+	 */
+	protected abstract void fillMoves(SearchContext<M, B> context, int quiesceDepth, MoveBuffer<M> moves);
+}
@@ -0,0 +1,405 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fathzer.chess.utils.evaluators.quiesce.QuiesceTable.Bound;
+import com.fathzer.games.HashProvider;
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.fathzer.games.ai.SearchContext;
+import com.fathzer.games.ai.SearchStatistics;
+import com.fathzer.games.ai.evaluation.QuiesceEvaluator;
+
+/** The common part of the quiescence search evaluators of this package.
+ * <br>It implements the search algorithm (see {@link #evaluate(SearchContext, int, int, int)}), its subclasses only differ by the way they
+ * provide the moves of each node.
+ * <br>It manages the following opt-in cuts, that are only applied when the side to move is not in check:<ul>
+ * <li><a href="https://www.chessprogramming.org/Delta_Pruning">Delta pruning</a> (see {@link #setDeltaMargin(int)}).</li>
+ * <li>Losing captures pruning (see {@link #setPruneLosingCaptures(boolean)}).</li>
+ * <li>A maximum quiesce depth (see {@link #setMaxDepth(int)}).</li>
+ * </ul>
+ * The two first ones require an {@link ExchangeEstimator} (see {@link #setExchangeEstimator(ExchangeEstimator)}) and only apply to
+ * captures and promotions. Other moves (typically quiet checks) are never pruned.
+ * <br>The search results can also be stored in a {@link QuiesceTable} (see {@link #setTable(QuiesceTable)}). When the table contains a
+ * result for a position, it is used to cut the search and its best move is searched first.
+ * <br>Search events can be counted with {@link #setQuiesceStatistics(QuiesceStatistics)}.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ * @see AbstractBasicQuiesceEvaluator
+ * @see AbstractBufferedQuiesceEvaluator
+ * @see AbstractStagedQuiesceEvaluator
+ */
+public abstract class AbstractQuiesceEvaluator<M, B extends MoveGenerator<M>> implements QuiesceEvaluator<M,B> {
+	/** The value returned by {@link #probe(long, int, int)} when the table entry does not allow to cut the search. */
+	static final int NO_CUTOFF = Integer.MIN_VALUE;
+	// The number of half moves used to detect win scores, that can't be stored in the table because they depend on the depth
+	private static final int MAX_WIN_DEPTH = 1024;
+
+	private ExchangeEstimator<M, B> exchangeEstimator;
+	private int deltaMargin = -1;
+	private boolean pruneLosingCaptures;
+	private int maxDepth = Integer.MAX_VALUE;
+	private QuiesceTable<M> table;
+	private QuiesceStatistics quiesceStatistics;
+	private final List<ExchangePosition<M, B>> exchangePositions = new ArrayList<>();
+
+	/** The moves of a node, in the order they should be searched.
+	 * @param <M> The type of moves
+	 */
+	interface MoveSource<M> {
+		/** Gets the next move to search.
+		 * @return a move, null if all the moves were returned
+		 */
+		M next();
+
+		/** Tests whether the losing captures were already removed from the moves returned by {@link #next()}.
+		 * <br>If true, the search only applies delta pruning to the moves, otherwise it also prunes the losing captures (if enabled).
+		 * @return true if losing captures pruning is managed by this source
+		 */
+		default boolean isLosingCapturesFiltered() {
+			return false;
+		}
+	}
+
+	/** Constructor.
+	 */
+	AbstractQuiesceEvaluator() {
+		super();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>The quiesce search is recursive algorithm.
+	 * <br>At each depth:<ul>
+	 * <li>If a {@link #setTable(QuiesceTable) table} contains a result that allows to cut the search, it returns this result.</li>
+	 * <li>If there's no check:<ul>
+	 *   <li>if current position evaluation is &gt;= beta it returns beta</li>
+	 *   <li>if current position evaluation is &gt; alpha alpha is replaced by the evaluation</li>
+	 * </ul>
+	 * <li>If the maximum quiesce depth is reached, it returns alpha (or the evaluation of current position, bounded by alpha and beta, if it is a check).</li>
+	 * <li>The moves are provided by the subclass: <ul>
+	 *   <li>If there's no move, it returns alpha (or a mate score if it is a check).</li>
+	 *   <li>Otherwise, for each move that is not pruned (starting with the table's best move if it is one of the moves), it plays the move and performs the same algorithm on this new position.
+	 * </ul>
+	 * </li>
+	 * </ul>
+	 */
+	@Override
+	public int evaluate(SearchContext<M, B> context, int depth, int alpha, int beta) {
+		return quiesce(context, context.getStatistics(), alpha, beta, depth, 0);
+	}
+
+	private int quiesce(SearchContext<M, B> context, SearchStatistics statistics, int alpha, int beta, int rootDepth, int quiesceDepth) {
+		if (quiesceStatistics!=null) {
+			quiesceStatistics.nodeSearched(quiesceDepth);
+		}
+		final long key = table==null ? 0 : getHashKey(context);
+		M tableMove = null;
+		if (table!=null) {
+			final int cutoff = probe(table.get(key), alpha, beta);
+			if (cutoff!=NO_CUTOFF) {
+				if (quiesceStatistics!=null) {
+					quiesceStatistics.tableCutoff();
+				}
+				return cutoff;
+			}
+			tableMove = table.getBestMove(key);
+		}
+		final int originalAlpha = alpha;
+		final boolean check = isCheck(context);
+		int standPat = 0;
+		if (!check) {
+			standPat = context.getEvaluator().evaluate(context.getGamePosition());
+			statistics.evaluationDone();
+			if (standPat>=beta) {
+				if (quiesceStatistics!=null) {
+					quiesceStatistics.standPatCutoff();
+				}
+				if (table!=null) {
+					store(context, key, originalAlpha, beta, beta, null);
+				}
+				return beta;
+			}
+			if (alpha < standPat) {
+				alpha = standPat;
+			}
+		}
+		if (quiesceDepth>=maxDepth) {
+			if (check) {
+				statistics.evaluationDone();
+				// Like all the other results, the evaluation is bounded by alpha and beta
+				return Math.max(alpha, Math.min(beta, context.getEvaluator().evaluate(context.getGamePosition())));
+			}
+			return alpha;
+		}
+		final MoveSource<M> moves = getMoveSource(context, statistics, quiesceDepth, check, tableMove);
+		final boolean losingCapturesFiltered = moves.isLosingCapturesFiltered();
+		final ExchangePosition<M, B> exchanges;
+		if (check || losingCapturesFiltered || exchangeEstimator==null) {
+			exchanges = null;
+		} else {
+			// The data of the position is computed once, if a move requires it
+			exchanges = getExchangePosition(quiesceDepth);
+			exchanges.init(exchangeEstimator, context.getGamePosition());
+		}
+		boolean mate = check;
+		boolean first = true;
+		M bestMove = null;
+		for (M move = moves.next(); move!=null; move = moves.next()) {
+			if (!check && (exchanges==null ? isDeltaPruned(context.getGamePosition(), move, standPat, alpha) : isPruned(exchanges, move, standPat, alpha))) {
+				continue;
+			}
+			if (makeMove(context, move)) {
+				mate = false;
+				statistics.movePlayed();
+				final int score = -quiesce(context, statistics, -beta, -alpha, rootDepth, quiesceDepth+1);
+				context.unmakeMove();
+				if (score >= beta) {
+					if (quiesceStatistics!=null) {
+						quiesceStatistics.betaCutoff(first);
+					}
+					if (table!=null) {
+						store(context, key, originalAlpha, beta, beta, move);
+					}
+					return beta;
+				}
+				if (score > alpha) {
+					alpha = score;
+					bestMove = move;
+				}
+				first = false;
+			}
+		}
+		if (mate) {
+			if (quiesceStatistics!=null) {
+				quiesceStatistics.mateFound();
+			}
+			return -context.getEvaluator().getWinScore(rootDepth+quiesceDepth);
+		}
+		if (table!=null) {
+			store(context, key, originalAlpha, beta, alpha, bestMove);
+		}
+		return alpha;
+	}
+
+	/** Gets the moves of a node.
+	 * <br>The returned source is used until the search of the node is finished. As the search is recursive, implementations that
+	 * reuse their sources should use a different one for each quiesce depth.
+	 * @param context The search context (can be used to get the board)
+	 * @param statistics The statistics where to record the number of generated moves
+	 * @param quiesceDepth The quiesce depth. 0 for the first level
+	 * @param check true if the side to move is in check
+	 * @param tableMove The best move found in the table, null if there's none. If it is one of the moves, it should be returned first.
+	 * @return The moves to search
+	 */
+	abstract MoveSource<M> getMoveSource(SearchContext<M, B> context, SearchStatistics statistics, int quiesceDepth, boolean check, M tableMove);
+
+	/** Sets the exchange estimator used to prune moves.
+	 * @param exchangeEstimator The estimator, null (the default) to disable delta and losing captures pruning.
+	 */
+	public void setExchangeEstimator(ExchangeEstimator<M, B> exchangeEstimator) {
+		this.exchangeEstimator = exchangeEstimator;
+	}
+
+	/** Gets the exchange estimator used to prune moves.
+	 * @return an estimator, null if no estimator is set
+	 */
+	public ExchangeEstimator<M, B> getExchangeEstimator() {
+		return exchangeEstimator;
+	}
+
+	/** Sets the delta pruning margin.
+	 * <br>When delta pruning is enabled, the moves whose {@link ExchangeEstimator#getMaxGain(Object, Object) maximum gain} plus the margin
+	 * can't raise the stand pat score above alpha are not searched.
+	 * <br>Moves that neither capture nor promote (typically quiet checks) are never delta pruned.
+	 * @param deltaMargin The margin, a negative value (the default) disables delta pruning.
+	 */
+	public void setDeltaMargin(int deltaMargin) {
+		this.deltaMargin = deltaMargin;
+	}
+
+	/** Gets the delta pruning margin.
+	 * @return an int, negative if delta pruning is disabled.
+	 */
+	public int getDeltaMargin() {
+		return deltaMargin;
+	}
+
+	/** Sets whether losing captures are pruned.
+	 * <br>When enabled, the captures and promotions that the exchange estimator considers as losing material are not searched.
+	 * @param pruneLosingCaptures true to prune losing captures, false (the default) to search them.
+	 */
+	public void setPruneLosingCaptures(boolean pruneLosingCaptures) {
+		this.pruneLosingCaptures = pruneLosingCaptures;
+	}
+
+	/** Tests whether losing captures are pruned.
+	 * @return true if losing captures are pruned
+	 */
+	public boolean isPruneLosingCaptures() {
+		return pruneLosingCaptures;
+	}
+
+	/** Sets the maximum quiesce depth.
+	 * <br>When this depth is reached, the search stops and the evaluation of the position is returned.
+	 * @param maxDepth The maximum depth (default is {@link Integer#MAX_VALUE})
+	 * @throws IllegalArgumentException if maxDepth is negative
+	 */
+	public void setMaxDepth(int maxDepth) {
+		if (maxDepth<0) {
+			throw new IllegalArgumentException();
+		}
+		this.maxDepth = maxDepth;
+	}
+
+	/** Gets the maximum quiesce depth.
+	 * @return a positive or null int
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/** Sets the table used to store the search results.
+	 * @param table The table, null (the default) to not store the search results.
+	 */
+	public void setTable(QuiesceTable<M> table) {
+		this.table = table;
+	}
+
+	/** Gets the table used to store the search results.
+	 * @return a table, null if no table is set
+	 */
+	public QuiesceTable<M> getTable() {
+		return table;
+	}
+
+	/** Sets the statistics where to record the search events.
+	 * @param quiesceStatistics The statistics, null (the default) to not record anything.
+	 */
+	public void setQuiesceStatistics(QuiesceStatistics quiesceStatistics) {
+		this.quiesceStatistics = quiesceStatistics;
+	}
+
+	/** Gets the statistics where the search events are recorded.
+	 * @return The statistics, null if no statistics are set
+	 */
+	public QuiesceStatistics getQuiesceStatistics() {
+		return quiesceStatistics;
+	}
+
+	/** Gets the hash key of the current position.
+	 * <br>This method is only called if a table is set. The default implementation requires the board to be a {@link HashProvider}.
+	 * @param context The current context
+	 * @return The hash key of the current position
+	 * @throws ClassCastException if the board does not implement {@link HashProvider}
+	 */
+	protected long getHashKey(SearchContext<M, B> context) {
+		return ((HashProvider)context.getGamePosition()).getHashKey();
+	}
+
+	/** Gets the score implied by a table entry.
+	 * @param entry A table entry
+	 * @param alpha The current alpha value
+	 * @param beta The current beta value
+	 * @return The score to return, {@link #NO_CUTOFF} if the entry does not allow to cut the search.
+	 */
+	static int probe(long entry, int alpha, int beta) {
+		if (entry==QuiesceTable.NOT_FOUND) {
+			return NO_CUTOFF;
+		}
+		final int score = QuiesceTable.getScore(entry);
+		switch (QuiesceTable.getBound(entry)) {
+			case EXACT:
+				return Math.max(alpha, Math.min(beta, score));
+			case LOWER:
+				return score>=beta ? beta : NO_CUTOFF;
+			default:
+				return score<=alpha ? alpha : NO_CUTOFF;
+		}
+	}
+
+	/** Stores a search result in the table.
+	 * @param context The current context
+	 * @param key The position's hash key
+	 * @param originalAlpha The alpha value when the search of the position started
+	 * @param beta The beta value
+	 * @param score The search result
+	 * @param bestMove The best move, null if unknown
+	 */
+	void store(SearchContext<M, B> context, long key, int originalAlpha, int beta, int score, M bestMove) {
+		if (Math.abs(score)>=context.getEvaluator().getWinScore(MAX_WIN_DEPTH)) {
+			return;
+		}
+		final Bound bound;
+		if (score>=beta) {
+			bound = Bound.LOWER;
+		} else {
+			bound = score>originalAlpha ? Bound.EXACT : Bound.UPPER;
+		}
+		table.store(key, bound, score, bestMove);
+	}
+
+	/** Gets the exchange position of a quiesce depth.
+	 * @param quiesceDepth The quiesce depth
+	 * @return an exchange position reused by all the nodes of this depth
+	 */
+	private ExchangePosition<M, B> getExchangePosition(int quiesceDepth) {
+		while (exchangePositions.size()<=quiesceDepth) {
+			exchangePositions.add(new ExchangePosition<>());
+		}
+		return exchangePositions.get(quiesceDepth);
+	}
+
+	/** Tests whether a move can be pruned.
+	 * <br>This method should only be called when the side to move is not in check and an exchange estimator is set.
+	 * <br>Moves that neither capture nor promote are never pruned.
+	 * @param position The position before the move is played, initialized with the exchange estimator
+	 * @param move The move
+	 * @param standPat The evaluation of the position
+	 * @param alpha The current alpha value
+	 * @return true if the move should not be searched
+	 */
+	boolean isPruned(ExchangePosition<M, B> position, M move, int standPat, int alpha) {
+		if (deltaMargin<0 && !pruneLosingCaptures) {
+			return false;
+		}
+		final int maxGain = exchangeEstimator.getMaxGain(position.getBoard(), move);
+		if (maxGain<=0) {
+			return false;
+		}
+		return (deltaMargin>=0 && standPat + maxGain + deltaMargin <= alpha) || (pruneLosingCaptures && !position.isAtLeast(move, 0));
+	}
+
+	/** Tests whether a move can be pruned by delta pruning.
+	 * <br>Moves that neither capture nor promote are never pruned.
+	 * @param board The board before the move is played
+	 * @param move The move
+	 * @param standPat The evaluation of the position
+	 * @param alpha The current alpha value
+	 * @return true if the move should not be searched
+	 */
+	boolean isDeltaPruned(B board, M move, int standPat, int alpha) {
+		if (deltaMargin<0 || exchangeEstimator==null) {
+			return false;
+		}
+		final int maxGain = exchangeEstimator.getMaxGain(board, move);
+		return maxGain>0 && standPat + maxGain + deltaMargin <= alpha;
+	}
+
+	/** Tests whether the current position is a check.
+	 * @param context The current context (you can find current position with {@link SearchContext#getGamePosition()})
+	 * @return true if the position is a check
+	 */
+	protected abstract boolean isCheck(SearchContext<M, B> context);
+
+	/** Make a move.
+	 * <br>The default implementation make the move with a {@link MoveConfidence#PSEUDO_LEGAL} confidence.
+	 * @param context The context on which to apply the move
+	 * @param move The move to play
+	 * @return true if the move was successfully played, false if the move is illegal
+	 */
+	protected boolean makeMove(SearchContext<M, B> context, M move) {
+		return context.makeMove(move, MoveConfidence.PSEUDO_LEGAL);
+	}
+}
@@ -0,0 +1,186 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.SearchContext;
+import com.fathzer.games.ai.SearchStatistics;
+
+/** A quiescence search evaluator that generates and orders its moves in stages, only when they are needed.
+ * <br>When the side to move is in check, the moves are the check evasions provided by {@link #fillEvasions(SearchContext, int, MoveBuffer)}.
+ * <br>Otherwise, the captures provided by {@link #fillCaptures(SearchContext, int, MoveBuffer)} are searched in the following stages:<ol>
+ * <li>Winning captures, in decreasing score order.</li>
+ * <li>Equal captures, in decreasing score order.</li>
+ * <li>Losing captures, in decreasing score order, unless they are {@link #setPruneLosingCaptures(boolean) pruned}.</li>
+ * </ol>
+ * The captures are classified lazily: the best remaining capture (according to its score) is estimated by the {@link #setExchangeEstimator(ExchangeEstimator) exchange estimator}
+ * only when it is selected. If it wins material, it is searched immediately, otherwise it is deferred to the equal or losing captures stage.
+ * So, when a capture produces a cutoff, the remaining ones are never estimated. The {@link ExchangeEstimator#setPosition(Object, long[]) position data}
+ * of the estimator is computed at most once per node.
+ * If there's no exchange estimator, all the captures are considered winning.
+ * <br>The moves of each stage are selected lazily (see {@link MoveBuffer#next()}), no move list is sorted. The table's best move, if it is
+ * generated, is searched first.
+ * <br>Warning: As the buffers are owned by the instance, this class is not thread safe, use one instance per search thread.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ * @see #evaluate(SearchContext, int, int, int)
+ */
+public abstract class AbstractStagedQuiesceEvaluator<M, B extends MoveGenerator<M>> extends AbstractQuiesceEvaluator<M,B> {
+	private static final int DEFAULT_MOVES_CAPACITY = 64;
+	private static final int START = 0;
+	private static final int WINNING_CAPTURES = 1;
+	private static final int EQUAL_CAPTURES = 2;
+	private static final int LOSING_CAPTURES = 3;
+	private static final int EVASIONS = 4;
+	private static final int DONE = 5;
+
+	private final List<MovePicker> pickers;
+
+	/** The moves of a node.
+	 */
+	private final class MovePicker implements MoveSource<M> {
+		private final MoveBuffer<M> moves = new MoveBuffer<>(DEFAULT_MOVES_CAPACITY);
+		private final MoveBuffer<M> equalCaptures = new MoveBuffer<>(DEFAULT_MOVES_CAPACITY);
+		private final MoveBuffer<M> losingCaptures = new MoveBuffer<>(DEFAULT_MOVES_CAPACITY);
+		private final ExchangePosition<M, B> exchanges = new ExchangePosition<>();
+		private SearchContext<M, B> context;
+		private SearchStatistics statistics;
+		private int quiesceDepth;
+		private boolean check;
+		private M tableMove;
+		private boolean estimated;
+		private int stage;
+
+		private void init(SearchContext<M, B> context, SearchStatistics statistics, int quiesceDepth, boolean check, M tableMove) {
+			this.context = context;
+			this.statistics = statistics;
+			this.quiesceDepth = quiesceDepth;
+			this.check = check;
+			this.tableMove = tableMove;
+			this.stage = START;
+			moves.clear();
+			equalCaptures.clear();
+			losingCaptures.clear();
+		}
+
+		@Override
+		public M next() {
+			while (true) {
+				switch (stage) {
+					case START:
+						if (check) {
+							fillEvasions(context, quiesceDepth, moves);
+							statistics.movesGenerated(moves.size());
+							if (tableMove!=null) {
+								moves.prioritize(tableMove);
+							}
+							stage = EVASIONS;
+						} else {
+							fillCaptures(context, quiesceDepth, moves);
+							statistics.movesGenerated(moves.size());
+							if (tableMove!=null) {
+								moves.prioritize(tableMove);
+							}
+							final ExchangeEstimator<M, B> estimator = getExchangeEstimator();
+							estimated = estimator!=null;
+							if (estimated) {
+								exchanges.init(estimator, context.getGamePosition());
+							}
+							stage = WINNING_CAPTURES;
+						}
+						break;
+					case WINNING_CAPTURES:
+						final M capture = nextWinningCapture();
+						if (capture!=null) {
+							return capture;
+						}
+						stage = EQUAL_CAPTURES;
+						break;
+					case EQUAL_CAPTURES, LOSING_CAPTURES, EVASIONS:
+						final M move = getStageMoves().next();
+						if (move!=null) {
+							return move;
+						}
+						stage = stage==EQUAL_CAPTURES ? LOSING_CAPTURES : DONE;
+						break;
+					default:
+						return null;
+				}
+			}
+		}
+
+		private MoveBuffer<M> getStageMoves() {
+			switch (stage) {
+				case EQUAL_CAPTURES:
+					return equalCaptures;
+				case LOSING_CAPTURES:
+					return losingCaptures;
+				default:
+					return moves;
+			}
+		}
+
+		@Override
+		public boolean isLosingCapturesFiltered() {
+			return true;
+		}
+
+		/** Gets the next capture that wins material.
+		 * <br>The best remaining captures are estimated one at a time, the ones that do not win material are deferred to the next stages.
+		 * @return a capture or null if there's no more winning capture
+		 */
+		private M nextWinningCapture() {
+			for (M move = moves.next(); move!=null; move = moves.next()) {
+				if (!estimated || move.equals(tableMove)) {
+					return move;
+				}
+				final int exchange = exchanges.estimate(move);
+				if (exchange>0) {
+					return move;
+				} else if (exchange==0) {
+					equalCaptures.add(move, moves.getLastScore());
+				} else if (!isPruneLosingCaptures()) {
+					losingCaptures.add(move, moves.getLastScore());
+				}
+			}
+			return null;
+		}
+	}
+
+	/** Constructor.
+	 */
+	protected AbstractStagedQuiesceEvaluator() {
+		super();
+		this.pickers = new ArrayList<>();
+	}
+
+	@Override
+	MoveSource<M> getMoveSource(SearchContext<M, B> context, SearchStatistics statistics, int quiesceDepth, boolean check, M tableMove) {
+		final MovePicker moves = getPicker(quiesceDepth);
+		moves.init(context, statistics, quiesceDepth, check, tableMove);
+		return moves;
+	}
+
+	private MovePicker getPicker(int quiesceDepth) {
+		while (pickers.size()<=quiesceDepth) {
+			pickers.add(new MovePicker());
+		}
+		return pickers.get(quiesceDepth);
+	}
+
+	/** Fills the buffer with the captures (and promotions) of a position that is not a check.
+	 * @param context The search context (can be used to get the board)
+	 * @param quiesceDepth The quiesce depth. 0 for the first level
+	 * @param moves An empty buffer where to add the captures with their score (for instance, their <a href="https://www.chessprogramming.org/MVV-LVA">MVV-LVA</a> value).
+	 * Leave it empty to stop deepening.
+	 */
+	protected abstract void fillCaptures(SearchContext<M, B> context, int quiesceDepth, MoveBuffer<M> moves);
+
+	/** Fills the buffer with the moves that escape a check.
+	 * @param context The search context (can be used to get the board)
+	 * @param quiesceDepth The quiesce depth. 0 for the first level
+	 * @param moves An empty buffer where to add the moves with their score. If it remains empty, the position is considered as a mate.
+	 */
+	protected abstract void fillEvasions(SearchContext<M, B> context, int quiesceDepth, MoveBuffer<M> moves);
+}
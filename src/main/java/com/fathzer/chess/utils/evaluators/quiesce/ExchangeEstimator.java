@@ -0,0 +1,48 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+/** An estimator of the material won by a move.
+ * <br>It is used by {@link AbstractQuiesceEvaluator} to prune the moves that can't improve the search result.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ * @see SEEExchangeEstimator
+ */
+public interface ExchangeEstimator<M, B> {
+	/** Gets the maximum material a move can immediately win.
+	 * <br>Typically, it is the value of the captured piece, plus the promotion gain.
+	 * @param board The board before the move is played
+	 * @param move The move
+	 * @return a positive or null int, 0 for a move that neither captures nor promotes.
+	 */
+	int getMaxGain(B board, M move);
+
+	/** Gets the number of longs needed to store the data of a position (see {@link #setPosition(Object, long[])}).
+	 * @return a positive or null int
+	 */
+	int getPositionSize();
+
+	/** Computes the data of a position that is shared by the estimations of all its moves (for instance its bitboards).
+	 * <br>The data is stored in an array owned by the caller. As the search is recursive, this allows to keep the data of each node
+	 * while the deeper nodes are searched, and to compute it only once per node.
+	 * @param board The board before the moves are played
+	 * @param position An array of at least {@link #getPositionSize()} elements where to store the data
+	 */
+	void setPosition(B board, long[] position);
+
+	/** Estimates the material won by a move at the end of the exchange it starts.
+	 * @param position The data of the position, computed by {@link #setPosition(Object, long[])}
+	 * @param board The board before the move is played
+	 * @param move The move
+	 * @return The material won by the moving side, negative if the move loses material.
+	 */
+	int estimate(long[] position, B board, M move);
+
+	/** Tests whether the exchange started by a move wins at least a threshold.
+	 * <br>This method can be faster than comparing {@link #estimate(long[], Object, Object)} with the threshold.
+	 * @param position The data of the position, computed by {@link #setPosition(Object, long[])}
+	 * @param board The board before the move is played
+	 * @param move The move
+	 * @param threshold The threshold
+	 * @return true if the moving side wins at least <i>threshold</i> at the end of the exchange
+	 */
+	boolean isAtLeast(long[] position, B board, M move, int threshold);
+}
@@ -0,0 +1,61 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+/** A position whose moves are estimated by an {@link ExchangeEstimator}.
+ * <br>It stores the data that is shared by the estimations of all the moves of the position (see {@link ExchangeEstimator#setPosition(Object, long[])}).
+ * This data is computed on demand, the first time a move is estimated, so a node that estimates no move does not pay for it.
+ * <br>As the quiesce search is recursive, each quiesce depth should have its own instance.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+final class ExchangePosition<M, B> {
+	private ExchangeEstimator<M, B> estimator;
+	private B board;
+	private long[] data = new long[0];
+	private boolean dataSet;
+
+	/** Sets the position.
+	 * @param estimator The estimator
+	 * @param board The board. It should be in the same position each time a move is estimated.
+	 */
+	void init(ExchangeEstimator<M, B> estimator, B board) {
+		this.estimator = estimator;
+		this.board = board;
+		this.dataSet = false;
+	}
+
+	/** Gets the board.
+	 * @return the board passed to {@link #init(ExchangeEstimator, Object)}
+	 */
+	B getBoard() {
+		return board;
+	}
+
+	/** Estimates the material won by a move at the end of the exchange it starts.
+	 * @param move The move
+	 * @return The result of {@link ExchangeEstimator#estimate(long[], Object, Object)}
+	 */
+	int estimate(M move) {
+		return estimator.estimate(getData(), board, move);
+	}
+
+	/** Tests whether the exchange started by a move wins at least a threshold.
+	 * @param move The move
+	 * @param threshold The threshold
+	 * @return The result of {@link ExchangeEstimator#isAtLeast(long[], Object, Object, int)}
+	 */
+	boolean isAtLeast(M move, int threshold) {
+		return estimator.isAtLeast(getData(), board, move, threshold);
+	}
+
+	private long[] getData() {
+		if (!dataSet) {
+			final int size = estimator.getPositionSize();
+			if (data.length<size) {
+				data = new long[size];
+			}
+			estimator.setPosition(board, data);
+			dataSet = true;
+		}
+		return data;
+	}
+}
@@ -0,0 +1,142 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import java.util.Arrays;
+
+import com.fathzer.chess.utils.MoveSorter;
+
+/** A reusable list of scored moves.
+ * <br>Moves are returned by {@link #next()} in decreasing score order. The best remaining move is selected lazily each time
+ * {@link #next()} is called, which is faster than sorting the whole list when only a few moves are searched (typically when a beta cutoff occurs).
+ * <br>Moves with the same score are returned in the order they were added.
+ * @param <M> The type of moves
+ */
+public final class MoveBuffer<M> implements AbstractQuiesceEvaluator.MoveSource<M> {
+	private Object[] moves;
+	private int[] scores;
+	private int size;
+	private int next;
+
+	/** Constructor.
+	 * @param capacity The initial capacity of the buffer (it grows if more moves are added).
+	 * @throws IllegalArgumentException if capacity is not strictly positive
+	 */
+	public MoveBuffer(int capacity) {
+		if (capacity<=0) {
+			throw new IllegalArgumentException();
+		}
+		this.moves = new Object[capacity];
+		this.scores = new int[capacity];
+	}
+
+	/** Removes all the moves of this buffer.
+	 */
+	public void clear() {
+		// Release the references to the moves, they may be large objects
+		Arrays.fill(moves, 0, size, null);
+		size = 0;
+		next = 0;
+	}
+
+	/** Adds a move with a score of 0.
+	 * @param move The move to add
+	 */
+	public void add(M move) {
+		add(move, 0);
+	}
+
+	/** Adds a move.
+	 * @param move The move to add
+	 * @param score The score of the move, the higher, the sooner the move will be returned by {@link #next()}
+	 */
+	public void add(M move, int score) {
+		if (size==moves.length) {
+			moves = Arrays.copyOf(moves, 2*size);
+			scores = Arrays.copyOf(scores, 2*size);
+		}
+		moves[size] = move;
+		scores[size] = score;
+		size++;
+	}
+
+	/** Makes a move the next one returned by {@link #next()}.
+	 * <br>Its score is set to {@link Integer#MAX_VALUE}.
+	 * @param move The move
+	 * @return true if the move is one of the moves not returned yet by {@link #next()}, false if not (the buffer is not changed).
+	 */
+	public boolean prioritize(M move) {
+		for (int i = next; i < size; i++) {
+			if (move.equals(moves[i])) {
+				scores[i] = Integer.MAX_VALUE;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Gets the number of moves in this buffer.
+	 * @return a positive or null int
+	 */
+	public int size() {
+		return size;
+	}
+
+	/** Gets a move of this buffer.
+	 * <br>Before the first call to {@link #next()}, the moves are in the order they were added. After, the order is undefined.
+	 * @param index The index of the move
+	 * @return a move
+	 * @throws IndexOutOfBoundsException if index is not in [0, {@link #size()}[
+	 */
+	@SuppressWarnings("unchecked")
+	public M get(int index) {
+		return (M) moves[checkIndex(index)];
+	}
+
+	/** Gets the score of a move of this buffer.
+	 * @param index The index of the move (see {@link #get(int)})
+	 * @return an int
+	 * @throws IndexOutOfBoundsException if index is not in [0, {@link #size()}[
+	 */
+	public int getScore(int index) {
+		return scores[checkIndex(index)];
+	}
+
+	private int checkIndex(int index) {
+		if (index<0 || index>=size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return index;
+	}
+
+	/** Tests whether there's remaining moves to return.
+	 * @return true if {@link #next()} will return a move
+	 */
+	public boolean hasNext() {
+		return next<size;
+	}
+
+	/** Gets the remaining move with the highest score.
+	 * @return a move, null if all the moves were already returned
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public M next() {
+		if (next>=size) {
+			return null;
+		}
+		MoveSorter.selectNext(moves, scores, next, size);
+		final Object result = moves[next];
+		next++;
+		return (M) result;
+	}
+
+	/** Gets the score of the last move returned by {@link #next()}.
+	 * @return an int
+	 * @throws IllegalStateException if {@link #next()} was never called since the last {@link #clear()}
+	 */
+	public int getLastScore() {
+		if (next==0) {
+			throw new IllegalStateException();
+		}
+		return scores[next-1];
+	}
+}
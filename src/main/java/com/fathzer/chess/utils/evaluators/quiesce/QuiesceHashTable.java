@@ -0,0 +1,75 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** A dedicated {@link QuiesceTable}.
+ * <br>The table is a fixed size, power of two sized, lock free table that can be shared by many threads. The entries are verified with the whole
+ * hash key, using the <a href="https://www.chessprogramming.org/Shared_Hash_Table#Lockless">xor trick</a>. New entries always replace the old ones.
+ * <br>The best moves are not verified, a concurrent store can make {@link #getBestMove(long)} return the move of another position.
+ * @param <M> The type of moves
+ */
+public class QuiesceHashTable<M> implements QuiesceTable<M> {
+	private static final int MAX_SIZE = 1<<28;
+
+	private final AtomicLongArray table;
+	private final AtomicReferenceArray<M> moves;
+	private final int mask;
+
+	/** Constructor.
+	 * @param minSize The minimum number of entries in the table. The actual size is the smallest power of two greater than or equal to this value.
+	 * @throws IllegalArgumentException if minSize is not strictly positive or greater than 2<sup>28</sup>
+	 */
+	public QuiesceHashTable(int minSize) {
+		if (minSize<=0 || minSize>MAX_SIZE) {
+			throw new IllegalArgumentException();
+		}
+		final int size = minSize==1 ? 1 : Integer.highestOneBit(minSize-1)<<1;
+		this.table = new AtomicLongArray(2*size);
+		this.moves = new AtomicReferenceArray<>(size);
+		this.mask = size-1;
+	}
+
+	/** Gets the number of entries of this table.
+	 * @return a power of two
+	 */
+	public int getSize() {
+		return mask+1;
+	}
+
+	private int getIndex(long key) {
+		return (int)key & mask;
+	}
+
+	@Override
+	public long get(long key) {
+		final int index = getIndex(key) << 1;
+		final long data = table.getOpaque(index+1);
+		return (table.getOpaque(index) ^ data)==key ? data : NOT_FOUND;
+	}
+
+	@Override
+	public M getBestMove(long key) {
+		return get(key)==NOT_FOUND ? null : moves.getOpaque(getIndex(key));
+	}
+
+	@Override
+	public void store(long key, Bound bound, int score, M bestMove) {
+		final int index = getIndex(key);
+		final long entry = QuiesceTable.pack(bound, score);
+		moves.setOpaque(index, bestMove);
+		table.setOpaque(2*index, key ^ entry);
+		table.setOpaque(2*index+1, entry);
+	}
+
+	/** Removes all the entries of this table.
+	 * <br>This method should not be called while the table is used by a search.
+	 */
+	public void clear() {
+		for (int i = 0; i < moves.length(); i++) {
+			moves.setOpaque(i, null);
+			table.setOpaque(2*i, 0L);
+			table.setOpaque(2*i+1, 0L);
+		}
+	}
+}
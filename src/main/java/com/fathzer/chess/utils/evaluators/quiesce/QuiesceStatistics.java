@@ -0,0 +1,181 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Statistics about quiescence searches.
+ * <br>It counts the nodes per quiesce depth, the stand pat cutoffs, the beta cutoffs (and how many of them were produced by the first searched move),
+ * the table cutoffs and the mates found.
+ * <br>The counters are {@link LongAdder}s, so an instance can be shared by the evaluators of many search threads with low contention.
+ * Use {@link #getSnapshot()} to read them.
+ * @see AbstractQuiesceEvaluator#setQuiesceStatistics(QuiesceStatistics)
+ */
+public final class QuiesceStatistics {
+	/** The number of quiesce depths that have their own node counter. Deeper nodes are counted with the nodes at depth MAX_DEPTH-1. */
+	public static final int MAX_DEPTH = 32;
+
+	/** An immutable view of the statistics at a given time.
+	 */
+	public static final class Snapshot {
+		private final long[] nodes;
+		private final long standPatCutoffs;
+		private final long betaCutoffs;
+		private final long firstMoveBetaCutoffs;
+		private final long tableCutoffs;
+		private final long mates;
+
+		private Snapshot(long[] nodes, long standPatCutoffs, long betaCutoffs, long firstMoveBetaCutoffs, long tableCutoffs, long mates) {
+			this.nodes = nodes;
+			this.standPatCutoffs = standPatCutoffs;
+			this.betaCutoffs = betaCutoffs;
+			this.firstMoveBetaCutoffs = firstMoveBetaCutoffs;
+			this.tableCutoffs = tableCutoffs;
+			this.mates = mates;
+		}
+
+		/** Gets the number of nodes searched at a quiesce depth.
+		 * @param quiesceDepth The quiesce depth (0 for the first level)
+		 * @return a positive or null long
+		 * @throws IllegalArgumentException if quiesceDepth is negative or greater than or equal to {@link QuiesceStatistics#MAX_DEPTH}
+		 */
+		public long getNodes(int quiesceDepth) {
+			if (quiesceDepth<0 || quiesceDepth>=MAX_DEPTH) {
+				throw new IllegalArgumentException();
+			}
+			return nodes[quiesceDepth];
+		}
+
+		/** Gets the total number of nodes searched.
+		 * @return a positive or null long
+		 */
+		public long getNodes() {
+			return Arrays.stream(nodes).sum();
+		}
+
+		/** Gets the number of nodes where the stand pat score produced a beta cutoff.
+		 * @return a positive or null long
+		 */
+		public long getStandPatCutoffs() {
+			return standPatCutoffs;
+		}
+
+		/** Gets the number of nodes where a move produced a beta cutoff.
+		 * @return a positive or null long
+		 */
+		public long getBetaCutoffs() {
+			return betaCutoffs;
+		}
+
+		/** Gets the number of nodes where the first searched move produced a beta cutoff.
+		 * @return a positive or null long
+		 */
+		public long getFirstMoveBetaCutoffs() {
+			return firstMoveBetaCutoffs;
+		}
+
+		/** Gets the number of nodes whose result was found in the quiesce table.
+		 * @return a positive or null long
+		 */
+		public long getTableCutoffs() {
+			return tableCutoffs;
+		}
+
+		/** Gets the number of mates found.
+		 * @return a positive or null long
+		 */
+		public long getMates() {
+			return mates;
+		}
+
+		/** Gets the rate of nodes that were cut by the stand pat score.
+		 * @return a double between 0 and 1, 0 if no node was searched
+		 */
+		public double getStandPatCutoffRate() {
+			final long count = getNodes();
+			return count==0 ? 0.0 : (double)standPatCutoffs/count;
+		}
+
+		/** Gets the rate of move beta cutoffs that were produced by the first searched move.
+		 * <br>This is a measure of the move ordering quality.
+		 * @return a double between 0 and 1, 0 if no beta cutoff occurred
+		 */
+		public double getFirstMoveBetaCutoffRate() {
+			return betaCutoffs==0 ? 0.0 : (double)firstMoveBetaCutoffs/betaCutoffs;
+		}
+
+		@Override
+		public String toString() {
+			int depth = MAX_DEPTH;
+			while (depth>0 && nodes[depth-1]==0) {
+				depth--;
+			}
+			return "nodes=" + Arrays.toString(Arrays.copyOf(nodes, depth)) + ", standPatCutoffs=" + standPatCutoffs + ", betaCutoffs=" + betaCutoffs +
+					", firstMoveBetaCutoffs=" + firstMoveBetaCutoffs + ", tableCutoffs=" + tableCutoffs + ", mates=" + mates;
+		}
+	}
+
+	private final LongAdder[] nodes;
+	private final LongAdder standPatCutoffs = new LongAdder();
+	private final LongAdder betaCutoffs = new LongAdder();
+	private final LongAdder firstMoveBetaCutoffs = new LongAdder();
+	private final LongAdder tableCutoffs = new LongAdder();
+	private final LongAdder mates = new LongAdder();
+
+	/** Constructor.
+	 */
+	public QuiesceStatistics() {
+		this.nodes = new LongAdder[MAX_DEPTH];
+		for (int i = 0; i < MAX_DEPTH; i++) {
+			nodes[i] = new LongAdder();
+		}
+	}
+
+	void nodeSearched(int quiesceDepth) {
+		nodes[Math.min(quiesceDepth, MAX_DEPTH-1)].increment();
+	}
+
+	void standPatCutoff() {
+		standPatCutoffs.increment();
+	}
+
+	void betaCutoff(boolean firstMove) {
+		betaCutoffs.increment();
+		if (firstMove) {
+			firstMoveBetaCutoffs.increment();
+		}
+	}
+
+	void tableCutoff() {
+		tableCutoffs.increment();
+	}
+
+	void mateFound() {
+		mates.increment();
+	}
+
+	/** Gets the current values of the statistics.
+	 * <br>If searches are running, the snapshot may not be consistent (for instance, a beta cutoff may be counted while its node is not).
+	 * @return a new snapshot
+	 */
+	public Snapshot getSnapshot() {
+		final long[] nodesCount = new long[MAX_DEPTH];
+		for (int i = 0; i < MAX_DEPTH; i++) {
+			nodesCount[i] = nodes[i].sum();
+		}
+		return new Snapshot(nodesCount, standPatCutoffs.sum(), betaCutoffs.sum(), firstMoveBetaCutoffs.sum(), tableCutoffs.sum(), mates.sum());
+	}
+
+	/** Resets all the statistics to zero.
+	 * <br>This method should not be called while searches are running.
+	 */
+	public void reset() {
+		for (LongAdder adder : nodes) {
+			adder.reset();
+		}
+		standPatCutoffs.reset();
+		betaCutoffs.reset();
+		firstMoveBetaCutoffs.reset();
+		tableCutoffs.reset();
+		mates.reset();
+	}
+}
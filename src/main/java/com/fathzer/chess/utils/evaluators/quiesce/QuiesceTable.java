@@ -0,0 +1,71 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+/** A table that stores quiescence search results, keyed by the position hash.
+ * <br>The result of a position is stored in an entry, a long that contains the result type and its score
+ * (see {@link #pack(Bound, int)}), and in the best move found during the search.
+ * <br>This interface can be implemented on top of a games-core transposition table (see {@link TranspositionQuiesceTable}),
+ * or with a dedicated small table like {@link QuiesceHashTable}.
+ * <br>Warning: The quiesce evaluators check that the best move is among the moves of the position before searching it first, so,
+ * an implementation can return a wrong move in case of key collisions. On the other hand, the returned entry should match the key.
+ * @param <M> The type of moves
+ * @see AbstractQuiesceEvaluator#setTable(QuiesceTable)
+ */
+public interface QuiesceTable<M> {
+	/** The value returned by {@link #get(long)} when the key is not in the table. */
+	long NOT_FOUND = 0L;
+
+	/** The type of a search result. */
+	enum Bound {
+		/** The score is the exact value of the position. */
+		EXACT,
+		/** The score is a lower bound of the value of the position (the search produced a beta cutoff). */
+		LOWER,
+		/** The score is an upper bound of the value of the position (no move raised alpha). */
+		UPPER
+	}
+
+	/** Gets the entry of a position.
+	 * @param key The position's hash key
+	 * @return An entry, {@link #NOT_FOUND} if the key is not in the table.
+	 */
+	long get(long key);
+
+	/** Gets the best move of a position.
+	 * @param key The position's hash key
+	 * @return The best move, null if it is unknown.
+	 */
+	M getBestMove(long key);
+
+	/** Stores the result of a position.
+	 * @param key The position's hash key
+	 * @param bound The type of result
+	 * @param score The score
+	 * @param bestMove The best move, null if there's no best move (for instance when the stand pat score produced a cutoff).
+	 */
+	void store(long key, Bound bound, int score, M bestMove);
+
+	/** Packs a search result in an entry.
+	 * @param bound The type of result
+	 * @param score The score
+	 * @return an entry that is never equal to {@link #NOT_FOUND}
+	 */
+	static long pack(Bound bound, int score) {
+		return Long.MIN_VALUE | ((long)bound.ordinal() << 32) | (score & 0xFFFFFFFFL);
+	}
+
+	/** Gets the type of result of an entry.
+	 * @param entry An entry returned by {@link #pack(Bound, int)}
+	 * @return a bound
+	 */
+	static Bound getBound(long entry) {
+		return Bound.values()[(int)(entry >>> 32) & 0x3];
+	}
+
+	/** Gets the score of an entry.
+	 * @param entry An entry returned by {@link #pack(Bound, int)}
+	 * @return an int
+	 */
+	static int getScore(long entry) {
+		return (int)entry;
+	}
+}
@@ -0,0 +1,77 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static com.fathzer.chess.utils.Pieces.PAWN;
+
+import com.fathzer.chess.utils.adapters.BoardExplorerBuilder;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.bitboards.StaticExchangeEvaluator;
+
+/** An {@link ExchangeEstimator} based on a {@link StaticExchangeEvaluator}.
+ * <br>The data of a position is made of its 12 bitboards. They are built using {@link BoardExplorerBuilder#fillBitboards(Object, long[])}, implementations
+ * of the builder that have a fast access to their bitboards should override this method.
+ * <br>This class is not thread safe, use one instance per search thread.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+public class SEEExchangeEstimator<M, B> implements ExchangeEstimator<M, B> {
+	private static final int BITBOARDS_COUNT = 12;
+
+	private final BoardExplorerBuilder<B> explorerBuilder;
+	private final MoveData<M, B> moveData;
+	private final StaticExchangeEvaluator see;
+	private final int[] gain;
+
+	/** Constructor.
+	 * <br>Builds an estimator that uses the default piece values of {@link StaticExchangeEvaluator}.
+	 * @param explorerBuilder The builder used to get the bitboards of the positions
+	 * @param moveData The move data used to decode the moves
+	 */
+	public SEEExchangeEstimator(BoardExplorerBuilder<B> explorerBuilder, MoveData<M, B> moveData) {
+		this(explorerBuilder, moveData, new StaticExchangeEvaluator());
+	}
+
+	/** Constructor.
+	 * @param explorerBuilder The builder used to get the bitboards of the positions
+	 * @param moveData The move data used to decode the moves
+	 * @param see The static exchange evaluator
+	 */
+	public SEEExchangeEstimator(BoardExplorerBuilder<B> explorerBuilder, MoveData<M, B> moveData, StaticExchangeEvaluator see) {
+		this.explorerBuilder = explorerBuilder;
+		this.moveData = moveData;
+		this.see = see;
+		this.gain = new int[StaticExchangeEvaluator.MAX_EXCHANGES];
+	}
+
+	@Override
+	public int getMaxGain(B board, M move) {
+		if (!moveData.update(move, board)) {
+			return 0;
+		}
+		final int promotion = moveData.getPromotionType();
+		final int gain = see.getValue(moveData.getCapturedType());
+		return promotion==0 ? gain : gain + see.getValue(promotion) - see.getValue(PAWN);
+	}
+
+	@Override
+	public int getPositionSize() {
+		return BITBOARDS_COUNT;
+	}
+
+	@Override
+	public void setPosition(B board, long[] position) {
+		explorerBuilder.fillBitboards(board, position);
+	}
+
+	@Override
+	public int estimate(long[] position, B board, M move) {
+		return moveData.update(move, board) ? see.evaluate(position, 0, moveData, gain) : 0;
+	}
+
+	@Override
+	public boolean isAtLeast(long[] position, B board, M move, int threshold) {
+		if (!moveData.update(move, board)) {
+			return 0>=threshold;
+		}
+		return see.isAtLeast(position, moveData, threshold);
+	}
+}
@@ -0,0 +1,79 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import com.fathzer.games.ai.transposition.EntryType;
+import com.fathzer.games.ai.transposition.TranspositionTable;
+import com.fathzer.games.ai.transposition.TranspositionTableEntry;
+
+/** A {@link QuiesceTable} that stores its results in a games-core {@link TranspositionTable}, typically the one used by the main search.
+ * <br>The quiesce results are stored with a depth of 0 and never replace an entry of a deeper search.
+ * <br>Only the scores of depth 0 entries are returned by {@link #get(long)}, because the scores of deeper entries may be win scores
+ * relative to the search root. On the other hand, the best move of any entry of the position is returned by {@link #getBestMove(long)}.
+ * <br>Please note the scores are stored as the transposition table stores them (for instance, games-core's
+ * {@link com.fathzer.games.ai.transposition.OneLongEntryTranspositionTable} stores them as shorts).
+ * @param <M> The type of moves
+ */
+public class TranspositionQuiesceTable<M> implements QuiesceTable<M> {
+	private final TranspositionTable<M, ?> table;
+
+	/** Constructor.
+	 * @param table The transposition table where to store the results
+	 */
+	public TranspositionQuiesceTable(TranspositionTable<M, ?> table) {
+		this.table = table;
+	}
+
+	@Override
+	public long get(long key) {
+		final TranspositionTableEntry<M> entry = getEntry(key);
+		if (entry==null || entry.getDepth()!=0) {
+			return NOT_FOUND;
+		}
+		return QuiesceTable.pack(toBound(entry.getEntryType()), entry.getValue());
+	}
+
+	@Override
+	public M getBestMove(long key) {
+		final TranspositionTableEntry<M> entry = getEntry(key);
+		return entry==null ? null : entry.getMove();
+	}
+
+	@Override
+	public void store(long key, Bound bound, int score, M bestMove) {
+		table.store(key, toEntryType(bound), 0, score, bestMove, old -> !old.isValid() || old.getDepth()==0);
+	}
+
+	private TranspositionTableEntry<M> getEntry(long key) {
+		final TranspositionTableEntry<M> entry = table.get(key);
+		return entry!=null && entry.isValid() && entry.getKey()==key ? entry : null;
+	}
+
+	/** Converts a bound to a transposition table entry type.
+	 * @param bound a bound
+	 * @return an entry type
+	 */
+	static EntryType toEntryType(Bound bound) {
+		switch (bound) {
+			case EXACT:
+				return EntryType.EXACT;
+			case LOWER:
+				return EntryType.LOWER_BOUND;
+			default:
+				return EntryType.UPPER_BOUND;
+		}
+	}
+
+	/** Converts a transposition table entry type to a bound.
+	 * @param type a valid entry type
+	 * @return a bound
+	 */
+	static Bound toBound(EntryType type) {
+		switch (type) {
+			case EXACT:
+				return Bound.EXACT;
+			case LOWER_BOUND:
+				return Bound.LOWER;
+			default:
+				return Bound.UPPER;
+		}
+	}
+}
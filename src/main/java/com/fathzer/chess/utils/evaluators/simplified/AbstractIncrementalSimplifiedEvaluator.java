@@ -2,39 +2,41 @@ package com.fathzer.chess.utils.evaluators.simplified;
 
 import static com.fathzer.chess.utils.Pieces.KING;
 
-import com.fathzer.chess.utils.evaluators.AbstractChessEvaluator;
-import com.fathzer.chess.utils.evaluators.AbstractPieceSquareTable;
+import com.fathzer.chess.utils.evaluators.AbstractArrayStateChessEvaluator;
+import com.fathzer.chess.utils.evaluators.CompiledPieceSquareTable;
 import com.fathzer.games.MoveGenerator;
+import com.fathzer.games.ai.evaluation.Evaluator;
 
 /** An incremental implementation of the simplified evaluator described at <a href="https://www.chessprogramming.org/Simplified_Evaluation_Function">https://www.chessprogramming.org/Simplified_Evaluation_Function</a>
  * <br>It only works with 8*8 games and exactly one king per Color.
  */
-public abstract class AbstractIncrementalSimplifiedEvaluator<M, B extends MoveGenerator<M>> extends AbstractChessEvaluator<M, B, SimplifiedState> {
-	private static final AbstractPieceSquareTable POS_TABLE = new PiecesOnlySquareTable();
-	private static final AbstractPieceSquareTable MIDDLE_GAME_KING_TABLE = new KingSquareTable();
-	private static final AbstractPieceSquareTable END_GAME_KING_TABLE = new EndGameKingSquareTable();
+public abstract class AbstractIncrementalSimplifiedEvaluator<M, B extends MoveGenerator<M>> extends AbstractArrayStateChessEvaluator<M, B> {
+	private static final CompiledPieceSquareTable POS_TABLE = new CompiledPieceSquareTable(new PiecesOnlySquareTable());
+	private static final CompiledPieceSquareTable MIDDLE_GAME_KING_TABLE = new CompiledPieceSquareTable(new KingSquareTable());
+	private static final CompiledPieceSquareTable END_GAME_KING_TABLE = new CompiledPieceSquareTable(new EndGameKingSquareTable());
+	
+	private static final int POINTS = 0;
+	private static final int WHITE_KING_INDEX = 1;
+	private static final int BLACK_KING_INDEX = 2;
+	private static final int INTS_COUNT = 3;
+	private static final int PHASE = 0;
+	private static final int LONGS_COUNT = 1;
 	
 	/** Constructor
 	 */
 	protected AbstractIncrementalSimplifiedEvaluator() {
-		super(SimplifiedState::new);
+		super(INTS_COUNT, LONGS_COUNT);
 	}
 	
 	/** Constructor.
 	 * @param state The initial state of the evaluator.
 	 */
 	protected AbstractIncrementalSimplifiedEvaluator(SimplifiedState state) {
-		super(SimplifiedState::new, state);
-	}
-
-	@Override
-	protected void clear(SimplifiedState state) {
-		state.points = 0;
-	}
-	
-	@Override
-	protected void copy(SimplifiedState from, SimplifiedState to) {
-		from.copyTo(to);
+		this();
+		ints[POINTS] = state.points;
+		ints[WHITE_KING_INDEX] = state.whiteKingIndex;
+		ints[BLACK_KING_INDEX] = state.blackKingIndex;
+		longs[PHASE] = state.getState();
 	}
 
 	@Override
@@ -45,37 +47,61 @@ public abstract class AbstractIncrementalSimplifiedEvaluator<M, B extends MoveGe
 
 	@Override
 	protected void add(int pieceType, boolean isBlack, int to) {
-		toCommit.points += POS_TABLE.get(pieceType, isBlack, to);
-		toCommit.add(isBlack ? -pieceType : pieceType);
+		final int piece = isBlack ? -pieceType : pieceType;
+		ints[intsToCommit+POINTS] += POS_TABLE.get(piece, to);
+		longs[longsToCommit+PHASE] = FastPhaseDetector.add(longs[longsToCommit+PHASE], piece);
 	}
 
 	@Override
 	protected void move(int pieceType, boolean isBlack, int from, int to) {
-		toCommit.points -= POS_TABLE.get(pieceType, isBlack, from);
-		toCommit.points += POS_TABLE.get(pieceType, isBlack, to);
+		final int piece = isBlack ? -pieceType : pieceType;
+		ints[intsToCommit+POINTS] += POS_TABLE.get(piece, to) - POS_TABLE.get(piece, from);
 		updateKingPositions(pieceType, isBlack, to);
 	}
 
 	@Override
 	protected void remove(int pieceType, boolean isBlack, int from) {
-		toCommit.points -= POS_TABLE.get(pieceType, isBlack, from);
-		toCommit.remove(isBlack ? -pieceType : pieceType);
+		final int piece = isBlack ? -pieceType : pieceType;
+		ints[intsToCommit+POINTS] -= POS_TABLE.get(piece, from);
+		longs[longsToCommit+PHASE] = FastPhaseDetector.remove(longs[longsToCommit+PHASE], piece);
 	}
 
 	private void updateKingPositions(int pieceType, boolean isBlack, int to) {
 		if (pieceType==KING) {
-			if (isBlack) {
-				toCommit.blackKingIndex = to;
-			} else {
-				toCommit.whiteKingIndex = to;
-			}			
+			ints[intsToCommit + (isBlack ? BLACK_KING_INDEX : WHITE_KING_INDEX)] = to;
 		}
 	}
 
 	@Override
 	public int evaluateAsWhite(B board) {
-		final SimplifiedState state = getState();
-		final AbstractPieceSquareTable kingsTable = state.isEndGamePhase() ? END_GAME_KING_TABLE : MIDDLE_GAME_KING_TABLE;
-		return state.points + kingsTable.get(KING, false, state.whiteKingIndex) + kingsTable.get(KING, true, state.blackKingIndex);
+		final int index = getIntsIndex();
+		final CompiledPieceSquareTable kingsTable = FastPhaseDetector.isEndGamePhase(longs[getLongsIndex()+PHASE]) ? END_GAME_KING_TABLE : MIDDLE_GAME_KING_TABLE;
+		return ints[index+POINTS] + kingsTable.get(KING, ints[index+WHITE_KING_INDEX]) + kingsTable.get(-KING, ints[index+BLACK_KING_INDEX]);
+	}
+	
+	@Override
+	public Evaluator<M, B> fork() {
+		final AbstractIncrementalSimplifiedEvaluator<M, B> result = fork(getState());
+		result.setLazy(isLazy());
+		return result;
+	}
+	
+	/** Creates a new instance initialized with current state that will become the initial state of created instance.
+	 * @param state The initial state.
+	 * @return a new evaluator of the same class as this, from the same view point, and initialized with the state.
+	 */
+	protected abstract AbstractIncrementalSimplifiedEvaluator<M, B> fork(SimplifiedState state);
+	
+	/** Gets a copy of the current committed state.
+	 * @return a new state instance
+	 */
+	protected SimplifiedState getState() {
+		final int index = getIntsIndex();
+		final SimplifiedState state = new SimplifiedState();
+		state.points = ints[index+POINTS];
+		state.whiteKingIndex = ints[index+WHITE_KING_INDEX];
+		state.blackKingIndex = ints[index+BLACK_KING_INDEX];
+		state.setState(longs[getLongsIndex()+PHASE]);
+		return state;
 	}
 }
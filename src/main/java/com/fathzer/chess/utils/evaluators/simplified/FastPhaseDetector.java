@@ -23,39 +23,55 @@ class FastPhaseDetector {
 	private long state;
 	
 	void add(int piece) {
-		state += PIECE_KIND_TO_VALUES[piece + KING];
+		state = add(state, piece);
 	}
 	
 	void remove(int piece) {
-		state -= PIECE_KIND_TO_VALUES[piece + KING];
+		state = remove(state, piece);
 	}
 	
 	boolean isEndGamePhase() {
+		return isEndGamePhase(state);
+	}
+	
+	long getState() {
+		return state;
+	}
+	
+	void setState(long state) {
+		this.state = state;
+	}
+
+	static long add(long state, int piece) {
+		return state + PIECE_KIND_TO_VALUES[piece + KING];
+	}
+	
+	static long remove(long state, int piece) {
+		return state - PIECE_KIND_TO_VALUES[piece + KING];
+	}
+	
+	static boolean isEndGamePhase(long state) {
 		final boolean whiteQueen = (state & WHITE_QUEEN_MASK) != 0L;
 		final boolean blackQueen = (state & BLACK_QUEEN_MASK) != 0L;
 		if (!blackQueen && !whiteQueen) {
 			return true;
 		}
-		return !((blackQueen && (hasBlackRook() || hasManyBlackMinor())) || (whiteQueen && (hasWhiteRook() || hasManyWhiteMinor())));
+		return !((blackQueen && (hasBlackRook(state) || hasManyBlackMinor(state))) || (whiteQueen && (hasWhiteRook(state) || hasManyWhiteMinor(state))));
 	}
 	
-	boolean hasWhiteRook() {
+	private static boolean hasWhiteRook(long state) {
 		return (state & WHITE_ROOK_MASK) != 0;
 	}
 
-	boolean hasBlackRook() {
+	private static boolean hasBlackRook(long state) {
 		return (state & BLACK_ROOK_MASK) != 0;
 	}
 	
-	boolean hasManyBlackMinor() {
+	private static boolean hasManyBlackMinor(long state) {
 		return (state & BLACK_MINOR_MASK) > BLACK_MINOR_VALUE;
 	}
 
-	boolean hasManyWhiteMinor() {
+	private static boolean hasManyWhiteMinor(long state) {
 		return (state & WHITE_MINOR_MASK) > WHITE_MINOR_VALUE;
 	}
-
-	void copyTo(FastPhaseDetector other) {
-		other.state = state;
-	}
 }
\ No newline at end of file
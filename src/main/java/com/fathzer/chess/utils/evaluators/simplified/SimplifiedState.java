@@ -1,6 +1,7 @@
 package com.fathzer.chess.utils.evaluators.simplified;
 
-/** The state of a simplified evaluator.
+/** A snapshot of the state of a simplified evaluator.
+ * <br>The evaluator itself stores its states in arrays, this class is used to transfer a state from an evaluator to its forks.
  */
 public class SimplifiedState extends FastPhaseDetector {
 	int points;
@@ -10,11 +11,4 @@ public class SimplifiedState extends FastPhaseDetector {
 	SimplifiedState() {
 		super();
 	}
-	
-	void copyTo(SimplifiedState other) {
-		super.copyTo(other);
-		other.points = points;
-		other.blackKingIndex = blackKingIndex;
-		other.whiteKingIndex = whiteKingIndex;
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package com.fathzer.chess.utils.evaluators.tuning;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.evaluators.AbstractPieceSquareTable;
+import com.fathzer.chess.utils.evaluators.ArrayPieceSquareTable;
+import com.fathzer.chess.utils.evaluators.WdlPawnsConverter;
+
+/** A <a href="https://www.chessprogramming.org/Texel%27s_Tuning_Method">Texel tuner</a> for tapered piece square tables,
+ * like the ones of the <a href="https://www.chessprogramming.org/PeSTO%27s_Evaluation_Function">PeSTO</a> evaluator.
+ * <br>The evaluation of a position is the middle game and end game sums of its pieces values, interpolated accordingly to its
+ * game phase. It is converted to a win probability with {@link WdlPawnsConverter#toWdl(double)}, and the tuner minimizes the mean
+ * squared error between this probability and the game results.
+ * <br>The tables are optimized with gradient descent using the <a href="https://en.wikipedia.org/wiki/Stochastic_gradient_descent#Adam">Adam</a>
+ * algorithm. The gradient is computed in parallel on chunks of the training set using a {@link ForkJoinPool}.
+ */
+public class TexelTuner {
+	private static final int PHASES = 24;
+	private static final int CHUNK_SIZE = 8192;
+	private static final double LN10_ON_400 = Math.log(10)/400;
+	private static final double BETA1 = 0.9;
+	private static final double BETA2 = 0.999;
+	private static final double EPSILON = 1e-8;
+
+	private final TrainingSet positions;
+	private final ForkJoinPool pool;
+	private final double[] parameters;
+	private final double[] moment;
+	private final double[] velocity;
+	private int steps;
+
+	/** Constructor.
+	 * @param positions The training set
+	 * @param middleGame The middle game table to start from
+	 * @param endGame The end game table to start from
+	 * @param pool The pool used to compute the gradient
+	 */
+	public TexelTuner(TrainingSet positions, AbstractPieceSquareTable middleGame, AbstractPieceSquareTable endGame, ForkJoinPool pool) {
+		this.positions = positions;
+		this.pool = pool;
+		this.parameters = new double[2*TrainingSet.FEATURES];
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				final int feature = (pieceType-1)*64+index;
+				parameters[feature] = middleGame.get(pieceType, false, index);
+				parameters[TrainingSet.FEATURES+feature] = endGame.get(pieceType, false, index);
+			}
+		}
+		this.moment = new double[parameters.length];
+		this.velocity = new double[parameters.length];
+	}
+
+	/** Gets the loss of the current tables.
+	 * @return The mean squared error between the predicted win probabilities and the game results
+	 */
+	public double getLoss() {
+		return pool.invoke(new Task(0, positions.size(), false)).loss/positions.size();
+	}
+
+	/** Performs one optimization step.
+	 * @param learningRate The learning rate (in centipawns)
+	 * @return The loss before the step
+	 * @throws IllegalStateException if the training set is empty
+	 */
+	public double step(double learningRate) {
+		if (positions.size()==0) {
+			throw new IllegalStateException();
+		}
+		final Result result = pool.invoke(new Task(0, positions.size(), true));
+		steps++;
+		final double correction1 = 1.0-Math.pow(BETA1, steps);
+		final double correction2 = 1.0-Math.pow(BETA2, steps);
+		for (int i = 0; i < parameters.length; i++) {
+			final double gradient = result.gradient[i]/positions.size();
+			moment[i] = BETA1*moment[i] + (1.0-BETA1)*gradient;
+			velocity[i] = BETA2*velocity[i] + (1.0-BETA2)*gradient*gradient;
+			parameters[i] -= learningRate*(moment[i]/correction1)/(Math.sqrt(velocity[i]/correction2)+EPSILON);
+		}
+		return result.loss/positions.size();
+	}
+
+	/** Performs optimization steps.
+	 * @param iterations The number of steps
+	 * @param learningRate The learning rate (in centipawns)
+	 * @return The loss after the last step
+	 * @throws IllegalStateException if the training set is empty
+	 */
+	public double tune(int iterations, double learningRate) {
+		for (int i = 0; i < iterations; i++) {
+			step(learningRate);
+		}
+		return getLoss();
+	}
+
+	/** Gets a tuned value.
+	 * @param middleGame true to get the middle game value, false to get the end game value
+	 * @param pieceType The piece type as define in {@link Pieces}
+	 * @param index The index of the piece on the board as defined in {@link BoardExplorer}
+	 * @return The value of a white piece
+	 */
+	public double get(boolean middleGame, int pieceType, int index) {
+		return parameters[(middleGame ? 0 : TrainingSet.FEATURES) + (pieceType-1)*64+index];
+	}
+
+	/** Gets the current middle game table.
+	 * @return a new table
+	 */
+	public ArrayPieceSquareTable getMiddleGameTable() {
+		return getTable(true);
+	}
+
+	/** Gets the current end game table.
+	 * @return a new table
+	 */
+	public ArrayPieceSquareTable getEndGameTable() {
+		return getTable(false);
+	}
+
+	private ArrayPieceSquareTable getTable(boolean middleGame) {
+		final int[][] values = new int[KING+1][64];
+		for (int pieceType = 1; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				values[pieceType][index] = (int)Math.round(get(middleGame, pieceType, index));
+			}
+		}
+		return new ArrayPieceSquareTable(values);
+	}
+
+	private static class Result {
+		private double loss;
+		private final double[] gradient;
+
+		private Result(boolean withGradient) {
+			this.gradient = withGradient ? new double[2*TrainingSet.FEATURES] : null;
+		}
+
+		private Result add(Result other) {
+			loss += other.loss;
+			if (gradient!=null) {
+				for (int i = 0; i < gradient.length; i++) {
+					gradient[i] += other.gradient[i];
+				}
+			}
+			return this;
+		}
+	}
+
+	private class Task extends RecursiveTask<Result> {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+		private final boolean withGradient;
+
+		private Task(int from, int to, boolean withGradient) {
+			this.from = from;
+			this.to = to;
+			this.withGradient = withGradient;
+		}
+
+		@Override
+		protected Result compute() {
+			if (to-from>CHUNK_SIZE) {
+				final int middle = (from+to) >>> 1;
+				final Task left = new Task(from, middle, withGradient);
+				left.fork();
+				final Result right = new Task(middle, to, withGradient).compute();
+				return right.add(left.join());
+			}
+			final Result result = new Result(withGradient);
+			final short[] features = positions.getFeatures();
+			for (int position = from; position < to; position++) {
+				final int start = positions.getStart(position);
+				final int end = positions.getStart(position+1);
+				double middleGame = 0.0;
+				double endGame = 0.0;
+				for (int i = start; i < end; i++) {
+					final int feature = features[i];
+					if (feature>=0) {
+						middleGame += parameters[feature];
+						endGame += parameters[TrainingSet.FEATURES+feature];
+					} else {
+						middleGame -= parameters[~feature];
+						endGame -= parameters[TrainingSet.FEATURES+~feature];
+					}
+				}
+				final int phase = positions.getPhase(position);
+				final double eval = (middleGame*phase + endGame*(PHASES-phase))/PHASES;
+				final double wdl = WdlPawnsConverter.toWdl(eval);
+				final double error = positions.getResult(position)-wdl;
+				result.loss += error*error;
+				if (withGradient) {
+					// d(error^2)/d(eval) = -2 * error * wdl' with wdl' = ln(10)/400 * wdl * (1-wdl)
+					final double derivative = -2.0*error*LN10_ON_400*wdl*(1.0-wdl);
+					final double middleGameDerivative = derivative*phase/PHASES;
+					final double endGameDerivative = derivative*(PHASES-phase)/PHASES;
+					for (int i = start; i < end; i++) {
+						final int feature = features[i];
+						if (feature>=0) {
+							result.gradient[feature] += middleGameDerivative;
+							result.gradient[TrainingSet.FEATURES+feature] += endGameDerivative;
+						} else {
+							result.gradient[~feature] -= middleGameDerivative;
+							result.gradient[TrainingSet.FEATURES+~feature] -= endGameDerivative;
+						}
+					}
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package com.fathzer.chess.utils.evaluators.tuning;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fathzer.chess.utils.Pieces;
+
+/** A set of positions labelled with their game result.
+ * <br>Positions are stored in a compact primitive format: one short per piece, one byte for the result and one for the game phase.
+ * A position with 32 pieces uses less than 80 bytes, so millions of positions fit in memory.
+ * <br>A piece is stored as a feature, the index of the white piece square table value it refers to (<i>(pieceType-1)*64+index</i>,
+ * black pieces being vertically flipped), negated and decremented for black pieces.
+ */
+public final class TrainingSet {
+	/** The number of features of a position, the number of values of the 6 white piece square tables. */
+	public static final int FEATURES = 6*64;
+	private static final int[] GAME_PHASE_WEIGHT = new int[]{0,0,1,1,2,4,0};
+	private static final byte LOSS = 0;
+	private static final byte DRAW = 1;
+	private static final byte WIN = 2;
+
+	private short[] features = new short[1024];
+	private int[] starts = new int[64];
+	private byte[] results = new byte[64];
+	private byte[] phases = new byte[64];
+	private int size;
+
+	/** Constructor.
+	 * <br>Builds an empty set.
+	 */
+	public TrainingSet() {
+		super();
+	}
+
+	/** Adds the positions of a labelled EPD/FEN stream.
+	 * <br>Each line contains a FEN or EPD position followed by the game result. The result can be written as
+	 * <code>1-0</code>, <code>0-1</code> or <code>1/2-1/2</code> (for instance <code>c9 "1-0";</code>), or as the white score,
+	 * between square brackets or as the last field of the line (for instance <code>[0.5]</code>).
+	 * <br>Empty lines are ignored.
+	 * @param reader The reader to read. It is not closed by this method.
+	 * @return the number of added positions
+	 * @throws IOException if an error occurs while reading
+	 * @throws IllegalArgumentException if a line can't be parsed
+	 */
+	public int load(BufferedReader reader) throws IOException {
+		int count = 0;
+		for (String line = reader.readLine(); line!=null; line = reader.readLine()) {
+			line = line.trim();
+			if (!line.isEmpty()) {
+				add(line);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/** Adds a labelled position.
+	 * @param line A FEN or EPD position followed by the game result (see {@link #load(BufferedReader)})
+	 * @throws IllegalArgumentException if line can't be parsed
+	 */
+	public void add(String line) {
+		final int end = line.indexOf(' ');
+		if (end<0) {
+			throw new IllegalArgumentException("Missing result in "+line);
+		}
+		add(line.substring(0, end), parseResult(line.substring(end+1), line));
+	}
+
+	/** Adds a position.
+	 * @param placement The piece placement field of a FEN position
+	 * @param result The game result, from the white point of view (1.0 if white won, 0.5 for a draw, 0.0 if white lost)
+	 * @throws IllegalArgumentException if the result or the piece placement is invalid
+	 */
+	public void add(String placement, double result) {
+		if (result!=0.0 && result!=0.5 && result!=1.0) {
+			throw new IllegalArgumentException("Invalid result: "+result);
+		}
+		ensureCapacity(starts[size]+32);
+		int count = starts[size];
+		int phase = 0;
+		int index = 0;
+		for (int i = 0; i < placement.length(); i++) {
+			final char c = placement.charAt(i);
+			if (c=='/') {
+				if ((index & 7)!=0) {
+					throw new IllegalArgumentException("Invalid piece placement "+placement);
+				}
+			} else if (c>='1' && c<='8') {
+				index += c-'0';
+			} else {
+				final int pieceType = getPieceType(Character.toLowerCase(c));
+				if (pieceType==0 || index>=64) {
+					throw new IllegalArgumentException("Invalid piece placement "+placement);
+				}
+				if (count==features.length) {
+					features = Arrays.copyOf(features, 2*features.length);
+				}
+				features[count++] = Character.isUpperCase(c) ? getFeature(pieceType, index) : (short)~getFeature(pieceType, index^56);
+				phase += GAME_PHASE_WEIGHT[pieceType];
+				index++;
+			}
+		}
+		if (index!=64) {
+			throw new IllegalArgumentException("Invalid piece placement "+placement);
+		}
+		results[size] = result==1.0 ? WIN : (result==0.0 ? LOSS : DRAW);
+		phases[size] = (byte)Math.min(phase, 24);
+		size++;
+		starts[size] = count;
+	}
+
+	private static short getFeature(int pieceType, int index) {
+		return (short)((pieceType-PAWN)*64+index);
+	}
+
+	private static int getPieceType(char c) {
+		switch (c) {
+			case 'p': return PAWN;
+			case 'n': return KNIGHT;
+			case 'b': return BISHOP;
+			case 'r': return ROOK;
+			case 'q': return QUEEN;
+			case 'k': return KING;
+			default: return 0;
+		}
+	}
+
+	private static double parseResult(String fields, String line) {
+		if (fields.contains("1/2-1/2")) {
+			return 0.5;
+		} else if (fields.contains("1-0")) {
+			return 1.0;
+		} else if (fields.contains("0-1")) {
+			return 0.0;
+		}
+		final int open = fields.lastIndexOf('[');
+		String value;
+		if (open>=0) {
+			final int close = fields.indexOf(']', open);
+			value = close<0 ? "" : fields.substring(open+1, close);
+		} else {
+			value = fields.substring(fields.lastIndexOf(' ')+1);
+			if (value.endsWith(";")) {
+				value = value.substring(0, value.length()-1);
+			}
+		}
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Unable to find result in "+line, e);
+		}
+	}
+
+	private void ensureCapacity(int featuresCount) {
+		if (size+1>=starts.length) {
+			final int capacity = 2*starts.length;
+			starts = Arrays.copyOf(starts, capacity);
+			results = Arrays.copyOf(results, capacity);
+			phases = Arrays.copyOf(phases, capacity);
+		}
+		if (featuresCount>features.length) {
+			features = Arrays.copyOf(features, Math.max(featuresCount, 2*features.length));
+		}
+	}
+
+	/** Gets the number of positions in this set.
+	 * @return a positive or null int
+	 */
+	public int size() {
+		return size;
+	}
+
+	/** Gets the result of a position.
+	 * @param position The position index
+	 * @return 1.0 if white won, 0.5 for a draw, 0.0 if white lost
+	 */
+	public double getResult(int position) {
+		return results[position]/2.0;
+	}
+
+	/** Gets the game phase of a position.
+	 * @param position The position index
+	 * @return an int between 0 (end game) and 24 (opening). It is computed as in <a href="https://www.chessprogramming.org/PeSTO%27s_Evaluation_Function">PeSTO</a>.
+	 */
+	public int getPhase(int position) {
+		return phases[position];
+	}
+
+	/** Gets the index of the first feature of a position.
+	 * @param position The position index
+	 * @return an index in the array returned by {@link #getFeatures()}. The features of the position end at getStart(position+1) (exclusive).
+	 */
+	int getStart(int position) {
+		return starts[position];
+	}
+
+	/** Gets the features of all positions.
+	 * <br>A feature is an index between 0 and {@link #FEATURES} for a white piece. It is the complement (~) of a feature for a black piece.
+	 * @return an array. Warning, this array is not a copy and may be larger than the features count.
+	 * @see Pieces
+	 */
+	short[] getFeatures() {
+		return features;
+	}
+}
@@ -0,0 +1,3 @@
+/** This package contains a <a href="https://www.chessprogramming.org/Texel%27s_Tuning_Method">Texel tuning</a> implementation for tapered piece square tables.
+ */
+package com.fathzer.chess.utils.evaluators.tuning;
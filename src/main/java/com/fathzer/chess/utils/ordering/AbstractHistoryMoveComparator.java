@@ -0,0 +1,121 @@
+package com.fathzer.chess.utils.ordering;
+
+import com.fathzer.chess.utils.AbstractDefaultMoveComparator;
+import com.fathzer.chess.utils.MvvLvaTable;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+
+/** A move comparator that orders the quiet moves with the killer and history heuristics.
+ * <br>Moves are ordered as follow:<ol>
+ * <li>Captures and promotions, ordered as in {@link AbstractDefaultMoveComparator}.</li>
+ * <li>Killer moves of the current ply (see {@link #setPly(int)}), most recent first.</li>
+ * <li>Other quiet moves, by decreasing history score.</li>
+ * </ol>
+ * The search should call {@link #betaCutoff(Object, int)} each time a move produces a beta cutoff.
+ * <br>Like {@link AbstractDefaultMoveComparator}, this comparator {@link #test(Object) selects} only captures and promotions.
+ * <br>The killer moves are specific to a search thread, the history table can be shared between threads if it is thread safe (see {@link ConcurrentHistoryTable}).
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+public abstract class AbstractHistoryMoveComparator<M, B> extends AbstractDefaultMoveComparator<M, B> {
+	private static final int TACTICAL_OFFSET = 1<<24;
+	private static final int KILLER_OFFSET = 1<<20;
+
+	private final KillerMoves<M> killers;
+	private final HistoryTable history;
+	private int ply;
+
+	/** Constructor.
+	 * @param board The chess board on which the comparison is made.
+	 * @param killers The killer moves
+	 * @param history The history table
+	 */
+	protected AbstractHistoryMoveComparator(B board, KillerMoves<M> killers, HistoryTable history) {
+		this(board, MvvLvaTable.DEFAULT, killers, history);
+	}
+
+	/** Constructor.
+	 * @param board The chess board on which the comparison is made.
+	 * @param table The table used to score captures and promotions.
+	 * @param killers The killer moves
+	 * @param history The history table
+	 */
+	protected AbstractHistoryMoveComparator(B board, MvvLvaTable table, KillerMoves<M> killers, HistoryTable history) {
+		super(board, table);
+		this.killers = killers;
+		this.history = history;
+	}
+
+	/** Sets the ply of the position whose moves are compared.
+	 * @param ply The ply (0 for the root position)
+	 */
+	public void setPly(int ply) {
+		this.ply = ply;
+	}
+
+	/** Gets the ply of the position whose moves are compared.
+	 * @return a positive or null int
+	 */
+	public int getPly() {
+		return ply;
+	}
+
+	/** Gets the killer moves.
+	 * @return the killer moves
+	 */
+	public KillerMoves<M> getKillers() {
+		return killers;
+	}
+
+	/** Gets the history table.
+	 * @return the history table
+	 */
+	public HistoryTable getHistory() {
+		return history;
+	}
+
+	/** Gets the destination of a move.
+	 * @param board The board
+	 * @param move The move
+	 * @return an integer (see {@link BoardExplorer#getIndex()} to learn which index corresponds to which cell).
+	 */
+	protected abstract int getMovingDestination(B board, M move);
+
+	/** Records a move that produced a beta cutoff at the current ply.
+	 * <br>If the move is a quiet move, it becomes a killer move of the ply and its history score is increased. Captures and promotions are ignored.
+	 * @param move The move
+	 * @param depth The remaining search depth of the position where the cutoff occurred
+	 */
+	public void betaCutoff(M move, int depth) {
+		if (super.evaluate(move)==0) {
+			killers.add(ply, move);
+			history.add(getKey(move), HistoryTable.getBonus(depth));
+		}
+	}
+
+	private int getKey(M move) {
+		return HistoryTable.getKey(getMovingPiece(board, move), getMovingDestination(board, move));
+	}
+
+	@Override
+	public boolean test(M move) {
+		return super.evaluate(move)!=0;
+	}
+
+	/** {@inheritDoc}
+	 * <br>The value of a capture or a promotion is greater than the value of a killer move which is greater than the value of other moves.
+	 * The value of other moves is their history score (see {@link HistoryTable#get(int)}).
+	 * The returned value is always &gt;=0.
+	 */
+	@Override
+	public int evaluate(M move) {
+		final int tactical = super.evaluate(move);
+		if (tactical!=0) {
+			return TACTICAL_OFFSET + tactical;
+		}
+		final int slot = killers.getSlot(ply, move);
+		if (slot>=0) {
+			return KILLER_OFFSET - slot;
+		}
+		return history.get(getKey(move));
+	}
+}
@@ -0,0 +1,50 @@
+package com.fathzer.chess.utils.ordering;
+
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.games.util.SelectiveComparator;
+
+/** The common part of the comparators that order moves by the moves that were played before them.
+ * <br>Moves are identified by their (piece, destination) key decoded by a {@link MoveData}.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+abstract class AbstractPreviousMoveComparator<M, B> implements SelectiveComparator<M> {
+	/** The chess board on which the comparison are made.
+	 */
+	protected final B board;
+	private final MoveData<M, B> moveData;
+
+	/** Constructor.
+	 * @param board The chess board on which the comparison is made.
+	 * @param moveData The move data used to decode the moves
+	 */
+	protected AbstractPreviousMoveComparator(B board, MoveData<M, B> moveData) {
+		this.board = board;
+		this.moveData = moveData;
+	}
+
+	/** Gets the key of a move in the current position.
+	 * <br>The search can use this method to get the key of a move before playing it.
+	 * @param move The move
+	 * @return The key of the move (see {@link HistoryTable#getKey(int, int)}), {@link CounterMoveTable#NO_MOVE} if the move can't be decoded.
+	 */
+	public int getKey(M move) {
+		return moveData.update(move, board) ? HistoryTable.getKey(moveData) : CounterMoveTable.NO_MOVE;
+	}
+
+	@Override
+	public int compare(M o1, M o2) {
+		return Integer.compare(evaluate(o2), evaluate(o1));
+	}
+
+	@Override
+	public boolean test(M t) {
+		return evaluate(t)!=0;
+	}
+
+	/** Gets the value of a move.
+	 * @param move The move
+	 * @return a positive or null value, 0 if the heuristic knows nothing about the move.
+	 */
+	public abstract int evaluate(M move);
+}
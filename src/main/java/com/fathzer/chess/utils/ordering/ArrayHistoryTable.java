@@ -0,0 +1,39 @@
+package com.fathzer.chess.utils.ordering;
+
+import java.util.Arrays;
+
+/** A {@link HistoryTable} backed by an int array.
+ * <br>This class is not thread safe, use one instance per search thread or a {@link ConcurrentHistoryTable}.
+ */
+public class ArrayHistoryTable implements HistoryTable {
+	private final int[] scores;
+
+	/** Constructor.
+	 */
+	public ArrayHistoryTable() {
+		this.scores = new int[SIZE];
+	}
+
+	@Override
+	public int get(int key) {
+		return scores[key];
+	}
+
+	@Override
+	public void add(int key, int bonus) {
+		final int score = scores[key];
+		scores[key] = score + bonus - score*bonus/MAX_SCORE;
+	}
+
+	@Override
+	public void age() {
+		for (int i = 0; i < SIZE; i++) {
+			scores[i] = scores[i]/2;
+		}
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(scores, 0);
+	}
+}
@@ -0,0 +1,42 @@
+package com.fathzer.chess.utils.ordering;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/** A {@link HistoryTable} that can be shared by many search threads.
+ * <br>Updates are lock free and not atomic: when two threads update the same score at the same time, one of the updates may be lost.
+ * This is harmless for move ordering and much faster than atomic updates.
+ */
+public class ConcurrentHistoryTable implements HistoryTable {
+	private final AtomicIntegerArray scores;
+
+	/** Constructor.
+	 */
+	public ConcurrentHistoryTable() {
+		this.scores = new AtomicIntegerArray(SIZE);
+	}
+
+	@Override
+	public int get(int key) {
+		return scores.getOpaque(key);
+	}
+
+	@Override
+	public void add(int key, int bonus) {
+		final int score = scores.getOpaque(key);
+		scores.setOpaque(key, score + bonus - score*bonus/MAX_SCORE);
+	}
+
+	@Override
+	public void age() {
+		for (int i = 0; i < SIZE; i++) {
+			scores.setOpaque(i, scores.getOpaque(i)/2);
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < SIZE; i++) {
+			scores.setOpaque(i, 0);
+		}
+	}
+}
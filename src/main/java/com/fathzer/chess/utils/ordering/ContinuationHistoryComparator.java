@@ -0,0 +1,96 @@
+package com.fathzer.chess.utils.ordering;
+
+import com.fathzer.chess.utils.adapters.MoveData;
+
+/** A comparator that orders moves with one and two plies continuation histories.
+ * <br>The value of a move is the sum of its score in a {@link ContinuationHistoryTable} indexed by the move played one ply before,
+ * and its score in another one indexed by the move played two plies before.
+ * <br>The search should set the previous moves with {@link #setPreviousMoves(int, int)} before the moves are sorted and call
+ * {@link #betaCutoff(Object, int)} each time a quiet move produces a beta cutoff. This comparator {@link #test(Object) selects} the moves
+ * with a strictly positive value.
+ * <br>This class is typically combined with other comparators, for instance to break ties between quiet moves with the same history score.
+ * It is not thread safe, use one instance per search thread.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+public class ContinuationHistoryComparator<M, B> extends AbstractPreviousMoveComparator<M, B> {
+	private final ContinuationHistoryTable onePly;
+	private final ContinuationHistoryTable twoPlies;
+	private int previousKey = CounterMoveTable.NO_MOVE;
+	private int previousPreviousKey = CounterMoveTable.NO_MOVE;
+
+	/** Constructor.
+	 * @param board The chess board on which the comparison is made.
+	 * @param moveData The move data used to decode the moves
+	 * @param onePly The table indexed by the move played one ply before
+	 * @param twoPlies The table indexed by the move played two plies before
+	 */
+	public ContinuationHistoryComparator(B board, MoveData<M, B> moveData, ContinuationHistoryTable onePly, ContinuationHistoryTable twoPlies) {
+		super(board, moveData);
+		this.onePly = onePly;
+		this.twoPlies = twoPlies;
+	}
+
+	/** Sets the moves that led to the position whose moves are compared.
+	 * @param previousKey The key of the move played one ply before (see {@link #getKey(Object)}), {@link CounterMoveTable#NO_MOVE} if there is no such move.
+	 * @param previousPreviousKey The key of the move played two plies before, {@link CounterMoveTable#NO_MOVE} if there is no such move.
+	 */
+	public void setPreviousMoves(int previousKey, int previousPreviousKey) {
+		this.previousKey = previousKey;
+		this.previousPreviousKey = previousPreviousKey;
+	}
+
+	/** Gets the table indexed by the move played one ply before.
+	 * @return a table
+	 */
+	public ContinuationHistoryTable getOnePlyTable() {
+		return onePly;
+	}
+
+	/** Gets the table indexed by the move played two plies before.
+	 * @return a table
+	 */
+	public ContinuationHistoryTable getTwoPliesTable() {
+		return twoPlies;
+	}
+
+	/** Records a quiet move that produced a beta cutoff.
+	 * @param move The move
+	 * @param depth The remaining search depth of the position where the cutoff occurred
+	 */
+	public void betaCutoff(M move, int depth) {
+		final int key = getKey(move);
+		if (key==CounterMoveTable.NO_MOVE) {
+			return;
+		}
+		final int bonus = HistoryTable.getBonus(depth);
+		if (previousKey!=CounterMoveTable.NO_MOVE) {
+			onePly.add(previousKey, key, bonus);
+		}
+		if (previousPreviousKey!=CounterMoveTable.NO_MOVE) {
+			twoPlies.add(previousPreviousKey, key, bonus);
+		}
+	}
+
+	/** {@inheritDoc}
+	 * <br>The returned value is between 0 and 2*{@link HistoryTable#MAX_SCORE}.
+	 */
+	@Override
+	public int evaluate(M move) {
+		if (previousKey==CounterMoveTable.NO_MOVE && previousPreviousKey==CounterMoveTable.NO_MOVE) {
+			return 0;
+		}
+		final int key = getKey(move);
+		if (key==CounterMoveTable.NO_MOVE) {
+			return 0;
+		}
+		int value = 0;
+		if (previousKey!=CounterMoveTable.NO_MOVE) {
+			value += onePly.get(previousKey, key);
+		}
+		if (previousPreviousKey!=CounterMoveTable.NO_MOVE) {
+			value += twoPlies.get(previousPreviousKey, key);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,60 @@
+package com.fathzer.chess.utils.ordering;
+
+import java.util.Arrays;
+
+/** A continuation history table.
+ * <br>It is a {@link HistoryTable history table} indexed by a previous move, that scores the quiet moves that produced beta cutoffs after
+ * this previous move. Used with the move played one ply before, it captures the typical answers to a move; used with the move played two
+ * plies before, it captures the typical follow ups of a move.
+ * <br>Moves are identified by their (piece, destination) key (see {@link HistoryTable#getKey(int, int)}) and scores are stored in a compact short array
+ * of {@link HistoryTable#SIZE}^2 elements. They are updated with the same formula as {@link HistoryTable#add(int, int)}.
+ * <br>This class is not thread safe, use one instance per search thread.
+ */
+public class ContinuationHistoryTable {
+	private final short[] scores;
+
+	/** Constructor.
+	 */
+	public ContinuationHistoryTable() {
+		this.scores = new short[HistoryTable.SIZE*HistoryTable.SIZE];
+	}
+
+	private static int getIndex(int previousKey, int key) {
+		return previousKey*HistoryTable.SIZE + key;
+	}
+
+	/** Gets the score of a move.
+	 * @param previousKey The key of the previous move
+	 * @param key The key of the move
+	 * @return an int between 0 and {@link HistoryTable#MAX_SCORE}
+	 */
+	public int get(int previousKey, int key) {
+		return scores[getIndex(previousKey, key)];
+	}
+
+	/** Adds a bonus to a move.
+	 * @param previousKey The key of the previous move
+	 * @param key The key of the move
+	 * @param bonus The bonus, between 0 and {@link HistoryTable#MAX_SCORE} (see {@link HistoryTable#getBonus(int)})
+	 */
+	public void add(int previousKey, int key, int bonus) {
+		final int index = getIndex(previousKey, key);
+		final int score = scores[index];
+		scores[index] = (short) (score + bonus - score*bonus/HistoryTable.MAX_SCORE);
+	}
+
+	/** Halves all the scores.
+	 * <br>This method is typically called between two searches, so that old cutoffs have less weight than new ones.
+	 */
+	public void age() {
+		for (int i = 0; i < scores.length; i++) {
+			scores[i] = (short) (scores[i]/2);
+		}
+	}
+
+	/** Sets all the scores to 0.
+	 */
+	public void clear() {
+		Arrays.fill(scores, (short) 0);
+	}
+}
@@ -0,0 +1,63 @@
+package com.fathzer.chess.utils.ordering;
+
+import com.fathzer.chess.utils.adapters.MoveData;
+
+/** A comparator that puts the <a href="https://www.chessprogramming.org/Countermove_Heuristic">countermove</a> of the previous move first.
+ * <br>The search should set the previous move with {@link #setPreviousMove(int)} before the moves are sorted and call {@link #betaCutoff(Object)}
+ * each time a quiet move produces a beta cutoff. This comparator {@link #test(Object) selects} only the countermove.
+ * <br>This class is typically combined with other comparators, for instance after the killer moves in an {@link AbstractHistoryMoveComparator}.
+ * It is not thread safe, use one instance per search thread.
+ * @param <M> The type of moves
+ * @param <B> The type of chess board
+ */
+public class CounterMoveComparator<M, B> extends AbstractPreviousMoveComparator<M, B> {
+	private final CounterMoveTable table;
+	private int previousKey = CounterMoveTable.NO_MOVE;
+
+	/** Constructor.
+	 * @param board The chess board on which the comparison is made.
+	 * @param moveData The move data used to decode the moves
+	 * @param table The countermove table
+	 */
+	public CounterMoveComparator(B board, MoveData<M, B> moveData, CounterMoveTable table) {
+		super(board, moveData);
+		this.table = table;
+	}
+
+	/** Sets the move that led to the position whose moves are compared.
+	 * @param previousKey The key of the previous move (see {@link #getKey(Object)}), {@link CounterMoveTable#NO_MOVE} if there is no previous move.
+	 */
+	public void setPreviousMove(int previousKey) {
+		this.previousKey = previousKey;
+	}
+
+	/** Gets the countermove table.
+	 * @return the table
+	 */
+	public CounterMoveTable getTable() {
+		return table;
+	}
+
+	/** Records a quiet move that produced a beta cutoff.
+	 * <br>It becomes the countermove of the previous move.
+	 * @param move The move
+	 */
+	public void betaCutoff(M move) {
+		final int key = getKey(move);
+		if (previousKey!=CounterMoveTable.NO_MOVE && key!=CounterMoveTable.NO_MOVE) {
+			table.set(previousKey, key);
+		}
+	}
+
+	/** {@inheritDoc}
+	 * <br>This comparator returns 1 for the countermove of the previous move, 0 for other moves.
+	 */
+	@Override
+	public int evaluate(M move) {
+		if (previousKey==CounterMoveTable.NO_MOVE) {
+			return 0;
+		}
+		final int counterKey = table.get(previousKey);
+		return counterKey!=CounterMoveTable.NO_MOVE && counterKey==getKey(move) ? 1 : 0;
+	}
+}
@@ -0,0 +1,44 @@
+package com.fathzer.chess.utils.ordering;
+
+import java.util.Arrays;
+
+/** A <a href="https://www.chessprogramming.org/Countermove_Heuristic">countermove</a> table.
+ * <br>It stores, for each previous move, the last quiet move that refuted it. Both moves are identified by their (piece, destination) key
+ * (see {@link HistoryTable#getKey(int, int)}), so that the table is a compact short array.
+ * <br>This class is not thread safe, use one instance per search thread.
+ */
+public class CounterMoveTable {
+	/** The key returned when there is no countermove. */
+	public static final int NO_MOVE = -1;
+
+	private final short[] counterMoves;
+
+	/** Constructor.
+	 */
+	public CounterMoveTable() {
+		this.counterMoves = new short[HistoryTable.SIZE];
+		clear();
+	}
+
+	/** Sets the countermove of a move.
+	 * @param previousKey The key of the previous move
+	 * @param counterKey The key of the move that refuted it
+	 */
+	public void set(int previousKey, int counterKey) {
+		counterMoves[previousKey] = (short) counterKey;
+	}
+
+	/** Gets the countermove of a move.
+	 * @param previousKey The key of the previous move
+	 * @return The key of the countermove, {@link #NO_MOVE} if there is no countermove
+	 */
+	public int get(int previousKey) {
+		return counterMoves[previousKey];
+	}
+
+	/** Removes all the countermoves.
+	 */
+	public void clear() {
+		Arrays.fill(counterMoves, (short) NO_MOVE);
+	}
+}
@@ -0,0 +1,68 @@
+package com.fathzer.chess.utils.ordering;
+
+import static com.fathzer.chess.utils.Pieces.KING;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+
+/** A <a href="https://www.chessprogramming.org/History_Heuristic">history table</a>.
+ * <br>It scores the quiet moves that produced beta cutoffs. Moves are identified by a key built from their moving piece and destination
+ * (see {@link #getKey(int, int)}).
+ * <br>Scores are updated with the <i>history gravity</i> formula, <code>score += bonus - score*bonus/{@link #MAX_SCORE}</code>, that keeps them
+ * in the [0, {@link #MAX_SCORE}] range and gives more weight to recent updates.
+ * @see ArrayHistoryTable
+ * @see ConcurrentHistoryTable
+ */
+public interface HistoryTable {
+	/** The maximum score. */
+	int MAX_SCORE = 1<<14;
+	/** The number of keys. */
+	int SIZE = (2*KING+1)*64;
+
+	/** Gets the key of a move.
+	 * @param piece The moving piece as defined in {@link Pieces} (negative for black pieces).
+	 * @param to The index of the move destination as defined in {@link BoardExplorer}
+	 * @return an int between 0 (included) and {@link #SIZE} (excluded)
+	 */
+	static int getKey(int piece, int to) {
+		return ((piece+KING)<<6) | to;
+	}
+
+	/** Gets the key of a move.
+	 * @param move The data of a move
+	 * @return an int between 0 (included) and {@link #SIZE} (excluded)
+	 */
+	static int getKey(MoveData<?, ?> move) {
+		return getKey(move.getMovingPiece(), move.getMovingDestination());
+	}
+
+	/** Gets the bonus of a beta cutoff at a search depth.
+	 * @param depth The search depth
+	 * @return <i>depth</i>^2, capped to {@link #MAX_SCORE}.
+	 */
+	static int getBonus(int depth) {
+		return Math.min(depth*depth, MAX_SCORE);
+	}
+
+	/** Gets the score of a move.
+	 * @param key The key of the move
+	 * @return an int between 0 and {@link #MAX_SCORE}
+	 */
+	int get(int key);
+
+	/** Adds a bonus to a move.
+	 * @param key The key of the move
+	 * @param bonus The bonus, between 0 and {@link #MAX_SCORE} (see {@link #getBonus(int)})
+	 */
+	void add(int key, int bonus);
+
+	/** Halves all the scores.
+	 * <br>This method is typically called between two searches, so that old cutoffs have less weight than new ones.
+	 */
+	void age();
+
+	/** Sets all the scores to 0.
+	 */
+	void clear();
+}
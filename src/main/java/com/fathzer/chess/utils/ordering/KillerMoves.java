@@ -0,0 +1,74 @@
+package com.fathzer.chess.utils.ordering;
+
+import java.util.Arrays;
+
+/** The <a href="https://www.chessprogramming.org/Killer_Heuristic">killer moves</a> of a search.
+ * <br>It keeps, for each ply, the last two distinct quiet moves that produced a beta cutoff.
+ * <br>This class is not thread safe, killer moves depend on the path followed by the search, so each search thread should have its own instance.
+ * @param <M> The type of moves
+ */
+public class KillerMoves<M> {
+	private static final int DEFAULT_PLY_CAPACITY = 64;
+	/** The number of killer moves per ply. */
+	public static final int SLOTS = 2;
+
+	private Object[] killers;
+
+	/** Constructor.
+	 */
+	public KillerMoves() {
+		this.killers = new Object[SLOTS*DEFAULT_PLY_CAPACITY];
+	}
+
+	/** Records a move that produced a beta cutoff.
+	 * <br>It becomes the first killer move of the ply, the previous first one becomes the second one.
+	 * @param ply The ply (0 for the root position)
+	 * @param move The move
+	 */
+	public void add(int ply, M move) {
+		final int index = ply*SLOTS;
+		if (index>=killers.length) {
+			killers = Arrays.copyOf(killers, Math.max(2*killers.length, index+SLOTS));
+		}
+		if (!move.equals(killers[index])) {
+			killers[index+1] = killers[index];
+			killers[index] = move;
+		}
+	}
+
+	/** Gets a killer move.
+	 * @param ply The ply (0 for the root position)
+	 * @param slot The slot (0 for the most recent killer move)
+	 * @return a move or null if there is no killer move in this slot
+	 */
+	@SuppressWarnings("unchecked")
+	public M get(int ply, int slot) {
+		final int index = ply*SLOTS + slot;
+		return index<killers.length ? (M) killers[index] : null;
+	}
+
+	/** Gets the slot of a move.
+	 * @param ply The ply (0 for the root position)
+	 * @param move The move
+	 * @return The slot of the move (0 for the most recent killer move), -1 if the move is not a killer move at this ply.
+	 */
+	public int getSlot(int ply, M move) {
+		final int index = ply*SLOTS;
+		if (index>=killers.length) {
+			return -1;
+		}
+		for (int slot = 0; slot < SLOTS; slot++) {
+			if (move.equals(killers[index+slot])) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/** Removes all the killer moves.
+	 * <br>This method is typically called before a new search, as the plies of the new search do not match the plies of the previous one.
+	 */
+	public void clear() {
+		Arrays.fill(killers, null);
+	}
+}
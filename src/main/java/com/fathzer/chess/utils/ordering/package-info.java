@@ -0,0 +1,4 @@
+/**
+ * <a href="https://www.chessprogramming.org/Move_Ordering">Move ordering</a> heuristics, based on the moves that produced beta cutoffs during the search.
+ */
+package com.fathzer.chess.utils.ordering;
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static com.fathzer.chess.utils.Pieces.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -46,6 +47,7 @@ public abstract class AbstractBoardExplorerBuilderTest<B> {
 		Map<Integer, Integer> map = toMap(builder.getExplorer(board));
 		assertEquals(expected, map);
 		testStream(expected, builder.getPieces(board));
+		testBulk(expected, builder, board);
 		
 		board = toBoard("b2k1q2/2n5/5p2/3P2r1/8/8/2B3N1/2Q1KR2 w - - 0 1");
 		expected = Map.ofEntries(Map.entry(0, -BISHOP), Map.entry(3, -KING), Map.entry(5, -QUEEN),
@@ -55,6 +57,7 @@ public abstract class AbstractBoardExplorerBuilderTest<B> {
 		map = toMap(builder.getExplorer(board));
 		assertEquals(expected, map);
 		testStream(expected, builder.getPieces(board));
+		testBulk(expected, builder, board);
 	}
 
 	private Map<Integer, Integer> toMap(BoardExplorer exp) {
@@ -65,6 +68,30 @@ public abstract class AbstractBoardExplorerBuilderTest<B> {
 		return result;
 	}
 	
+	private void testBulk(Map<Integer, Integer> expected, BoardExplorerBuilder<B> builder, B board) {
+		final Map<Integer, Integer> map = new HashMap<>();
+		builder.forEachPiece(board, map::put);
+		assertEquals(expected, map);
+
+		final int[] cells = new int[64];
+		Arrays.fill(cells, Integer.MAX_VALUE);
+		builder.fillMailbox(board, cells);
+		final long[] bitboards = new long[12];
+		Arrays.fill(bitboards, -1L);
+		builder.fillBitboards(board, bitboards);
+		for (int i = 0; i < cells.length; i++) {
+			final int piece = expected.getOrDefault(i, 0);
+			assertEquals(piece, cells[i]);
+			for (int j = 0; j < bitboards.length; j++) {
+				final boolean isSet = (bitboards[j] & (1L<<i))!=0;
+				assertEquals(piece!=0 && j==(piece>0 ? piece-1 : 5-piece), isSet);
+			}
+		}
+
+		final int expectedSum = expected.values().stream().mapToInt(Integer::intValue).sum();
+		assertEquals(expectedSum, builder.sumPieces(board, p -> p));
+	}
+
 	private void testStream(Map<Integer, Integer> expected, IntStream pieces) {
 		final List<Integer> expectedValues = new ArrayList<>(expected.values());
 		Collections.sort(expectedValues);
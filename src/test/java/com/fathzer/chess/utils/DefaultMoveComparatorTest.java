@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import static com.github.bhlangonijr.chesslib.Square.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -64,4 +66,32 @@ class DefaultMoveComparatorTest {
 		final Move knightMove = new Move(D8, C6);
 		assertTrue(cmp.compare(knightMove, pawnCatch)>0);
 	}
+
+	@Test
+	void testSort() {
+		final ChessLibMoveGenerator board = new ChessLibMoveGenerator(new Board());
+		final AbstractDefaultMoveComparator<Move, ChessLibMoveGenerator> cmp = new ChessLibDefaultMoveComparator(board);
+		// A short list, sorted with an insertion sort
+		board.getBoard().loadFromFen("Q2n4/4P3/8/5P2/8/qK3p1k/1P6/8 w - - 0 1");
+		final Move[] moves = new Move[] {new Move(F5, F6), new Move(A8, A3), new Move(A8, F3), new Move(B3, A3), new Move(E7, D8, Piece.WHITE_QUEEN), new Move(E7, E8, Piece.WHITE_QUEEN)};
+		assertSort(cmp, moves, moves.length);
+
+		// A long list, partially sorted
+		board.getBoard().loadFromFen("r1bqk2r/pp1n1ppp/2pbpn2/3p4/2PP4/2N1PN2/PPQ2PPP/R1B1KB1R w KQkq - 0 1");
+		final Move[] legalMoves = board.getLegalMoves().toArray(Move[]::new);
+		assertTrue(legalMoves.length>AbstractDefaultMoveComparator.INSERTION_SORT_THRESHOLD);
+		assertSort(cmp, legalMoves.clone(), legalMoves.length);
+		assertSort(cmp, legalMoves.clone(), 3);
+	}
+
+	private void assertSort(AbstractDefaultMoveComparator<Move, ChessLibMoveGenerator> cmp, Move[] moves, int count) {
+		final List<Move> expected = new ArrayList<>(Arrays.asList(moves));
+		expected.sort(cmp);
+		final int[] scores = new int[moves.length];
+		cmp.sort(moves, scores, moves.length, count);
+		assertEquals(expected.subList(0, count), Arrays.asList(moves).subList(0, count));
+		for (int i = 0; i < count; i++) {
+			assertEquals(cmp.evaluate(moves[i]), scores[i]);
+		}
+	}
 }
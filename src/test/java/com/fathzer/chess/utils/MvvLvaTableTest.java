@@ -0,0 +1,41 @@
+package com.fathzer.chess.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.fathzer.chess.utils.Pieces.*;
+
+import org.junit.jupiter.api.Test;
+
+class MvvLvaTableTest {
+	@Test
+	void testDefault() {
+		final MvvLvaTable table = MvvLvaTable.DEFAULT;
+		for (int victim = PAWN; victim <= QUEEN; victim++) {
+			assertEquals(0, table.getCaptureScore(0, victim));
+			for (int attacker = PAWN; attacker <= KING; attacker++) {
+				assertEquals(Pieces.getPoints(victim)*16 - Pieces.getPoints(attacker), table.getCaptureScore(victim, attacker));
+			}
+		}
+		assertEquals(0, table.getPromotionScore(0));
+		for (int promotion = KNIGHT; promotion <= QUEEN; promotion++) {
+			assertEquals((Pieces.getPoints(promotion)-1)*16, table.getPromotionScore(promotion));
+		}
+		assertTrue(table.getCaptureScore(PAWN, KING)>0);
+	}
+
+	@Test
+	void testCustom() {
+		final int[] victims = new int[] {0, 100, 320, 330, 500, 900, 2000};
+		final int[] attackers = new int[] {0, 1, 3, 3, 5, 9, 20};
+		final int[] promotions = new int[] {0, 0, 220, 230, 400, 800, 0};
+		final MvvLvaTable table = new MvvLvaTable(victims, attackers, promotions);
+		assertEquals(891, table.getCaptureScore(QUEEN, QUEEN));
+		assertEquals(99, table.getCaptureScore(PAWN, PAWN));
+		assertEquals(800, table.getPromotionScore(QUEEN));
+
+		assertThrows(IllegalArgumentException.class, () -> new MvvLvaTable(new int[6], attackers, promotions));
+		// Pawn capture by a rook has a null score
+		assertThrows(IllegalArgumentException.class, () -> new MvvLvaTable(new int[] {0, 5, 320, 330, 500, 900, 2000}, attackers, promotions));
+		// Knight promotion has a null score
+		assertThrows(IllegalArgumentException.class, () -> new MvvLvaTable(victims, attackers, new int[] {0, 0, 0, 230, 400, 800, 0}));
+	}
+}
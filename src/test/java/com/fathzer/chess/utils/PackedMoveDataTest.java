@@ -0,0 +1,89 @@
+package com.fathzer.chess.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.fathzer.chess.utils.Pieces.*;
+import static com.github.bhlangonijr.chesslib.Square.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class PackedMoveDataTest {
+	@Test
+	void test() {
+		// Castling, captures, en passant, promotions with and without capture, for both sides
+		final String[] fens = {
+			"r2qkb1r/1Ppb1ppp/4pn2/p2p4/3P1B2/4P3/P1P2PPP/RN1QK2R w KQkq - 0 6",
+			"rn1qkb1r/1ppb1ppp/4pn2/pP1p4/3P1B2/4P3/P1P2PPP/RN1QKBNR w KQkq a6 0 6",
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/Pp2P3/2N2Q1p/1PPBBPPP/R3K2R b KQkq a3 0 1",
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 b kq - 0 1"};
+		final ChessLibMoveData expected = new ChessLibMoveData();
+		final PackedMoveData<Move, ChessLibMoveGenerator> mv = new PackedMoveData<>(new ChessLibMoveData());
+		final PackedMoveData<Move, ChessLibMoveGenerator> decoded = new PackedMoveData<>();
+		for (String fen : fens) {
+			final ChessLibMoveGenerator board = FENUtils.from(fen);
+			for (Move move : board.getBoard().pseudoLegalMoves()) {
+				assertTrue(expected.update(move, board));
+				assertTrue(mv.update(move, board));
+				decoded.setPackedValue(mv.getPackedValue());
+				assertSameData(expected, mv, move);
+				assertSameData(expected, decoded, move);
+			}
+		}
+		// Illegal move (no moving piece)
+		assertFalse(mv.update(new Move(B2, B3), FENUtils.from(fens[1])));
+	}
+
+	private static void assertSameData(MoveData<Move, ChessLibMoveGenerator> expected, MoveData<Move, ChessLibMoveGenerator> actual, Move move) {
+		final String message = "Error for "+move;
+		assertEquals(expected.getMovingIndex(), actual.getMovingIndex(), message);
+		assertEquals(expected.getMovingPiece(), actual.getMovingPiece(), message);
+		assertEquals(expected.getMovingDestination(), actual.getMovingDestination(), message);
+		assertEquals(expected.getCapturedType(), actual.getCapturedType(), message);
+		if (expected.getCapturedType()!=0) {
+			// The captured index is undefined when nothing is captured
+			assertEquals(expected.getCapturedIndex(), actual.getCapturedIndex(), message);
+		}
+		assertEquals(expected.getPromotionType(), actual.getPromotionType(), message);
+		assertEquals(expected.getCastlingRookIndex(), actual.getCastlingRookIndex(), message);
+		if (expected.getCastlingRookIndex()>=0) {
+			assertEquals(expected.getCastlingRookDestinationIndex(), actual.getCastlingRookDestinationIndex(), message);
+		}
+	}
+
+	@Test
+	void testStaticDecoding() {
+		final PackedMoveData<Move, ChessLibMoveGenerator> mv = new PackedMoveData<>(new ChessLibMoveData());
+		// Black pawn captures en passant
+		ChessLibMoveGenerator board = FENUtils.from("4k3/8/8/8/Pp6/8/8/4K3 b - a3 0 1");
+		assertTrue(mv.update(new Move(B4, A3), board));
+		final int packed = mv.getPackedValue();
+		assertEquals(-PAWN, PackedMoveData.getMovingPiece(packed));
+		assertEquals(33, PackedMoveData.getMovingIndex(packed));
+		assertEquals(40, PackedMoveData.getMovingDestination(packed));
+		assertEquals(PAWN, PackedMoveData.getCapturedType(packed));
+		assertEquals(32, PackedMoveData.getCapturedIndex(packed));
+		assertEquals(-1, PackedMoveData.getCastlingRookIndex(packed));
+		
+		// Black king side castling
+		board = FENUtils.from("4k2r/8/8/8/8/8/8/4K3 b k - 0 1");
+		assertTrue(mv.update(new Move(E8, G8), board));
+		
+		// Decoding a stored value does not need a decoder
+		final PackedMoveData<Move, ChessLibMoveGenerator> decoded = new PackedMoveData<>();
+		decoded.setPackedValue(mv.getPackedValue());
+		assertEquals(-KING, decoded.getMovingPiece());
+		assertEquals(4, decoded.getMovingIndex());
+		assertEquals(6, decoded.getMovingDestination());
+		assertEquals(0, decoded.getCapturedType());
+		assertEquals(7, decoded.getCastlingRookIndex());
+		assertEquals(5, decoded.getCastlingRookDestinationIndex());
+		assertThrows(UnsupportedOperationException.class, () -> decoded.update(new Move(E8, G8), FENUtils.from("4k2r/8/8/8/8/8/8/4K3 b k - 0 1")));
+	}
+}
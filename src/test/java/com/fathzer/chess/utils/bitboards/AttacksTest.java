@@ -0,0 +1,57 @@
+package com.fathzer.chess.utils.bitboards;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AttacksTest {
+	private static long cells(String... cells) {
+		long result = 0;
+		for (String cell : cells) {
+			result |= 1L << index(cell);
+		}
+		return result;
+	}
+
+	private static int index(String cell) {
+		return ('8'-cell.charAt(1))*8 + cell.charAt(0)-'a';
+	}
+
+	@Test
+	void testLeapers() {
+		assertEquals(cells("b6", "c7"), Attacks.knight(index("a8")));
+		assertEquals(cells("c3", "e3", "b4", "f4", "b6", "f6", "c7", "e7"), Attacks.knight(index("d5")));
+		assertEquals(cells("g1", "g2", "h2"), Attacks.king(index("h1")));
+		assertEquals(8, Long.bitCount(Attacks.king(index("e4"))));
+		assertEquals(cells("d3", "f3"), Attacks.pawn(false, index("e2")));
+		assertEquals(cells("b3"), Attacks.pawn(false, index("a2")));
+		assertEquals(cells("d6", "f6"), Attacks.pawn(true, index("e7")));
+		assertEquals(cells("g6"), Attacks.pawn(true, index("h7")));
+	}
+
+	@Test
+	void testSliders() {
+		final long occupancy = cells("e2", "e7", "b4", "g4", "c2");
+		assertEquals(cells("e3", "e2", "e5", "e6", "e7", "d4", "c4", "b4", "f4", "g4"), Attacks.rook(index("e4"), occupancy));
+		assertEquals(cells("d3", "c2", "f3", "g2", "h1", "d5", "c6", "b7", "a8", "f5", "g6", "h7"), Attacks.bishop(index("e4"), occupancy));
+		assertEquals(Attacks.rook(index("e4"), occupancy) | Attacks.bishop(index("e4"), occupancy), Attacks.queen(index("e4"), occupancy));
+		assertEquals(cells("b8", "c8", "d8", "e8", "f8", "g8", "h8", "a7", "a6", "a5", "a4", "a3", "a2", "a1"), Attacks.rook(index("a8"), 0L));
+
+		final Random rnd = new Random(0);
+		for (int i = 0; i < 100000; i++) {
+			final long occ = rnd.nextLong() & rnd.nextLong();
+			final int index = rnd.nextInt(64);
+			assertEquals(SlidingAttacks.getAttacks(Attacks.ROOK_DIRECTIONS, index, occ), Attacks.rook(index, occ));
+			assertEquals(SlidingAttacks.getAttacks(Attacks.BISHOP_DIRECTIONS, index, occ), Attacks.bishop(index, occ));
+		}
+	}
+
+	@Test
+	void testInvalidMagic() {
+		final long[] magics = SlidingAttacks.ROOK_MAGICS.clone();
+		magics[10] = 1L;
+		assertThrows(IllegalArgumentException.class, () -> new SlidingAttacks(Attacks.ROOK_DIRECTIONS, magics));
+	}
+}
@@ -0,0 +1,96 @@
+package com.fathzer.chess.utils.bitboards;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorerBuilder;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class StaticExchangeEvaluatorTest {
+	private static final BoardExplorerBuilder<ChessLibMoveGenerator> BUILDER = b -> new ChessLibBoardExplorer(b.getBoard());
+	private final StaticExchangeEvaluator see = new StaticExchangeEvaluator();
+
+	private void assertSee(int expected, String fen, String move) {
+		final ChessLibMoveGenerator board = FENUtils.from(fen);
+		final long[] bitboards = new long[12];
+		BUILDER.fillBitboards(board, bitboards);
+		final ChessLibMoveData data = new ChessLibMoveData();
+		assertTrue(data.update(new Move(move, board.getBoard().getSideToMove()), board));
+		assertEquals(expected, see.evaluate(bitboards, data), move);
+		assertEquals(expected, see.evaluate(bitboards, 0, data, new int[StaticExchangeEvaluator.MAX_EXCHANGES]), move);
+		assertTrue(see.isAtLeast(bitboards, data, expected));
+		assertTrue(see.isAtLeast(bitboards, data, expected-1));
+		assertFalse(see.isAtLeast(bitboards, data, expected+1));
+	}
+
+	@Test
+	void testExchanges() {
+		// Not defended pawn
+		assertSee(100, "1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5");
+		// Defended knight
+		assertSee(200, "4k3/8/3p4/4n3/3P4/8/8/4K3 w - - 0 1", "d4e5");
+		assertSee(100, "4k3/8/3p4/4n3/3P4/8/8/4K3 b - - 0 1", "e5d4");
+		// Quiet move to an attacked cell
+		assertSee(-300, "4k3/8/3p4/8/8/2N5/8/4K3 w - - 0 1", "c3e5");
+		assertSee(0, "4k3/8/8/8/8/2N5/8/4K3 w - - 0 1", "c3e4");
+	}
+
+	@Test
+	void testXRays() {
+		// Queens behind the rook and the bishop
+		assertSee(-200, "1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3e5");
+		// Doubled rooks
+		assertSee(100, "4k3/4r3/8/4p3/8/8/4R3/4RK2 w - - 0 1", "e2e5");
+		assertSee(-400, "4k3/4r3/8/4p3/8/8/4R3/5K2 w - - 0 1", "e2e5");
+	}
+
+	@Test
+	void testSpecialMoves() {
+		// En passant: the captured pawn no longer hides the white rook
+		assertSee(100, "3rk3/8/8/3pP3/8/8/8/3RK3 w - d6 0 1", "e5d6");
+		// Promotions
+		assertSee(1300, "3r3k/2P5/8/8/8/8/8/K7 w - - 0 1", "c7d8q");
+		assertSee(-100, "3r3k/2P5/8/8/8/8/8/K7 w - - 0 1", "c7c8q");
+		// Castling
+		assertSee(0, "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1g1");
+	}
+
+	@Test
+	void testReusedMoveData() {
+		final ChessLibMoveData data = new ChessLibMoveData();
+		// A capture on d6 ...
+		ChessLibMoveGenerator board = FENUtils.from("4k3/8/3p4/8/8/8/3R4/4K3 w - - 0 1");
+		final long[] bitboards = new long[12];
+		BUILDER.fillBitboards(board, bitboards);
+		assertTrue(data.update(new Move("d2d6", board.getBoard().getSideToMove()), board));
+		assertEquals(100, see.evaluate(bitboards, data));
+		// ... then a quiet move to a cell defended by a pawn on d6 must not remove this pawn
+		board = FENUtils.from("4k3/8/3p4/8/8/2N5/8/4K3 w - - 0 1");
+		BUILDER.fillBitboards(board, bitboards);
+		assertTrue(data.update(new Move("c3e5", board.getBoard().getSideToMove()), board));
+		assertEquals(-300, see.evaluate(bitboards, data));
+		assertFalse(see.isAtLeast(bitboards, data, 0));
+		assertTrue(see.isAtLeast(bitboards, data, -300));
+	}
+
+	@Test
+	void testKing() {
+		// King can capture a not defended piece
+		assertSee(0, "8/8/3k4/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5");
+		// King can't capture a defended piece
+		assertSee(100, "8/8/3k4/3p4/4P3/8/8/3RK3 w - - 0 1", "e4d5");
+	}
+
+	@Test
+	void testCustomValues() {
+		final StaticExchangeEvaluator custom = new StaticExchangeEvaluator(new int[] {0, 100, 325, 325, 500, 975, 0});
+		assertEquals(325, custom.getValue(2));
+		assertThrows(IllegalArgumentException.class, () -> new StaticExchangeEvaluator(new int[6]));
+		assertThrows(IllegalArgumentException.class, () -> custom.evaluate(new long[12], 0, new ChessLibMoveData(), new int[1]));
+	}
+}
@@ -0,0 +1,123 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.fathzer.games.ai.evaluation.Evaluator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class AbstractArrayStateChessEvaluatorTest {
+	/** An evaluator with an int field that sums the signed cell indexes of the pieces and a long field that is the occupancy. */
+	private static class MyEval extends AbstractArrayStateChessEvaluator<Move, ChessLibMoveGenerator> {
+		public MyEval() {
+			super(1, 1);
+		}
+
+		@Override
+		protected void add(int pieceType, boolean isBlack, int to) {
+			ints[intsToCommit] += isBlack ? -to : to;
+			longs[longsToCommit] |= 1L<<to;
+		}
+
+		@Override
+		protected void move(int pieceType, boolean isBlack, int from, int to) {
+			ints[intsToCommit] += isBlack ? from-to : to-from;
+			longs[longsToCommit] ^= (1L<<from) | (1L<<to);
+		}
+
+		@Override
+		protected void remove(int pieceType, boolean isBlack, int from) {
+			ints[intsToCommit] -= isBlack ? -from : from;
+			longs[longsToCommit] &= ~(1L<<from);
+		}
+
+		@Override
+		public int evaluateAsWhite(ChessLibMoveGenerator board) {
+			return ints[getIntsIndex()];
+		}
+
+		long getOccupancy() {
+			return longs[getLongsIndex()];
+		}
+
+		@Override
+		public Evaluator<Move, ChessLibMoveGenerator> fork() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+	}
+
+	@Test
+	void test() {
+		// Knights go back and forth far deeper than the initial capacity (64 plies) of the arrays
+		final String[] cycle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+		final int plies = 150;
+		for (boolean lazy : new boolean[] {false, true}) {
+			final MyEval ev = new MyEval();
+			ev.setLazy(lazy);
+			final ChessLibMoveGenerator board = FENUtils.from("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+			ev.init(board);
+			final int[] evaluations = new int[plies+1];
+			final long[] occupancies = new long[plies+1];
+			evaluations[0] = ev.evaluateAsWhite(board);
+			occupancies[0] = ev.getOccupancy();
+			for (int ply = 1; ply <= plies; ply++) {
+				final Move mv = new Move(cycle[(ply-1)%cycle.length], board.getBoard().getSideToMove());
+				ev.prepareMove(board, mv);
+				assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+				ev.commitMove();
+				final MyEval expected = new MyEval();
+				expected.init(board);
+				evaluations[ply] = ev.evaluateAsWhite(board);
+				occupancies[ply] = ev.getOccupancy();
+				assertEquals(expected.evaluateAsWhite(board), evaluations[ply], "at ply "+ply);
+				assertEquals(expected.getOccupancy(), occupancies[ply], "at ply "+ply);
+			}
+			assertNotEquals(evaluations[0], evaluations[1]);
+			// Unmaking moves restores the states of every ply, including the ones stored before the arrays grew
+			for (int ply = plies-1; ply >= 0; ply--) {
+				ev.unmakeMove();
+				board.unmakeMove();
+				assertEquals(evaluations[ply], ev.evaluateAsWhite(board), "at ply "+ply);
+				assertEquals(occupancies[ply], ev.getOccupancy(), "at ply "+ply);
+			}
+		}
+	}
+
+	@Test
+	void testInvalidMove() {
+		for (boolean lazy : new boolean[] {false, true}) {
+			final MyEval ev = new MyEval();
+			ev.setLazy(lazy);
+			final ChessLibMoveGenerator board = FENUtils.from("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+			ev.init(board);
+			final int evaluation = ev.evaluateAsWhite(board);
+			// A sibling move fills the block of the next ply
+			ev.prepareMove(board, new Move("g1f3", board.getBoard().getSideToMove()));
+			ev.commitMove();
+			assertNotEquals(evaluation, ev.evaluateAsWhite(board));
+			ev.unmakeMove();
+			// There's no piece on a3, the state of the parent should be kept
+			ev.prepareMove(board, new Move("a3a4", board.getBoard().getSideToMove()));
+			ev.commitMove();
+			assertEquals(evaluation, ev.evaluateAsWhite(board), "lazy="+lazy);
+		}
+	}
+}
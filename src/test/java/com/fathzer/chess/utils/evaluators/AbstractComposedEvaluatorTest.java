@@ -0,0 +1,200 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.fathzer.chess.utils.Pieces.PAWN;
+import static com.github.bhlangonijr.chesslib.Square.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.chess.utils.evaluators.pawns.PawnStructure;
+import com.fathzer.chess.utils.evaluators.pawns.PawnStructureComponent;
+import com.fathzer.chess.utils.evaluators.pesto.PestoComponent;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class AbstractComposedEvaluatorTest {
+	private static final int[] VALUES = {0,100,300,300,500,900,0};
+
+	/** A component that counts the material and the number of pieces on the board. */
+	private static class MaterialComponent implements EvaluatorComponent {
+		@Override
+		public int getStateSize() {
+			return 2;
+		}
+
+		@Override
+		public void add(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int to) {
+			state[index] += isBlack ? -VALUES[pieceType] : VALUES[pieceType];
+			state[index+1]++;
+		}
+
+		@Override
+		public void move(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from, int to) {
+			// Moving a piece does not change the material
+		}
+
+		@Override
+		public void remove(int[] state, int index, long[] longState, int longIndex, int pieceType, boolean isBlack, int from) {
+			state[index] -= isBlack ? -VALUES[pieceType] : VALUES[pieceType];
+			state[index+1]--;
+		}
+
+		@Override
+		public int evaluateAsWhite(int[] state, int index, long[] longState, int longIndex) {
+			return state[index];
+		}
+	}
+
+	private static class MyEval extends AbstractComposedEvaluator<Move, ChessLibMoveGenerator> {
+		private static final List<EvaluatorComponent> COMPONENTS = Arrays.asList(new PestoComponent(), new MaterialComponent());
+
+		private final List<EvaluatorComponent> components;
+
+		public MyEval() {
+			this(COMPONENTS);
+		}
+
+		public MyEval(List<EvaluatorComponent> components) {
+			super(components);
+			this.components = components;
+		}
+
+		public MyEval(List<EvaluatorComponent> components, int[] state, long[] longState) {
+			super(components, state, longState);
+			this.components = components;
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+
+		@Override
+		protected AbstractComposedEvaluator<Move, ChessLibMoveGenerator> fork(int[] state, long[] longState) {
+			return new MyEval(components, state, longState);
+		}
+
+		@Override
+		public int[] getState() {
+			return super.getState();
+		}
+
+		@Override
+		public long[] getLongState() {
+			return super.getLongState();
+		}
+	}
+
+	private static int getPesto(ChessLibMoveGenerator board) {
+		final MyEval ev = new MyEval();
+		ev.init(board);
+		final int[] state = ev.getState();
+		return new PestoComponent().evaluateAsWhite(state, 0, null, 0);
+	}
+
+	@Test
+	void test() {
+		assertThrows(IllegalArgumentException.class, () -> new AbstractComposedEvaluator<Move, ChessLibMoveGenerator>(List.of()) {
+			@Override
+			public MoveData<Move, ChessLibMoveGenerator> get() {
+				return null;
+			}
+
+			@Override
+			public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+				return null;
+			}
+
+			@Override
+			protected AbstractComposedEvaluator<Move, ChessLibMoveGenerator> fork(int[] state, long[] longState) {
+				return null;
+			}
+		});
+		assertThrows(IllegalArgumentException.class, () -> new MyEval(MyEval.COMPONENTS, new int[3], new long[0]));
+		assertThrows(IllegalArgumentException.class, () -> new MyEval(MyEval.COMPONENTS, new int[4], new long[1]));
+
+		final MyEval ev = new MyEval();
+		final ChessLibMoveGenerator board = FENUtils.from("3qk3/7P/8/8/8/N7/B4r2/4K3 w - - 0 1");
+		ev.init(board);
+		// Pesto state is followed by material state (score and piece count)
+		final int[] state = ev.getState();
+		assertEquals(4, state.length);
+		assertEquals(-700, state[2]);
+		assertEquals(7, state[3]);
+		final int expected = getPesto(board) - 700;
+		assertEquals(expected, ev.evaluateAsWhite(board));
+
+		// Take black rook
+		final Move mv = new Move(E1, F2);
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		final int expected2 = getPesto(board) - 200;
+		assertEquals(expected2, ev.evaluateAsWhite(board));
+		assertEquals(6, ev.getState()[3]);
+
+		final MyEval forked = (MyEval) ev.fork();
+		assertEquals(expected2, forked.evaluateAsWhite(board));
+		assertArrayEquals(ev.getState(), forked.getState());
+
+		ev.unmakeMove();
+		board.unmakeMove();
+		assertEquals(expected, ev.evaluateAsWhite(board));
+		assertEquals(expected2, forked.evaluateAsWhite(board));
+	}
+
+	@Test
+	void testLongState() {
+		final EvaluationCache pawnTable = new EvaluationCache(1024);
+		final List<EvaluatorComponent> components = Arrays.asList(new PestoComponent(), new PawnStructureComponent(pawnTable, PawnStructure.DEFAULT));
+		final MyEval ev = new MyEval(components);
+		final ChessLibMoveGenerator board = FENUtils.from("4k3/8/8/1p6/3P4/2P5/8/4K3 w - - 0 1");
+		ev.init(board);
+		// Pesto state is followed by the pawn key and bitboards
+		assertEquals(2, ev.getState().length);
+		assertEquals(3, ev.getLongState().length);
+		final int expected = getPesto(board) + getPawnStructure(ev, board);
+		assertEquals(expected, ev.evaluateAsWhite(board));
+
+		// c3-c4 b5xc4
+		for (String move : new String[] {"c3c4", "b5c4"}) {
+			final Move mv = new Move(move, board.getBoard().getSideToMove());
+			ev.prepareMove(board, mv);
+			assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+			ev.commitMove();
+		}
+		final int expected2 = getPesto(board) + getPawnStructure(ev, board);
+		assertEquals(expected2, ev.evaluateAsWhite(board));
+
+		final MyEval forked = (MyEval) ev.fork();
+		assertArrayEquals(ev.getLongState(), forked.getLongState());
+		assertEquals(expected2, forked.evaluateAsWhite(board));
+
+		ev.unmakeMove();
+		board.unmakeMove();
+		ev.unmakeMove();
+		board.unmakeMove();
+		assertEquals(expected, ev.evaluateAsWhite(board));
+		assertTrue(pawnTable.getHits()>0);
+	}
+
+	private static int getPawnStructure(MyEval ev, ChessLibMoveGenerator board) {
+		final long[] bitboards = new long[12];
+		ev.fillBitboards(board, bitboards);
+		return PawnStructure.DEFAULT.evaluate(bitboards[BitboardState.getOffset(PAWN, false)], bitboards[BitboardState.getOffset(PAWN, true)]);
+	}
+}
@@ -2,12 +2,15 @@ package com.fathzer.chess.utils.evaluators;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import static com.fathzer.chess.utils.Pieces.*;
+
 import org.junit.jupiter.api.Test;
 
 import com.fathzer.chess.test.utils.FENUtils;
 import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
 import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
 import com.fathzer.chess.utils.evaluators.pesto.EndGamePieceSquareTable;
+import com.fathzer.chess.utils.evaluators.pesto.MiddleGamePieceSquareTable;
 
 class AbstractPieceSquareTableTest {
 
@@ -18,4 +21,38 @@ class AbstractPieceSquareTableTest {
 		assertEquals(expected, new EndGamePieceSquareTable().getRawEvaluation(new ChessLibBoardExplorer(board.getBoard())));
 	}
 
+	@Test
+	void testCompiled() {
+		final AbstractPieceSquareTable table = new MiddleGamePieceSquareTable();
+		final CompiledPieceSquareTable compiled = new CompiledPieceSquareTable(table);
+		for (int pieceType = PAWN; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				assertEquals(table.get(pieceType, false, index), compiled.get(pieceType, index));
+				assertEquals(table.get(pieceType, true, index), compiled.get(-pieceType, index));
+			}
+		}
+		// e2 white pawn and e7 black pawn have opposite values
+		assertEquals(-compiled.get(PAWN, 52), compiled.get(-PAWN, 12));
+		for (int index = 0; index < 64; index++) {
+			assertEquals(0, compiled.get(0, index));
+		}
+	}
+
+	@Test
+	void testTapered() {
+		final AbstractPieceSquareTable middleGame = new MiddleGamePieceSquareTable();
+		final AbstractPieceSquareTable endGame = new EndGamePieceSquareTable();
+		final TaperedPieceSquareTable tapered = new TaperedPieceSquareTable(middleGame, endGame);
+		for (int pieceType = PAWN; pieceType <= KING; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				int packed = tapered.get(-pieceType, index);
+				assertEquals(middleGame.get(pieceType, true, index), TaperedPieceSquareTable.getMiddleGame(packed));
+				assertEquals(endGame.get(pieceType, true, index), TaperedPieceSquareTable.getEndGame(packed));
+			}
+		}
+		// Packed scores can be added and subtracted
+		final int packed = TaperedPieceSquareTable.pack(-20, 30) + TaperedPieceSquareTable.pack(15, -40) - TaperedPieceSquareTable.pack(-100, -100);
+		assertEquals(95, TaperedPieceSquareTable.getMiddleGame(packed));
+		assertEquals(90, TaperedPieceSquareTable.getEndGame(packed));
+	}
 }
@@ -0,0 +1,116 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.fathzer.games.ai.evaluation.Evaluator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class BitboardStateTest {
+	/** An evaluator that counts the pieces, with its bitboards after its own long field. */
+	private static class MyEval extends AbstractArrayStateChessEvaluator<Move, ChessLibMoveGenerator> {
+		private static final int COUNT = 0;
+		private static final int BITBOARDS = 1;
+
+		public MyEval() {
+			super(0, BITBOARDS+BitboardState.SIZE);
+		}
+
+		@Override
+		protected void add(int pieceType, boolean isBlack, int to) {
+			longs[longsToCommit+COUNT]++;
+			BitboardState.add(longs, longsToCommit+BITBOARDS, pieceType, isBlack, to);
+		}
+
+		@Override
+		protected void move(int pieceType, boolean isBlack, int from, int to) {
+			BitboardState.move(longs, longsToCommit+BITBOARDS, pieceType, isBlack, from, to);
+		}
+
+		@Override
+		protected void remove(int pieceType, boolean isBlack, int from) {
+			longs[longsToCommit+COUNT]--;
+			BitboardState.remove(longs, longsToCommit+BITBOARDS, pieceType, isBlack, from);
+		}
+
+		@Override
+		public int evaluateAsWhite(ChessLibMoveGenerator board) {
+			final int index = getLongsIndex();
+			return (int)longs[index+COUNT] - Long.bitCount(BitboardState.getOccupancy(longs, index+BITBOARDS));
+		}
+
+		long[] getBitboards() {
+			final int index = getLongsIndex()+BITBOARDS;
+			return Arrays.copyOfRange(longs, index, index+BitboardState.SIZE);
+		}
+
+		@Override
+		public Evaluator<Move, ChessLibMoveGenerator> fork() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+	}
+
+	private static void assertBitboards(MyEval ev, ChessLibMoveGenerator board) {
+		final long[] expected = new long[12];
+		ev.fillBitboards(board, expected);
+		final long[] bitboards = ev.getBitboards();
+		assertArrayEquals(expected, Arrays.copyOf(bitboards, 12));
+		long white = 0;
+		long black = 0;
+		for (int pieceType = 1; pieceType <= 6; pieceType++) {
+			white |= BitboardState.get(bitboards, 0, pieceType);
+			black |= BitboardState.get(bitboards, 0, -pieceType);
+			assertEquals(bitboards[BitboardState.getOffset(pieceType, true)], BitboardState.get(bitboards, 0, -pieceType));
+		}
+		assertEquals(white, BitboardState.getOccupancy(bitboards, 0, false));
+		assertEquals(black, BitboardState.getOccupancy(bitboards, 0, true));
+		assertEquals(white | black, BitboardState.getOccupancy(bitboards, 0));
+		assertEquals(0, ev.evaluateAsWhite(board));
+	}
+
+	@Test
+	void test() {
+		for (boolean lazy : new boolean[] {false, true}) {
+			final MyEval ev = new MyEval();
+			ev.setLazy(lazy);
+			final ChessLibMoveGenerator board = FENUtils.from("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+			ev.init(board);
+			assertBitboards(ev, board);
+			final long[] initial = ev.getBitboards();
+			// Castling, captures, en passant and promotion
+			final String[] moves = {"e1g1", "h3g2", "a2a4", "b4a3", "e5f7", "g2f1q"};
+			for (String move : moves) {
+				final Move mv = new Move(move, board.getBoard().getSideToMove());
+				ev.prepareMove(board, mv);
+				assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+				ev.commitMove();
+				assertBitboards(ev, board);
+			}
+			for (int i = 0; i < moves.length; i++) {
+				ev.unmakeMove();
+				board.unmakeMove();
+			}
+			assertArrayEquals(initial, ev.getBitboards());
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static com.github.bhlangonijr.chesslib.Square.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class EvaluationCacheTest {
+
+	@Test
+	void testCache() {
+		assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(0));
+		assertEquals(1, new EvaluationCache(1).getSize());
+		assertEquals(1024, new EvaluationCache(1000).getSize());
+		final EvaluationCache cache = new EvaluationCache(1024);
+		assertEquals(1024, cache.getSize());
+		assertEquals(0.0, cache.getHitRate());
+
+		// An empty entry should not match a key whose verification bits are 0
+		assertEquals(EvaluationCache.NOT_FOUND, cache.get(0L));
+		cache.put(0L, 0);
+		assertEquals(0, cache.get(0L));
+
+		final long key = 0x123456789ABCDEF0L;
+		cache.put(key, -150);
+		assertEquals(-150, cache.get(key));
+		// Same index, other verification bits
+		final long other = key ^ 0x0100000000000000L;
+		assertEquals(EvaluationCache.NOT_FOUND, cache.get(other));
+		cache.put(other, 42);
+		assertEquals(42, cache.get(other));
+		assertEquals(EvaluationCache.NOT_FOUND, cache.get(key));
+		// NOT_FOUND can't be stored, the entry is left unchanged
+		cache.put(other, EvaluationCache.NOT_FOUND);
+
+		assertEquals(6, cache.getProbes());
+		assertEquals(3, cache.getHits());
+		assertEquals(0.5, cache.getHitRate());
+		cache.resetStatistics();
+		assertEquals(0, cache.getProbes());
+		assertEquals(42, cache.get(other));
+		cache.clear();
+		assertEquals(0, cache.getProbes());
+		assertEquals(EvaluationCache.NOT_FOUND, cache.get(other));
+	}
+
+	@Test
+	void testEvaluator() {
+		final EvaluationCache cache = new EvaluationCache(1024);
+		final CachedEvaluator<Move, ChessLibMoveGenerator> ev = new CachedEvaluator<>(new ChessLibNaiveEvaluator(), cache);
+		final ChessLibMoveGenerator board = FENUtils.from("3qk3/7P/8/8/8/N7/B4r2/4K3 w - - 0 1");
+		ev.init(board);
+		assertEquals(-700, ev.evaluateAsWhite(board));
+		assertEquals(0, cache.getHits());
+		assertEquals(-700, ev.evaluateAsWhite(board));
+		assertEquals(1, cache.getHits());
+
+		// Moves are forwarded to the wrapped evaluator
+		final Move mv = new Move(E1, F2);
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		assertEquals(-200, ev.evaluateAsWhite(board));
+		assertEquals(1, cache.getHits());
+
+		// Forked evaluator shares the cache
+		@SuppressWarnings("unchecked")
+		final CachedEvaluator<Move, ChessLibMoveGenerator> forked = (CachedEvaluator<Move, ChessLibMoveGenerator>) ev.fork();
+		assertSame(cache, forked.getCache());
+		assertEquals(-200, forked.evaluateAsWhite(board));
+		assertEquals(2, cache.getHits());
+
+		ev.unmakeMove();
+		board.unmakeMove();
+		assertEquals(-700, ev.evaluateAsWhite(board));
+		assertEquals(3, cache.getHits());
+	}
+}
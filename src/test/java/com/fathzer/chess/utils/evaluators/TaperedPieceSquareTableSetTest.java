@@ -0,0 +1,129 @@
+package com.fathzer.chess.utils.evaluators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.chess.utils.evaluators.pesto.AbstractIncrementalPestoEvaluator;
+import com.fathzer.chess.utils.evaluators.pesto.EndGamePieceSquareTable;
+import com.fathzer.chess.utils.evaluators.pesto.MiddleGamePieceSquareTable;
+import com.fathzer.chess.utils.evaluators.pesto.PestoComponent;
+import com.fathzer.chess.utils.evaluators.pesto.PestoState;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class TaperedPieceSquareTableSetTest {
+	private static class MyEval extends AbstractIncrementalPestoEvaluator<Move, ChessLibMoveGenerator> {
+		public MyEval(PestoComponent pesto) {
+			super(pesto);
+		}
+
+		private MyEval(PestoComponent pesto, PestoState state) {
+			super(pesto, state);
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+
+		@Override
+		protected AbstractIncrementalPestoEvaluator<Move, ChessLibMoveGenerator> fork(PestoState state) {
+			return new MyEval(getComponent(), state);
+		}
+	}
+
+	private static final TaperedPieceSquareTableSet PESTO = new TaperedPieceSquareTableSet(new MiddleGamePieceSquareTable(), new EndGamePieceSquareTable());
+
+	private static void assertSameValues(TaperedPieceSquareTableSet expected, TaperedPieceSquareTableSet actual) {
+		assertEquals(expected.getChecksum(), actual.getChecksum());
+		for (int pieceType = 1; pieceType <= 6; pieceType++) {
+			for (int index = 0; index < 64; index++) {
+				assertEquals(expected.get(true, pieceType, index), actual.get(true, pieceType, index));
+				assertEquals(expected.get(false, pieceType, index), actual.get(false, pieceType, index));
+			}
+		}
+	}
+
+	@Test
+	void testBinary() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PESTO.write(out);
+		final byte[] bytes = out.toByteArray();
+		assertEquals(4+2+2*6*64*2+4, bytes.length);
+		assertSameValues(PESTO, TaperedPieceSquareTableSet.read(new ByteArrayInputStream(bytes)));
+
+		assertThrows(IOException.class, () -> TaperedPieceSquareTableSet.read(new ByteArrayInputStream(Arrays.copyOf(bytes, 100))));
+		bytes[10] ^= 1;
+		assertThrows(IOException.class, () -> TaperedPieceSquareTableSet.read(new ByteArrayInputStream(bytes)));
+		bytes[0] = 0;
+		assertThrows(IOException.class, () -> TaperedPieceSquareTableSet.read(new ByteArrayInputStream(bytes)));
+	}
+
+	@Test
+	void testText() throws IOException {
+		final StringWriter out = new StringWriter();
+		PESTO.write(out);
+		final String text = out.toString();
+		assertTrue(text.startsWith("mg.pawn\n"));
+		assertSameValues(PESTO, read("# A comment\n"+text));
+
+		// Sections can be in any order
+		final int endGame = text.indexOf("eg.pawn");
+		final int checksum = text.indexOf("crc32");
+		assertSameValues(PESTO, read(text.substring(endGame, checksum)+text.substring(0, endGame)+text.substring(checksum)));
+
+		assertThrows(IOException.class, () -> read(text.replaceFirst("   82", "   83")));
+		assertThrows(IOException.class, () -> read(text.replace("mg.queen", "mg.pawn")));
+		assertThrows(IOException.class, () -> read(text.replace("mg.queen", "mg.dragon")));
+		assertThrows(IOException.class, () -> read(text.substring(0, checksum)));
+		assertThrows(IOException.class, () -> read(text.replaceFirst("   82", "   x")));
+		assertThrows(IOException.class, () -> read(text.replaceFirst("   82", "   82 82")));
+		assertThrows(IOException.class, () -> read(text.replaceFirst("   82", "")));
+		assertThrows(IOException.class, () -> read(text.replaceFirst("   82", "   100000")));
+	}
+
+	private static TaperedPieceSquareTableSet read(String text) throws IOException {
+		return TaperedPieceSquareTableSet.read(new BufferedReader(new StringReader(text)));
+	}
+
+	@Test
+	void testEvaluator() throws IOException {
+		final ChessLibMoveGenerator board = FENUtils.from("3qk3/7P/8/8/8/N7/B4r2/4K3 w - - 0 1");
+		final MyEval pesto = new MyEval(new PestoComponent());
+		pesto.init(board);
+
+		final StringWriter out = new StringWriter();
+		PESTO.write(out);
+		final TaperedPieceSquareTableSet loaded = read(out.toString());
+		final MyEval ev = new MyEval(new PestoComponent(loaded.toTaperedTable()));
+		ev.init(board);
+		assertEquals(pesto.evaluateAsWhite(board), ev.evaluateAsWhite(board));
+		assertEquals(pesto.evaluateAsWhite(board), ev.fork().evaluate(board));
+
+		assertThrows(IllegalArgumentException.class, () -> new TaperedPieceSquareTableSet(new AbstractPieceSquareTable() {
+			@Override
+			protected int get(int piece, int index) {
+				return 40000;
+			}
+		}, new EndGamePieceSquareTable()));
+	}
+}
@@ -13,6 +13,8 @@ class WdlPawnsConverterTest {
 		assertEquals(0.5, toWdl(0), 1E-6);
 		assertEquals(1, toWdl(3000), 1E-2);
 		assertEquals(0, toWdl(-3000), 1E-2);
+		assertEquals(toWdl(100), toWdl(100.0), 1E-9);
+		assertTrue(toWdl(100.5)>toWdl(100));
 		
 		assertEquals(0, toCentiPawns(0.5));
 		assertTrue(toCentiPawns(0.6)>0);
@@ -0,0 +1,119 @@
+package com.fathzer.chess.utils.evaluators.material;
+
+import static com.fathzer.chess.utils.Pieces.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.chess.utils.evaluators.pesto.AbstractMaterialPestoEvaluator;
+import com.fathzer.chess.utils.evaluators.pesto.PestoComponent;
+import com.fathzer.chess.utils.evaluators.pesto.PestoState;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class MaterialTableTest {
+	private static class MyEval extends AbstractMaterialPestoEvaluator<Move, ChessLibMoveGenerator> {
+		public MyEval(MaterialTable table) {
+			super(new PestoComponent(), table);
+		}
+
+		private MyEval(PestoComponent pesto, MaterialTable table, PestoState state) {
+			super(pesto, table, state);
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+
+		@Override
+		protected AbstractMaterialPestoEvaluator<Move, ChessLibMoveGenerator> fork(PestoState state) {
+			return new MyEval(getComponent(), getMaterialTable(), state);
+		}
+	}
+
+	private static long getKey(String fen) {
+		final MyEval ev = new MyEval(null);
+		ev.init(FENUtils.from(fen));
+		return ev.getMaterialKey();
+	}
+
+	@Test
+	void testKey() {
+		final long key = getKey("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+		for (boolean isBlack : new boolean[] {false, true}) {
+			assertEquals(8, MaterialKey.getCount(key, PAWN, isBlack));
+			assertEquals(2, MaterialKey.getCount(key, KNIGHT, isBlack));
+			assertEquals(2, MaterialKey.getCount(key, BISHOP, isBlack));
+			assertEquals(1, MaterialKey.getBishops(key, isBlack, true));
+			assertEquals(1, MaterialKey.getBishops(key, isBlack, false));
+			assertEquals(2, MaterialKey.getCount(key, ROOK, isBlack));
+			assertEquals(1, MaterialKey.getCount(key, QUEEN, isBlack));
+		}
+		assertTrue(MaterialKey.isLight(0));
+		assertTrue(MaterialKey.isLight(63));
+		assertFalse(MaterialKey.isLight(7));
+
+		// Key is updated by captures and promotions
+		final MyEval ev = new MyEval(null);
+		final ChessLibMoveGenerator board = FENUtils.from("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+		ev.init(board);
+		final Move mv = new Move("b7a8q", board.getBoard().getSideToMove());
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		assertEquals(getKey("Q3k3/8/8/8/8/8/8/4K3 b - - 0 1"), ev.getMaterialKey());
+		assertEquals(ev.getMaterialKey(), ((MyEval)ev.fork()).getMaterialKey());
+		ev.unmakeMove();
+		assertEquals(getKey("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1"), ev.getMaterialKey());
+	}
+
+	@Test
+	void testTable() {
+		final MaterialTable table = new MaterialTable(1024);
+		final long start = table.get(getKey("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+		assertEquals(24, MaterialTable.getEntryPhase(start));
+		assertEquals(0, MaterialTable.getEntryImbalance(start));
+		assertEquals(MaterialTable.NORMAL_SCALE, MaterialTable.getEntryScaleFactor(start, false));
+		assertEquals(MaterialTable.NORMAL_SCALE, MaterialTable.getEntryScaleFactor(start, true));
+		assertEquals(100, MaterialTable.adjust(start, 100));
+
+		// Bishop pair
+		final long bishops = table.get(getKey("4k3/p7/8/8/8/8/PP6/2BBK3 w - - 0 1"));
+		assertEquals(MaterialTable.BISHOP_PAIR, MaterialTable.getEntryImbalance(bishops));
+		assertEquals(2, MaterialTable.getEntryPhase(bishops));
+		assertEquals(100+MaterialTable.BISHOP_PAIR, MaterialTable.adjust(bishops, 100));
+
+		// Insufficient material
+		assertEquals(0, MaterialTable.adjust(table.get(getKey("4k3/8/8/8/8/8/8/4K3 w - - 0 1")), 100));
+		assertEquals(0, MaterialTable.adjust(table.get(getKey("4k3/8/8/8/8/8/8/3BK3 w - - 0 1")), 300));
+		assertEquals(0, MaterialTable.adjust(table.get(getKey("4k3/8/8/8/8/8/8/2NNK3 w - - 0 1")), 600));
+		// Drawish endings without pawns
+		assertEquals(25, MaterialTable.adjust(table.get(getKey("3rk3/8/8/8/8/8/8/3RK3 w - - 0 1")), 100));
+		assertEquals(-25, MaterialTable.adjust(table.get(getKey("3rk3/8/8/8/8/8/8/3BK3 w - - 0 1")), -100));
+		assertEquals(500, MaterialTable.adjust(table.get(getKey("4k3/8/8/8/8/8/8/3RK3 w - - 0 1")), 500));
+		// Opposite colored bishops
+		assertEquals(50, MaterialTable.adjust(table.get(getKey("3bk3/p7/8/8/8/8/PP6/3BK3 w - - 0 1")), 100));
+		assertEquals(100, MaterialTable.adjust(table.get(getKey("2b1k3/p7/8/8/8/8/PP6/3BK3 w - - 0 1")), 100));
+
+		// The evaluator applies the table
+		final ChessLibMoveGenerator board = FENUtils.from("3rk3/8/8/8/8/8/8/3RK3 w - - 0 1");
+		final MyEval raw = new MyEval(null);
+		raw.init(board);
+		final MyEval ev = new MyEval(table);
+		ev.init(board);
+		assertEquals(MaterialTable.adjust(table.get(ev.getMaterialKey()), raw.evaluateAsWhite(board)), ev.evaluateAsWhite(board));
+		assertEquals(ev.evaluateAsWhite(board), ev.fork().evaluate(board));
+	}
+}
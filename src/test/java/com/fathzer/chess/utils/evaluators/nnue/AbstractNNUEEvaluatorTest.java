@@ -0,0 +1,139 @@
+package com.fathzer.chess.utils.evaluators.nnue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class AbstractNNUEEvaluatorTest {
+	private static final int HIDDEN_SIZE = 16;
+	private static final int OUTPUT_BIAS = 1234;
+
+	private static class MyEval extends AbstractNNUEEvaluator<Move, ChessLibMoveGenerator> {
+		public MyEval(Network network) {
+			super(network);
+		}
+
+		private MyEval(Network network, Accumulator state) {
+			super(network, state);
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+
+		@Override
+		protected AbstractNNUEEvaluator<Move, ChessLibMoveGenerator> fork(Accumulator state) {
+			return new MyEval(getNetwork(), state);
+		}
+	}
+
+	private static short[] random(Random rnd, int size, int bound) {
+		final short[] result = new short[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = (short)(rnd.nextInt(2*bound)-bound);
+		}
+		return result;
+	}
+
+	private static byte[] toBytes(short[] featureWeights, short[] featureBiases, short[] outputWeights) {
+		final ByteBuffer buffer = ByteBuffer.allocate((int)Network.getFileSize(HIDDEN_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(Network.MAGIC).putInt(HIDDEN_SIZE);
+		for (short[] array : Arrays.asList(featureWeights, featureBiases, outputWeights)) {
+			for (short value : array) {
+				buffer.putShort(value);
+			}
+		}
+		buffer.putInt(OUTPUT_BIAS);
+		return buffer.array();
+	}
+
+	@Test
+	void testLoad() throws IOException {
+		final Random rnd = new Random(0);
+		final short[] featureWeights = random(rnd, Network.INPUTS*HIDDEN_SIZE, 100);
+		final short[] featureBiases = random(rnd, HIDDEN_SIZE, 100);
+		final short[] outputWeights = random(rnd, 2*HIDDEN_SIZE, 50);
+		final Network network = new Network(HIDDEN_SIZE, featureWeights, featureBiases, outputWeights, OUTPUT_BIAS);
+		final byte[] bytes = toBytes(featureWeights, featureBiases, outputWeights);
+		final Path file = Files.createTempFile("network", ".nnue");
+		try {
+			Files.write(file, bytes);
+			final Network loaded = Network.load(file);
+			assertEquals(HIDDEN_SIZE, loaded.getHiddenSize());
+			final ChessLibMoveGenerator board = FENUtils.from("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+			final MyEval ev1 = new MyEval(network);
+			ev1.init(board);
+			final MyEval ev2 = new MyEval(loaded);
+			ev2.init(board);
+			assertEquals(ev1.evaluateAsWhite(board), ev2.evaluateAsWhite(board));
+
+			// Wrong magic number
+			bytes[0] = 0;
+			Files.write(file, bytes);
+			assertThrows(IOException.class, () -> Network.load(file));
+			// Truncated file
+			Files.write(file, Arrays.copyOf(toBytes(featureWeights, featureBiases, outputWeights), bytes.length-1));
+			assertThrows(IOException.class, () -> Network.load(file));
+		} finally {
+			Files.delete(file);
+		}
+		assertThrows(IllegalArgumentException.class, () -> new Network(HIDDEN_SIZE, featureBiases, featureBiases, outputWeights, 0));
+	}
+
+	@Test
+	void testIncremental() {
+		final Random rnd = new Random(1);
+		final Network network = new Network(HIDDEN_SIZE, random(rnd, Network.INPUTS*HIDDEN_SIZE, 100), random(rnd, HIDDEN_SIZE, 100),
+				random(rnd, 2*HIDDEN_SIZE, 50), OUTPUT_BIAS);
+		final MyEval ev = new MyEval(network);
+		final ChessLibMoveGenerator board = FENUtils.from("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+		ev.init(board);
+		final int initial = ev.evaluateAsWhite(board);
+		// Castling, capture and promotion
+		final String[] moves = {"e1g1", "h3g2", "a2a4", "b4a3", "e5f7", "g2f1q"};
+		for (String move : moves) {
+			final Move mv = new Move(move, board.getBoard().getSideToMove());
+			ev.prepareMove(board, mv);
+			assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+			ev.commitMove();
+			final MyEval other = new MyEval(network);
+			other.init(board);
+			assertEquals(other.evaluateAsWhite(board), ev.evaluateAsWhite(board), "After "+move);
+			assertEquals(ev.evaluate(board), ev.fork().evaluate(board));
+		}
+		for (int i = 0; i < moves.length; i++) {
+			ev.unmakeMove();
+			board.unmakeMove();
+		}
+		assertEquals(initial, ev.evaluateAsWhite(board));
+
+		// The evaluation is symmetric
+		final MyEval mirrored = new MyEval(network);
+		final ChessLibMoveGenerator mirroredBoard = FENUtils.from("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+		mirrored.init(mirroredBoard);
+		assertEquals(-initial, mirrored.evaluateAsWhite(mirroredBoard));
+	}
+}
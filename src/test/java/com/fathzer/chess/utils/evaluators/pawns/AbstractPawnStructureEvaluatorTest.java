@@ -0,0 +1,114 @@
+package com.fathzer.chess.utils.evaluators.pawns;
+
+import static com.github.bhlangonijr.chesslib.Square.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.BoardExplorer;
+import com.fathzer.chess.utils.adapters.MoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.chess.utils.evaluators.EvaluationCache;
+import com.fathzer.games.MoveGenerator.MoveConfidence;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class AbstractPawnStructureEvaluatorTest {
+	private static class MyEval extends AbstractPawnStructureEvaluator<Move, ChessLibMoveGenerator> {
+		public MyEval(EvaluationCache pawnTable) {
+			super(pawnTable, PawnStructure.DEFAULT);
+		}
+
+		private MyEval(EvaluationCache pawnTable, long[] state) {
+			super(pawnTable, PawnStructure.DEFAULT, state);
+		}
+
+		@Override
+		public MoveData<Move, ChessLibMoveGenerator> get() {
+			return new ChessLibMoveData();
+		}
+
+		@Override
+		public BoardExplorer getExplorer(ChessLibMoveGenerator board) {
+			return new ChessLibBoardExplorer(board.getBoard());
+		}
+
+		@Override
+		protected AbstractPawnStructureEvaluator<Move, ChessLibMoveGenerator> fork(long[] state) {
+			return new MyEval(getPawnTable(), state);
+		}
+	}
+
+	private static int evaluate(String fen) {
+		final MyEval ev = new MyEval(new EvaluationCache(16));
+		final ChessLibMoveGenerator board = FENUtils.from(fen);
+		ev.init(board);
+		return ev.evaluateAsWhite(board);
+	}
+
+	@Test
+	void testStructure() {
+		assertEquals(0, evaluate("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+		// Isolated passed pawn on 4th rank
+		assertEquals(20-15, evaluate("4k3/8/8/8/3P4/8/8/4K3 w - - 0 1"));
+		assertEquals(-20+15, evaluate("4k3/8/8/3p4/8/8/8/4K3 w - - 0 1"));
+		// Doubled isolated pawns vs an isolated pawn
+		assertEquals(-10-2*15+15, evaluate("4k3/4p3/8/8/8/3P4/3P4/4K3 w - - 0 1"));
+		// c3 is backward, d4 is passed, b5 is isolated
+		assertEquals(-8+20+15, evaluate("4k3/8/8/1p6/3P4/2P5/8/4K3 w - - 0 1"));
+	}
+
+	@Test
+	void testIncremental() {
+		final EvaluationCache pawnTable = new EvaluationCache(1024);
+		final MyEval ev = new MyEval(pawnTable);
+		final ChessLibMoveGenerator board = FENUtils.from("4k3/8/8/1p6/3P4/2P5/8/4K3 w - - 0 1");
+		ev.init(board);
+		final long initialKey = ev.getPawnKey();
+		assertEquals(-8+20+15, ev.evaluateAsWhite(board));
+		assertEquals(0, pawnTable.getHits());
+
+		// A king move does not change the pawn structure
+		Move mv = new Move(E1, E2);
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		assertEquals(initialKey, ev.getPawnKey());
+		assertEquals(-8+20+15, ev.evaluateAsWhite(board));
+		assertEquals(1, pawnTable.getHits());
+
+		// b5 takes c4 after c3-c4
+		mv = new Move(E8, E7);
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		mv = new Move(C3, C4);
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		mv = new Move(B5, C4);
+		ev.prepareMove(board, mv);
+		assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+		ev.commitMove();
+		// The key is the one of a position with the same pawns
+		final MyEval other = new MyEval(new EvaluationCache(16));
+		other.init(FENUtils.from("8/4k3/8/8/2pP4/8/4K3/8 w - - 0 1"));
+		assertEquals(other.getPawnKey(), ev.getPawnKey());
+		// Both pawns are isolated and passed
+		assertEquals(20-15 - (35-15), ev.evaluateAsWhite(board));
+
+		final MyEval forked = (MyEval) ev.fork();
+		assertSame(pawnTable, forked.getPawnTable());
+		assertEquals(ev.getPawnKey(), forked.getPawnKey());
+
+		for (int i = 0; i < 4; i++) {
+			ev.unmakeMove();
+			board.unmakeMove();
+		}
+		assertEquals(initialKey, ev.getPawnKey());
+		assertEquals(-8+20+15, ev.evaluateAsWhite(board));
+		assertEquals(2, pawnTable.getHits());
+	}
+}
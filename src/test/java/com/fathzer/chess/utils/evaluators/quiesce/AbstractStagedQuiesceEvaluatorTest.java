@@ -0,0 +1,114 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static com.github.bhlangonijr.chesslib.Square.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.utils.MvvLvaTable;
+import com.fathzer.chess.utils.adapters.chesslib.BasicMoveDecoder;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.chess.utils.evaluators.ChessLibNaiveEvaluator;
+import com.fathzer.chess.utils.evaluators.quiesce.AbstractQuiesceEvaluator.MoveSource;
+import com.fathzer.games.ai.SearchContext;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class AbstractStagedQuiesceEvaluatorTest {
+	private static class StagedQuiesce extends AbstractStagedQuiesceEvaluator<Move, ChessLibMoveGenerator> {
+		@Override
+		protected boolean isCheck(SearchContext<Move, ChessLibMoveGenerator> context) {
+			return context.getGamePosition().getBoard().isKingAttacked();
+		}
+
+		@Override
+		protected void fillCaptures(SearchContext<Move, ChessLibMoveGenerator> context, int quiesceDepth, MoveBuffer<Move> moves) {
+			fill(context.getGamePosition(), context.getGamePosition().getBoard().pseudoLegalCaptures(), moves);
+		}
+
+		@Override
+		protected void fillEvasions(SearchContext<Move, ChessLibMoveGenerator> context, int quiesceDepth, MoveBuffer<Move> moves) {
+			fill(context.getGamePosition(), context.getGamePosition().getBoard().pseudoLegalMoves(), moves);
+		}
+
+		private void fill(ChessLibMoveGenerator mg, List<Move> generated, MoveBuffer<Move> moves) {
+			for (Move move : generated) {
+				final int attacker = Math.abs(BasicMoveDecoder.getMovingPiece(mg, move));
+				moves.add(move, MvvLvaTable.DEFAULT.getCaptureScore(BasicMoveDecoder.getCapturedType(mg, move), attacker));
+			}
+		}
+	}
+
+	private static SearchContext<Move, ChessLibMoveGenerator> getContext(String fen) {
+		final Board board = new Board();
+		board.loadFromFen(fen);
+		return SearchContext.get(new ChessLibMoveGenerator(board), ChessLibNaiveEvaluator::new);
+	}
+
+	private static List<Move> getMoves(StagedQuiesce qev, SearchContext<Move, ChessLibMoveGenerator> context, Move tableMove) {
+		final MoveSource<Move> source = qev.getMoveSource(context, context.getStatistics(), 0, qev.isCheck(context), tableMove);
+		final List<Move> result = new ArrayList<>();
+		for (Move move = source.next(); move!=null; move = source.next()) {
+			result.add(move);
+		}
+		return result;
+	}
+
+	@Test
+	void testSameAsBasic() {
+		final StagedQuiesce qev = new StagedQuiesce();
+		MinimaxTest.assertSameScores(qev);
+		qev.setExchangeEstimator(new MinimaxTest.CountingEstimator());
+		MinimaxTest.assertSameScores(qev);
+	}
+
+	@Test
+	void testStages() {
+		// Pxa5 wins a pawn, Nxd5 is an equal trade and Rxg6 loses the rook. MVV-LVA order would be Nxd5, Pxa5, Rxg6.
+		final SearchContext<Move, ChessLibMoveGenerator> context = getContext("4k3/5p1p/4p1p1/p2n4/1P6/2N5/8/K5R1 w - - 0 1");
+		final Move winning = new Move(B4, A5);
+		final Move equal = new Move(C3, D5);
+		final Move losing = new Move(G1, G6);
+		final StagedQuiesce qev = new StagedQuiesce();
+		// Without estimator, all the captures are winning ones
+		assertEquals(List.of(equal, winning, losing), getMoves(qev, context, null));
+
+		final MinimaxTest.CountingEstimator estimator = new MinimaxTest.CountingEstimator();
+		qev.setExchangeEstimator(estimator);
+		// The captures are estimated only when selected: Nxd5 is deferred, then Pxa5 is returned and Rxg6 is not estimated yet
+		final MoveSource<Move> source = qev.getMoveSource(context, context.getStatistics(), 0, false, null);
+		assertEquals(winning, source.next());
+		assertEquals(1, estimator.positions);
+		assertEquals(2, estimator.estimates);
+
+		estimator.positions = 0;
+		estimator.estimates = 0;
+		assertEquals(List.of(winning, equal, losing), getMoves(qev, context, null));
+		// The bitboards are built once and each capture is estimated once
+		assertEquals(1, estimator.positions);
+		assertEquals(3, estimator.estimates);
+		assertEquals(0, estimator.thresholds);
+
+		// The table move is searched first, even if it is a losing capture
+		assertEquals(List.of(losing, winning, equal), getMoves(qev, context, losing));
+
+		qev.setPruneLosingCaptures(true);
+		assertEquals(List.of(winning, equal), getMoves(qev, context, null));
+	}
+
+	@Test
+	void testEvasions() {
+		// Black is in check, the evasions, including quiet moves, are searched
+		final SearchContext<Move, ChessLibMoveGenerator> context = getContext("rnbqkr2/pppp1p1p/5p1b/6pn/8/BP2R2P/P1PPPPP1/RN1QKBN1 b - - 0 1");
+		final StagedQuiesce qev = new StagedQuiesce();
+		qev.setExchangeEstimator(new MinimaxTest.CountingEstimator());
+		qev.setPruneLosingCaptures(true);
+		final List<Move> moves = getMoves(qev, context, null);
+		assertEquals(context.getGamePosition().getBoard().pseudoLegalMoves().size(), moves.size());
+		assertTrue(moves.contains(new Move(D8, E7)));
+		assertEquals(-900, qev.evaluate(context, 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE));
+	}
+}
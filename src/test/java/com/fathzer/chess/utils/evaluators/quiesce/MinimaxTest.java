@@ -7,6 +7,10 @@ import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import com.fathzer.chess.utils.MvvLvaTable;
+import com.fathzer.chess.utils.adapters.chesslib.BasicMoveDecoder;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
 import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
 import com.fathzer.chess.utils.evaluators.ChessLibNaiveEvaluator;
 import com.fathzer.games.MoveGenerator.MoveConfidence;
@@ -18,8 +22,15 @@ import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.move.Move;
 
 class MinimaxTest {
+	/** The positions of {@link #testQuiesce()} and {@link #testQuiesceOnCheck()}. */
+	private static final String[] FENS = {
+			"3n1rk1/1pp2Q1p/2r2bq1/2P1p1p1/3pP3/P2P2PP/1R3PB1/2B2RK1 b - - 0 26",
+			"3n1rk1/1Qp2p1p/2r2bq1/2P1p1p1/3pP3/P2P2PP/1R3PB1/2B2RK1 b - - 0 26",
+			"rnbqkr2/pppp1p1p/5p1b/6pn/8/BP2R2P/P1PPPPP1/RN1QKBN1 b - - 0 1",
+			"rnb1krq1/ppBp1p1p/2p2p1b/6pn/8/1P2R2P/P1PPPPP1/RN1QKBN1 b - - 0 1"};
+
 	static class SimpleQuiesce extends AbstractBasicQuiesceEvaluator<Move, ChessLibMoveGenerator> {
-		private SimpleQuiesce() {
+		SimpleQuiesce() {
 			super();
 		}
 
@@ -66,4 +77,179 @@ class MinimaxTest {
 		board.loadFromFen("rnb1krq1/ppBp1p1p/2p2p1b/6pn/8/1P2R2P/P1PPPPP1/RN1QKBN1 b - - 0 1");
 		assertEquals(-ev.getWinScore(0), qev.evaluate(SearchContext.get(mg, ()->ev), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE));
 	}
+
+	static class BufferedQuiesce extends AbstractBufferedQuiesceEvaluator<Move, ChessLibMoveGenerator> {
+		@Override
+		protected boolean isCheck(SearchContext<Move, ChessLibMoveGenerator> context) {
+			return context.getGamePosition().getBoard().isKingAttacked();
+		}
+
+		@Override
+		protected void fillMoves(SearchContext<Move, ChessLibMoveGenerator> context, int quiesceDepth, MoveBuffer<Move> moves) {
+			final ChessLibMoveGenerator mg = context.getGamePosition();
+			final Board board = mg.getBoard();
+			for (Move move : isCheck(context) ? board.pseudoLegalMoves() : board.pseudoLegalCaptures()) {
+				final int attacker = Math.abs(BasicMoveDecoder.getMovingPiece(mg, move));
+				moves.add(move, MvvLvaTable.DEFAULT.getCaptureScore(BasicMoveDecoder.getCapturedType(mg, move), attacker));
+			}
+		}
+	}
+
+	/** An estimator that counts its calls. */
+	static class CountingEstimator extends SEEExchangeEstimator<Move, ChessLibMoveGenerator> {
+		int positions;
+		int estimates;
+		int thresholds;
+
+		CountingEstimator() {
+			super(b -> new ChessLibBoardExplorer(b.getBoard()), new ChessLibMoveData());
+		}
+
+		@Override
+		public void setPosition(ChessLibMoveGenerator board, long[] position) {
+			positions++;
+			super.setPosition(board, position);
+		}
+
+		@Override
+		public int estimate(long[] position, ChessLibMoveGenerator board, Move move) {
+			estimates++;
+			return super.estimate(position, board, move);
+		}
+
+		@Override
+		public boolean isAtLeast(long[] position, ChessLibMoveGenerator board, Move move, int threshold) {
+			thresholds++;
+			return super.isAtLeast(position, board, move, threshold);
+		}
+	}
+
+	/** Checks that a quiesce evaluator returns the same scores as {@link SimpleQuiesce} on the positions of this test.
+	 * @param qev The evaluator to check
+	 */
+	static void assertSameScores(QuiesceEvaluator<Move, ChessLibMoveGenerator> qev) {
+		final QuiesceEvaluator<Move, ChessLibMoveGenerator> reference = new SimpleQuiesce();
+		for (String fen : FENS) {
+			final int expected = reference.evaluate(getContext(fen), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE);
+			assertEquals(expected, qev.evaluate(getContext(fen), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE), fen);
+			// Fail high and fail low searches
+			assertEquals(reference.evaluate(getContext(fen), 0, expected-2, expected-1), qev.evaluate(getContext(fen), 0, expected-2, expected-1), fen);
+			assertEquals(reference.evaluate(getContext(fen), 0, expected+1, expected+2), qev.evaluate(getContext(fen), 0, expected+1, expected+2), fen);
+		}
+	}
+
+	@Test
+	void testBuffered() {
+		final BufferedQuiesce qev = new BufferedQuiesce();
+		assertEquals(800, qev.evaluate(getContext(FENS[0]), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE));
+		assertSameScores(qev);
+		// With pruning
+		qev.setExchangeEstimator(new SEEExchangeEstimator<>(b -> new ChessLibBoardExplorer(b.getBoard()), new ChessLibMoveData()));
+		qev.setDeltaMargin(200);
+		final SimpleQuiesce basic = getPruningQuiesce();
+		basic.setDeltaMargin(200);
+		for (String fen : FENS) {
+			assertEquals(basic.evaluate(getContext(fen), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE), qev.evaluate(getContext(fen), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE), fen);
+		}
+	}
+
+	private static SearchContext<Move, ChessLibMoveGenerator> getContext(String fen) {
+		final Board board = new Board();
+		board.loadFromFen(fen);
+		return SearchContext.get(new ChessLibMoveGenerator(board), ChessLibNaiveEvaluator::new);
+	}
+
+	private static boolean isPruned(SimpleQuiesce qev, ChessLibMoveGenerator board, Move move, int standPat, int alpha) {
+		final ExchangePosition<Move, ChessLibMoveGenerator> position = new ExchangePosition<>();
+		position.init(qev.getExchangeEstimator(), board);
+		return qev.isPruned(position, move, standPat, alpha);
+	}
+
+	private static SimpleQuiesce getPruningQuiesce() {
+		final SimpleQuiesce qev = new SimpleQuiesce();
+		qev.setExchangeEstimator(new SEEExchangeEstimator<>(b -> new ChessLibBoardExplorer(b.getBoard()), new ChessLibMoveData()));
+		qev.setQuiesceStatistics(new QuiesceStatistics());
+		return qev;
+	}
+
+	@Test
+	void testDeltaPruning() {
+		// White can win an undefended pawn, but its stand pat (800) is far below alpha
+		final SearchContext<Move, ChessLibMoveGenerator> context = getContext("4k3/8/8/3p4/8/8/8/3QK3 w - - 0 1");
+		final SimpleQuiesce qev = getPruningQuiesce();
+		assertEquals(1300, qev.evaluate(context, 0, 1300, 1301));
+		assertEquals(1, qev.getQuiesceStatistics().getSnapshot().getNodes(1));
+
+		qev.getQuiesceStatistics().reset();
+		qev.setDeltaMargin(200);
+		assertEquals(1300, qev.evaluate(context, 0, 1300, 1301));
+		assertEquals(0, qev.getQuiesceStatistics().getSnapshot().getNodes(1));
+
+		// A larger margin keeps the capture
+		qev.getQuiesceStatistics().reset();
+		qev.setDeltaMargin(500);
+		assertEquals(1300, qev.evaluate(context, 0, 1300, 1301));
+		assertEquals(1, qev.getQuiesceStatistics().getSnapshot().getNodes(1));
+
+		// Only captures and promotions are pruned, not quiet moves (typically checks)
+		qev.setDeltaMargin(0);
+		final ChessLibMoveGenerator board = context.getGamePosition();
+		assertTrue(isPruned(qev, board, new Move(D1, D5), 800, 1300));
+		assertFalse(isPruned(qev, board, new Move(D1, A4), 800, 1300));
+	}
+
+	@Test
+	void testLosingCapturesPruning() {
+		// The only capture (Qxe5+) loses the queen
+		final SearchContext<Move, ChessLibMoveGenerator> context = getContext("4k3/8/3p4/4p1p1/8/8/8/4QK2 w - - 0 1");
+		final SimpleQuiesce qev = getPruningQuiesce();
+		final int expected = qev.evaluate(context, 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE);
+		assertTrue(qev.getQuiesceStatistics().getSnapshot().getNodes(1)>0);
+
+		qev.getQuiesceStatistics().reset();
+		qev.setPruneLosingCaptures(true);
+		assertEquals(expected, qev.evaluate(context, 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE));
+		assertEquals(1, qev.getQuiesceStatistics().getSnapshot().getNodes());
+
+		// Quiet moves are never pruned, even if they put a piece en prise
+		assertFalse(isPruned(qev, context.getGamePosition(), new Move(E1, H4), 0, Integer.MIN_VALUE+1));
+	}
+
+	@Test
+	void testLosingCapturesPruningCost() {
+		final SimpleQuiesce qev = getPruningQuiesce();
+		final CountingEstimator estimator = new CountingEstimator();
+		qev.setExchangeEstimator(estimator);
+		qev.setPruneLosingCaptures(true);
+		qev.evaluate(getContext(FENS[1]), 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE);
+		// The bitboards are built at most once per node, not once per tested capture
+		assertTrue(estimator.positions<=qev.getQuiesceStatistics().getSnapshot().getNodes());
+		assertTrue(estimator.thresholds>estimator.positions);
+	}
+
+	@Test
+	void testMaxDepth() {
+		final SearchContext<Move, ChessLibMoveGenerator> context = getContext("3n1rk1/1pp2p1p/2r2bq1/2P1p1p1/3pP3/PQ1P2PP/1R3PB1/2B2RK1 w - - 2 26");
+		assertTrue(context.makeMove(new Move(B3, F7), MoveConfidence.UNSAFE));
+		final SimpleQuiesce qev = getPruningQuiesce();
+		assertEquals(800, qev.evaluate(context, 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE));
+		assertTrue(qev.getQuiesceStatistics().getSnapshot().getNodes(2)>0);
+
+		// At depth 1, the positions are evaluated without searching their captures
+		qev.getQuiesceStatistics().reset();
+		qev.setMaxDepth(1);
+		qev.evaluate(context, 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE);
+		assertTrue(qev.getQuiesceStatistics().getSnapshot().getNodes(1)>0);
+		assertEquals(0, qev.getQuiesceStatistics().getSnapshot().getNodes(2));
+
+		// The king is in check, its evaluation is returned
+		qev.setMaxDepth(0);
+		assertEquals(context.getEvaluator().evaluate(context.getGamePosition()), qev.evaluate(context, 0, Integer.MIN_VALUE+1, Integer.MAX_VALUE));
+		// Even in check, the result is bounded by alpha and beta
+		final int evaluation = context.getEvaluator().evaluate(context.getGamePosition());
+		assertEquals(evaluation+1, qev.evaluate(context, 0, evaluation+1, evaluation+2));
+		assertEquals(evaluation-1, qev.evaluate(context, 0, evaluation-2, evaluation-1));
+		assertEquals(0, qev.getMaxDepth());
+		assertThrows(IllegalArgumentException.class, () -> qev.setMaxDepth(-1));
+	}
 }
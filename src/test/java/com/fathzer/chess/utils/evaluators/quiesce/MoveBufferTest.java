@@ -0,0 +1,49 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MoveBufferTest {
+	@Test
+	void test() {
+		final MoveBuffer<String> buffer = new MoveBuffer<>(2);
+		assertFalse(buffer.hasNext());
+		assertNull(buffer.next());
+		assertThrows(IllegalStateException.class, buffer::getLastScore);
+		buffer.add("a");
+		buffer.add("b", 5);
+		buffer.add("c", -1);
+		buffer.add("d", 5);
+		buffer.add("e");
+		assertEquals(5, buffer.size());
+		assertEquals("c", buffer.get(2));
+		assertEquals(-1, buffer.getScore(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(5));
+		assertThrows(IndexOutOfBoundsException.class, () -> buffer.getScore(-1));
+		assertEquals("b", buffer.next());
+		assertEquals(5, buffer.getLastScore());
+		assertEquals("d", buffer.next());
+		assertEquals("a", buffer.next());
+		assertEquals("e", buffer.next());
+		assertEquals(0, buffer.getLastScore());
+		assertTrue(buffer.hasNext());
+		assertEquals("c", buffer.next());
+		assertFalse(buffer.hasNext());
+		assertNull(buffer.next());
+
+		buffer.clear();
+		assertEquals(0, buffer.size());
+		buffer.add("f", 2);
+		buffer.add("g", 1);
+		buffer.add("h", 3);
+		assertTrue(buffer.prioritize("g"));
+		assertFalse(buffer.prioritize("x"));
+		assertEquals("g", buffer.next());
+		assertEquals(Integer.MAX_VALUE, buffer.getLastScore());
+		assertFalse(buffer.prioritize("g"));
+		assertEquals("h", buffer.next());
+		assertEquals("f", buffer.next());
+		assertThrows(IllegalArgumentException.class, () -> new MoveBuffer<>(0));
+	}
+}
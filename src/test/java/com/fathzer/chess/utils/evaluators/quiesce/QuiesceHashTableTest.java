@@ -0,0 +1,58 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.fathzer.chess.utils.evaluators.quiesce.AbstractQuiesceEvaluator.NO_CUTOFF;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.utils.evaluators.quiesce.QuiesceTable.Bound;
+
+class QuiesceHashTableTest {
+	@Test
+	void testPack() {
+		for (Bound bound : Bound.values()) {
+			for (int score : new int[] {0, 1, -1, 32000, -32000, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+				final long entry = QuiesceTable.pack(bound, score);
+				assertNotEquals(QuiesceTable.NOT_FOUND, entry);
+				assertEquals(bound, QuiesceTable.getBound(entry));
+				assertEquals(score, QuiesceTable.getScore(entry));
+			}
+		}
+	}
+
+	@Test
+	void testTable() {
+		final QuiesceHashTable<String> table = new QuiesceHashTable<>(100);
+		assertEquals(128, table.getSize());
+		assertEquals(QuiesceTable.NOT_FOUND, table.get(12345L));
+		assertNull(table.getBestMove(12345L));
+
+		table.store(12345L, Bound.LOWER, -50, "e2e4");
+		final long entry = table.get(12345L);
+		assertEquals(Bound.LOWER, QuiesceTable.getBound(entry));
+		assertEquals(-50, QuiesceTable.getScore(entry));
+		assertEquals("e2e4", table.getBestMove(12345L));
+		// Same slot, other key
+		assertEquals(QuiesceTable.NOT_FOUND, table.get(12345L+128));
+		assertNull(table.getBestMove(12345L+128));
+
+		table.store(12345L+128, Bound.EXACT, 10, null);
+		assertEquals(QuiesceTable.NOT_FOUND, table.get(12345L));
+		assertEquals(10, QuiesceTable.getScore(table.get(12345L+128)));
+
+		table.clear();
+		assertEquals(QuiesceTable.NOT_FOUND, table.get(12345L+128));
+		assertThrows(IllegalArgumentException.class, () -> new QuiesceHashTable<>(0));
+	}
+
+	@Test
+	void testProbe() {
+		assertEquals(NO_CUTOFF, AbstractQuiesceEvaluator.probe(QuiesceTable.NOT_FOUND, -100, 100));
+		assertEquals(20, AbstractQuiesceEvaluator.probe(QuiesceTable.pack(Bound.EXACT, 20), -100, 100));
+		assertEquals(100, AbstractQuiesceEvaluator.probe(QuiesceTable.pack(Bound.EXACT, 200), -100, 100));
+		assertEquals(100, AbstractQuiesceEvaluator.probe(QuiesceTable.pack(Bound.LOWER, 150), -100, 100));
+		assertEquals(NO_CUTOFF, AbstractQuiesceEvaluator.probe(QuiesceTable.pack(Bound.LOWER, 50), -100, 100));
+		assertEquals(-100, AbstractQuiesceEvaluator.probe(QuiesceTable.pack(Bound.UPPER, -150), -100, 100));
+		assertEquals(NO_CUTOFF, AbstractQuiesceEvaluator.probe(QuiesceTable.pack(Bound.UPPER, 50), -100, 100));
+	}
+}
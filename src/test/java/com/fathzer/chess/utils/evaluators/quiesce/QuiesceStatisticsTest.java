@@ -0,0 +1,50 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.utils.evaluators.quiesce.QuiesceStatistics.Snapshot;
+
+class QuiesceStatisticsTest {
+	@Test
+	void test() {
+		final QuiesceStatistics stats = new QuiesceStatistics();
+		Snapshot snapshot = stats.getSnapshot();
+		assertEquals(0, snapshot.getNodes());
+		assertEquals(0.0, snapshot.getStandPatCutoffRate());
+		assertEquals(0.0, snapshot.getFirstMoveBetaCutoffRate());
+
+		stats.nodeSearched(0);
+		stats.nodeSearched(1);
+		stats.nodeSearched(1);
+		stats.nodeSearched(QuiesceStatistics.MAX_DEPTH+5);
+		stats.standPatCutoff();
+		stats.betaCutoff(true);
+		stats.betaCutoff(true);
+		stats.betaCutoff(false);
+		stats.betaCutoff(true);
+		stats.tableCutoff();
+		stats.mateFound();
+
+		snapshot = stats.getSnapshot();
+		assertEquals(1, snapshot.getNodes(0));
+		assertEquals(2, snapshot.getNodes(1));
+		assertEquals(1, snapshot.getNodes(QuiesceStatistics.MAX_DEPTH-1));
+		assertEquals(4, snapshot.getNodes());
+		assertEquals(1, snapshot.getStandPatCutoffs());
+		assertEquals(0.25, snapshot.getStandPatCutoffRate());
+		assertEquals(4, snapshot.getBetaCutoffs());
+		assertEquals(3, snapshot.getFirstMoveBetaCutoffs());
+		assertEquals(0.75, snapshot.getFirstMoveBetaCutoffRate());
+		assertEquals(1, snapshot.getTableCutoffs());
+		assertEquals(1, snapshot.getMates());
+		assertThrows(IllegalArgumentException.class, () -> stats.getSnapshot().getNodes(-1));
+
+		stats.reset();
+		assertEquals(0, stats.getSnapshot().getNodes());
+		assertEquals(0, stats.getSnapshot().getMates());
+		// Snapshots are not affected by reset
+		assertEquals(4, snapshot.getNodes());
+	}
+}
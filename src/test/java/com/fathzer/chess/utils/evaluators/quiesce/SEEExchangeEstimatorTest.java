@@ -0,0 +1,37 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibBoardExplorer;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class SEEExchangeEstimatorTest {
+	@Test
+	void test() {
+		final ExchangeEstimator<Move, ChessLibMoveGenerator> estimator = new SEEExchangeEstimator<>(b -> new ChessLibBoardExplorer(b.getBoard()), new ChessLibMoveData());
+		final ChessLibMoveGenerator board = FENUtils.from("3r3k/2P5/3p4/4n3/3P4/8/8/K7 w - - 0 1");
+		final long[] position = new long[estimator.getPositionSize()];
+		estimator.setPosition(board, position);
+		final Move pxn = new Move("d4e5", board.getBoard().getSideToMove());
+		assertEquals(300, estimator.getMaxGain(board, pxn));
+		assertTrue(estimator.isAtLeast(position, board, pxn, 200));
+		assertFalse(estimator.isAtLeast(position, board, pxn, 201));
+
+		final Move promotion = new Move("c7c8q", board.getBoard().getSideToMove());
+		assertEquals(800, estimator.getMaxGain(board, promotion));
+		assertFalse(estimator.isAtLeast(position, board, promotion, 0));
+
+		final Move quiet = new Move("a1b1", board.getBoard().getSideToMove());
+		assertEquals(0, estimator.getMaxGain(board, quiet));
+		assertTrue(estimator.isAtLeast(position, board, quiet, 0));
+
+		assertEquals(200, estimator.estimate(position, board, pxn));
+		assertEquals(-100, estimator.estimate(position, board, promotion));
+		assertEquals(0, estimator.estimate(position, board, quiet));
+	}
+}
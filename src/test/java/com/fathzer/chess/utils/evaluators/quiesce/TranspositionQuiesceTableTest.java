@@ -0,0 +1,76 @@
+package com.fathzer.chess.utils.evaluators.quiesce;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.fathzer.chess.utils.evaluators.quiesce.QuiesceTable.Bound;
+import com.fathzer.games.ai.transposition.EntryType;
+import com.fathzer.games.ai.transposition.OneLongEntryTranspositionTable;
+import com.fathzer.games.ai.transposition.SizeUnit;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class TranspositionQuiesceTableTest {
+	private static class ChessLibTT extends OneLongEntryTranspositionTable<Move, ChessLibMoveGenerator> {
+		private ChessLibTT() {
+			super(1, SizeUnit.MB);
+		}
+
+		@Override
+		protected int toInt(Move move) {
+			return move==null ? 0 : ((move.getPromotion().ordinal()<<12) | (move.getFrom().ordinal()<<6) | move.getTo().ordinal()) + 1;
+		}
+
+		@Override
+		protected Move toMove(int value) {
+			if (value==0) {
+				return null;
+			}
+			value--;
+			return new Move(Square.values()[(value>>6) & 0x3F], Square.values()[value & 0x3F], Piece.values()[value>>12]);
+		}
+	}
+
+	@Test
+	void testTable() {
+		final ChessLibTT tt = new ChessLibTT();
+		final TranspositionQuiesceTable<Move> table = new TranspositionQuiesceTable<>(tt);
+		final Move move = new Move(Square.E2, Square.E4);
+		assertEquals(QuiesceTable.NOT_FOUND, table.get(12345L));
+		assertNull(table.getBestMove(12345L));
+
+		for (Bound bound : Bound.values()) {
+			table.store(12345L, bound, -50, move);
+			final long entry = table.get(12345L);
+			assertEquals(bound, QuiesceTable.getBound(entry));
+			assertEquals(-50, QuiesceTable.getScore(entry));
+			assertEquals(move, table.getBestMove(12345L));
+			assertEquals(0, tt.get(12345L).getDepth());
+		}
+		table.store(12345L, Bound.EXACT, 10, null);
+		assertEquals(10, QuiesceTable.getScore(table.get(12345L)));
+		assertNull(table.getBestMove(12345L));
+
+		// An entry of the main search is not replaced, only its best move is used
+		tt.store(12345L, EntryType.LOWER_BOUND, 3, 200, move, e -> true);
+		table.store(12345L, Bound.EXACT, 20, null);
+		assertEquals(3, tt.get(12345L).getDepth());
+		assertEquals(200, tt.get(12345L).getValue());
+		assertEquals(QuiesceTable.NOT_FOUND, table.get(12345L));
+		assertEquals(move, table.getBestMove(12345L));
+	}
+
+	@Test
+	void testEvaluation() {
+		final MinimaxTest.SimpleQuiesce qev = new MinimaxTest.SimpleQuiesce();
+		qev.setTable(new TranspositionQuiesceTable<>(new ChessLibTT()));
+		qev.setQuiesceStatistics(new QuiesceStatistics());
+		// Evaluate twice to use the results stored by the first evaluation
+		MinimaxTest.assertSameScores(qev);
+		MinimaxTest.assertSameScores(qev);
+		assertTrue(qev.getQuiesceStatistics().getSnapshot().getTableCutoffs()>0);
+	}
+}
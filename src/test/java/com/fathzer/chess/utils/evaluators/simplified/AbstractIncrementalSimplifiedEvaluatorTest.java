@@ -2,6 +2,7 @@ package com.fathzer.chess.utils.evaluators.simplified;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import java.util.function.IntFunction;
 
 import static com.github.bhlangonijr.chesslib.Square.*;
@@ -128,6 +129,51 @@ class AbstractIncrementalSimplifiedEvaluatorTest {
 		ev.prepareMove(board, mv);
 	}
 	
+	@Test
+	void testLazy() {
+		final ChessLibMoveGenerator board = FENUtils.from("r3k2r/1Ppb1ppp/4pn2/pP1p4/3P1B2/2N1P3/P1P1QPPP/R3K2R w KQkq a6 0 6");
+		final MyEval eager = new MyEval();
+		eager.init(board);
+		final MyEval lazy = new MyEval();
+		lazy.setLazy(true);
+		lazy.init(board);
+		assertEquals(eager.evaluateAsWhite(board), lazy.evaluateAsWhite(board));
+		
+		// En passant, castling, promotion with capture, queen side castling 
+		final List<Move> moves = List.of(new Move(B5, A6), new Move(E8, G8), new Move(B7, A8, Piece.WHITE_QUEEN), new Move(F8, A8), new Move(E1, C1));
+		for (int i = 0; i < moves.size(); i++) {
+			final Move mv = moves.get(i);
+			eager.prepareMove(board, mv);
+			lazy.prepareMove(board, mv);
+			assertTrue(board.makeMove(mv, MoveConfidence.UNSAFE));
+			eager.commitMove();
+			lazy.commitMove();
+			if (i%2==1) {
+				// Lazy evaluator has to compute many moves at once
+				assertEquals(eager.evaluateAsWhite(board), lazy.evaluateAsWhite(board), "Error after "+mv);
+			}
+		}
+		assertEquals(eager.evaluateAsWhite(board), lazy.evaluateAsWhite(board));
+		
+		final MyEval forked = (MyEval) lazy.fork();
+		assertTrue(forked.isLazy());
+		assertEquals(eager.evaluateAsWhite(board), forked.evaluateAsWhite(board));
+
+		for (int i = 0; i < 3; i++) {
+			board.unmakeMove();
+			eager.unmakeMove();
+			lazy.unmakeMove();
+		}
+		assertEquals(eager.evaluateAsWhite(board), lazy.evaluateAsWhite(board));
+		// Play another move after unmaking moves that were never evaluated
+		final Move mv = new Move(F4, C7);
+		eager.prepareMove(board, mv);
+		lazy.prepareMove(board, mv);
+		eager.commitMove();
+		lazy.commitMove();
+		assertEquals(eager.evaluateAsWhite(board), lazy.evaluateAsWhite(board));
+	}
+	
 	@Test
 	void testPositionValuesSymetry() {
 		testVerticalSymetry(1, "pawn");	
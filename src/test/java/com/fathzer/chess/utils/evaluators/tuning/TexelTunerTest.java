@@ -0,0 +1,84 @@
+package com.fathzer.chess.utils.evaluators.tuning;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.utils.Pieces;
+import com.fathzer.chess.utils.evaluators.pesto.EndGamePieceSquareTable;
+import com.fathzer.chess.utils.evaluators.pesto.MiddleGamePieceSquareTable;
+
+class TexelTunerTest {
+	private static final String WHITE_PAWN = "4k3/8/8/8/8/8/4P3/4K3";
+	private static final String BLACK_PAWN = "4k3/4p3/8/8/8/8/8/4K3";
+
+	@Test
+	void testTrainingSet() throws IOException {
+		final String data = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - c9 \"1/2-1/2\";\n" +
+				"\n" +
+				WHITE_PAWN+" w - - 0 1 [1.0]\n" +
+				BLACK_PAWN+" w - - 0 1; 0.0\n" +
+				"4k3/8/8/8/8/8/8/3QK3 b - - c9 \"1-0\";\n" +
+				"4k3/8/8/8/8/8/8/3QK3 b - - c9 \"0-1\";\n";
+		final TrainingSet set = new TrainingSet();
+		assertEquals(5, set.load(new BufferedReader(new StringReader(data))));
+		assertEquals(5, set.size());
+		assertEquals(0.5, set.getResult(0));
+		assertEquals(24, set.getPhase(0));
+		assertEquals(1.0, set.getResult(1));
+		assertEquals(0, set.getPhase(1));
+		assertEquals(0.0, set.getResult(2));
+		assertEquals(1.0, set.getResult(3));
+		assertEquals(4, set.getPhase(3));
+		assertEquals(0.0, set.getResult(4));
+
+		// White pawn on e2 and black pawn on e7 are the same feature with opposite signs
+		final short[] features = set.getFeatures();
+		// Two kings and a pawn
+		assertEquals(3, set.getStart(2)-set.getStart(1));
+		final int whitePawn = (Pieces.PAWN-1)*64+52;
+		assertTrue(contains(features, set.getStart(1), set.getStart(2), whitePawn));
+		assertTrue(contains(features, set.getStart(2), set.getStart(3), ~whitePawn));
+
+		assertThrows(IllegalArgumentException.class, () -> set.add("4k3/8/8/8/8/8/8/4K3"));
+		assertThrows(IllegalArgumentException.class, () -> set.add("4k3/8/8/8/8/8/8/4K3 w - - 0 1 [x]"));
+		assertThrows(IllegalArgumentException.class, () -> set.add("4k3/8/8/8/8/8/4K3", 0.5));
+		assertThrows(IllegalArgumentException.class, () -> set.add("4k3/8/8/8/8/8/8/4X3", 0.5));
+		assertThrows(IllegalArgumentException.class, () -> set.add("4k3/8/8/8/8/8/8/4K3", 0.3));
+		assertEquals(5, set.size());
+	}
+
+	private static boolean contains(short[] features, int from, int to, int feature) {
+		for (int i = from; i < to; i++) {
+			if (features[i]==feature) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	void testTuning() {
+		final TrainingSet set = new TrainingSet();
+		// A lone pawn wins 2 games out of 3
+		for (int i = 0; i < 20000; i++) {
+			set.add(WHITE_PAWN, i%3==0 ? 0.5 : 1.0);
+			set.add(BLACK_PAWN, i%3==0 ? 0.5 : 0.0);
+		}
+		final TexelTuner tuner = new TexelTuner(set, new MiddleGamePieceSquareTable(), new EndGamePieceSquareTable(), ForkJoinPool.commonPool());
+		final double initialLoss = tuner.getLoss();
+		final double loss = tuner.tune(50, 2.0);
+		assertTrue(loss<initialLoss);
+		// Middle game values are not used in end game positions
+		assertEquals(new MiddleGamePieceSquareTable().get(Pieces.PAWN, false, 52), tuner.getMiddleGameTable().get(Pieces.PAWN, false, 52));
+		assertEquals(Math.round(tuner.get(false, Pieces.PAWN, 52)), tuner.getEndGameTable().get(Pieces.PAWN, false, 52));
+		assertEquals(-tuner.getEndGameTable().get(Pieces.PAWN, false, 52), tuner.getEndGameTable().get(Pieces.PAWN, true, 12));
+
+		assertThrows(IllegalStateException.class, () -> new TexelTuner(new TrainingSet(), new MiddleGamePieceSquareTable(), new EndGamePieceSquareTable(), ForkJoinPool.commonPool()).step(1.0));
+	}
+}
@@ -0,0 +1,75 @@
+package com.fathzer.chess.utils.ordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.fathzer.chess.utils.Pieces.*;
+import static com.github.bhlangonijr.chesslib.Square.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class ContinuationHistoryComparatorTest {
+	@Test
+	void testTable() {
+		final ContinuationHistoryTable table = new ContinuationHistoryTable();
+		final int previous = HistoryTable.getKey(-BISHOP, 20);
+		final int key = HistoryTable.getKey(PAWN, 40);
+		assertEquals(0, table.get(previous, key));
+		table.add(previous, key, HistoryTable.MAX_SCORE/2);
+		table.add(previous, key, HistoryTable.MAX_SCORE/2);
+		assertEquals(HistoryTable.MAX_SCORE*3/4, table.get(previous, key));
+		assertEquals(0, table.get(key, previous));
+		table.add(previous, key, HistoryTable.MAX_SCORE);
+		assertEquals(HistoryTable.MAX_SCORE, table.get(previous, key));
+		table.age();
+		assertEquals(HistoryTable.MAX_SCORE/2, table.get(previous, key));
+		table.clear();
+		assertEquals(0, table.get(previous, key));
+	}
+
+	@Test
+	void testComparator() {
+		final ChessLibMoveGenerator board = FENUtils.from("4k3/8/8/8/8/2N5/P7/4K3 w - - 0 1");
+		final ContinuationHistoryComparator<Move, ChessLibMoveGenerator> cmp = new ContinuationHistoryComparator<>(board, new ChessLibMoveData(),
+				new ContinuationHistoryTable(), new ContinuationHistoryTable());
+		final Move pawnMove = new Move(A2, A3);
+		final Move knightMove = new Move(C3, E4);
+		final Move kingMove = new Move(E1, F2);
+		final int previous = HistoryTable.getKey(-KING, 4);
+		final int previousPrevious = HistoryTable.getKey(KNIGHT, 42);
+
+		// No previous moves
+		cmp.betaCutoff(kingMove, 10);
+		assertEquals(0, cmp.evaluate(kingMove));
+
+		cmp.setPreviousMoves(previous, previousPrevious);
+		cmp.betaCutoff(knightMove, 3);
+		assertEquals(9, cmp.getOnePlyTable().get(previous, cmp.getKey(knightMove)));
+		assertEquals(9, cmp.getTwoPliesTable().get(previousPrevious, cmp.getKey(knightMove)));
+		assertEquals(18, cmp.evaluate(knightMove));
+		assertTrue(cmp.test(knightMove));
+
+		// Only the move played two plies before is known
+		cmp.setPreviousMoves(CounterMoveTable.NO_MOVE, previousPrevious);
+		cmp.betaCutoff(pawnMove, 5);
+		assertEquals(25, cmp.evaluate(pawnMove));
+		assertEquals(9, cmp.evaluate(knightMove));
+		assertFalse(cmp.test(kingMove));
+
+		final List<Move> moves = Arrays.asList(kingMove, knightMove, pawnMove);
+		moves.sort(cmp);
+		assertEquals(Arrays.asList(pawnMove, knightMove, kingMove), moves);
+
+		cmp.setPreviousMoves(previous, previousPrevious);
+		moves.sort(cmp);
+		assertEquals(Arrays.asList(pawnMove, knightMove, kingMove), moves);
+		assertEquals(18, cmp.evaluate(knightMove));
+	}
+}
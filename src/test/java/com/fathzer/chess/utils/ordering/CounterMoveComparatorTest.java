@@ -0,0 +1,59 @@
+package com.fathzer.chess.utils.ordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.fathzer.chess.utils.Pieces.*;
+import static com.github.bhlangonijr.chesslib.Square.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveData;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class CounterMoveComparatorTest {
+	@Test
+	void testTable() {
+		final CounterMoveTable table = new CounterMoveTable();
+		final int previous = HistoryTable.getKey(-QUEEN, 36);
+		assertEquals(CounterMoveTable.NO_MOVE, table.get(previous));
+		table.set(previous, HistoryTable.getKey(KING, 63));
+		assertEquals(HistoryTable.SIZE-1, table.get(previous));
+		table.clear();
+		assertEquals(CounterMoveTable.NO_MOVE, table.get(previous));
+	}
+
+	@Test
+	void testComparator() {
+		final ChessLibMoveGenerator board = FENUtils.from("4k3/8/8/8/8/2N5/P7/4K3 w - - 0 1");
+		final CounterMoveComparator<Move, ChessLibMoveGenerator> cmp = new CounterMoveComparator<>(board, new ChessLibMoveData(), new CounterMoveTable());
+		final Move pawnMove = new Move(A2, A3);
+		final Move knightMove = new Move(C3, E4);
+		final Move kingMove = new Move(E1, F2);
+		assertEquals(HistoryTable.getKey(KNIGHT, 36), cmp.getKey(knightMove));
+
+		// No previous move
+		cmp.betaCutoff(kingMove);
+		assertEquals(0, cmp.evaluate(kingMove));
+
+		final int previous = HistoryTable.getKey(-KING, 12);
+		cmp.setPreviousMove(previous);
+		assertFalse(cmp.test(kingMove));
+		cmp.betaCutoff(kingMove);
+		assertEquals(cmp.getKey(kingMove), cmp.getTable().get(previous));
+		assertTrue(cmp.test(kingMove));
+		assertFalse(cmp.test(pawnMove));
+
+		final List<Move> moves = Arrays.asList(pawnMove, knightMove, kingMove);
+		moves.sort(cmp);
+		assertEquals(Arrays.asList(kingMove, pawnMove, knightMove), moves);
+
+		// Another previous move has no countermove
+		cmp.setPreviousMove(HistoryTable.getKey(-KING, 11));
+		assertFalse(cmp.test(kingMove));
+	}
+}
@@ -0,0 +1,83 @@
+package com.fathzer.chess.utils.ordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.github.bhlangonijr.chesslib.Square.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fathzer.chess.test.utils.FENUtils;
+import com.fathzer.chess.utils.adapters.chesslib.BasicMoveDecoder;
+import com.fathzer.chess.utils.adapters.chesslib.ChessLibMoveGenerator;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+class HistoryMoveComparatorTest {
+	private static final class ChessLibHistoryMoveComparator extends AbstractHistoryMoveComparator<Move, ChessLibMoveGenerator> {
+		private ChessLibHistoryMoveComparator(ChessLibMoveGenerator board, KillerMoves<Move> killers, HistoryTable history) {
+			super(board, killers, history);
+		}
+
+		@Override
+		public int getMovingPiece(ChessLibMoveGenerator board, Move move) {
+			return BasicMoveDecoder.getMovingPiece(board, move);
+		}
+
+		@Override
+		public int getCapturedType(ChessLibMoveGenerator board, Move move) {
+			return BasicMoveDecoder.getCapturedType(board, move);
+		}
+
+		@Override
+		public int getPromotionType(ChessLibMoveGenerator board, Move move) {
+			return BasicMoveDecoder.getPromotionType(move);
+		}
+
+		@Override
+		protected int getMovingDestination(ChessLibMoveGenerator board, Move move) {
+			final Square to = move.getTo();
+			return 8*(7-to.getRank().ordinal())+to.getFile().ordinal();
+		}
+	}
+
+	@Test
+	void test() {
+		final ChessLibMoveGenerator board = FENUtils.from("4k3/8/8/3p4/8/2N5/P7/4K3 w - - 0 1");
+		final ChessLibHistoryMoveComparator cmp = new ChessLibHistoryMoveComparator(board, new KillerMoves<>(), new ArrayHistoryTable());
+		cmp.setPly(2);
+		final Move capture = new Move(C3, D5);
+		final Move pawnMove = new Move(A2, A3);
+		final Move knightMove = new Move(C3, E4);
+		final Move kingMove = new Move(E1, F2);
+		final Move otherKingMove = new Move(E1, D2);
+
+		// Without cutoffs, quiet moves are equivalent
+		assertEquals(0, cmp.compare(pawnMove, knightMove));
+		assertTrue(cmp.test(capture));
+		assertFalse(cmp.test(pawnMove));
+
+		// Captures are not recorded
+		cmp.betaCutoff(capture, 5);
+		assertEquals(-1, cmp.getKillers().getSlot(2, capture));
+
+		cmp.betaCutoff(knightMove, 3);
+		cmp.betaCutoff(pawnMove, 2);
+		assertEquals(0, cmp.getKillers().getSlot(2, pawnMove));
+		assertEquals(9, cmp.getHistory().get(HistoryTable.getKey(2, 36)));
+		// Killers are not selected
+		assertFalse(cmp.test(pawnMove));
+
+		final List<Move> moves = Arrays.asList(otherKingMove, kingMove, knightMove, pawnMove, capture);
+		moves.sort(cmp);
+		assertEquals(Arrays.asList(capture, pawnMove, knightMove, otherKingMove, kingMove), moves);
+
+		// At another ply, only history is used
+		cmp.setPly(3);
+		cmp.betaCutoff(kingMove, 1);
+		moves.sort(cmp);
+		assertEquals(Arrays.asList(capture, kingMove, knightMove, pawnMove, otherKingMove), moves);
+	}
+}
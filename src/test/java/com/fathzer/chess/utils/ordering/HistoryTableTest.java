@@ -0,0 +1,52 @@
+package com.fathzer.chess.utils.ordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.fathzer.chess.utils.Pieces.*;
+
+import org.junit.jupiter.api.Test;
+
+class HistoryTableTest {
+	@Test
+	void testKeys() {
+		assertEquals(0, HistoryTable.getKey(-KING, 0));
+		assertEquals(HistoryTable.SIZE-1, HistoryTable.getKey(KING, 63));
+		assertNotEquals(HistoryTable.getKey(PAWN, 36), HistoryTable.getKey(-PAWN, 36));
+		assertEquals(16, HistoryTable.getBonus(4));
+		assertEquals(HistoryTable.MAX_SCORE, HistoryTable.getBonus(1000));
+	}
+
+	@Test
+	void testArray() {
+		test(new ArrayHistoryTable());
+	}
+
+	@Test
+	void testConcurrent() {
+		test(new ConcurrentHistoryTable());
+	}
+
+	private void test(HistoryTable history) {
+		final int key = HistoryTable.getKey(KNIGHT, 45);
+		final int other = HistoryTable.getKey(-KNIGHT, 45);
+		assertEquals(0, history.get(key));
+		history.add(key, HistoryTable.MAX_SCORE/2);
+		assertEquals(HistoryTable.MAX_SCORE/2, history.get(key));
+		assertEquals(0, history.get(other));
+		// The gravity reduces the bonus when the score is high
+		history.add(key, HistoryTable.MAX_SCORE/2);
+		assertEquals(HistoryTable.MAX_SCORE*3/4, history.get(key));
+		for (int i = 0; i < 1000; i++) {
+			history.add(key, HistoryTable.getBonus(50));
+		}
+		assertTrue(history.get(key)<=HistoryTable.MAX_SCORE);
+		assertTrue(history.get(key)>HistoryTable.MAX_SCORE*9/10);
+		history.add(key, HistoryTable.MAX_SCORE);
+		assertEquals(HistoryTable.MAX_SCORE, history.get(key));
+
+		history.age();
+		assertEquals(HistoryTable.MAX_SCORE/2, history.get(key));
+		history.clear();
+		assertEquals(0, history.get(key));
+	}
+}
@@ -0,0 +1,40 @@
+package com.fathzer.chess.utils.ordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class KillerMovesTest {
+	@Test
+	void test() {
+		final KillerMoves<String> killers = new KillerMoves<>();
+		assertNull(killers.get(3, 0));
+		assertEquals(-1, killers.getSlot(3, "e2e4"));
+		killers.add(3, "e2e4");
+		assertEquals("e2e4", killers.get(3, 0));
+		assertNull(killers.get(3, 1));
+		assertEquals(0, killers.getSlot(3, "e2e4"));
+		assertEquals(-1, killers.getSlot(2, "e2e4"));
+
+		killers.add(3, "d2d4");
+		assertEquals(0, killers.getSlot(3, "d2d4"));
+		assertEquals(1, killers.getSlot(3, "e2e4"));
+		// Adding the first killer again changes nothing
+		killers.add(3, "d2d4");
+		assertEquals(1, killers.getSlot(3, "e2e4"));
+		killers.add(3, "g1f3");
+		assertEquals(0, killers.getSlot(3, "g1f3"));
+		assertEquals(1, killers.getSlot(3, "d2d4"));
+		assertEquals(-1, killers.getSlot(3, "e2e4"));
+
+		// Deep plies
+		killers.add(500, "a2a3");
+		assertEquals("a2a3", killers.get(500, 0));
+		assertEquals(-1, killers.getSlot(1000, "a2a3"));
+		assertNull(killers.get(1000, 0));
+
+		killers.clear();
+		assertNull(killers.get(3, 0));
+		assertNull(killers.get(500, 0));
+	}
+}